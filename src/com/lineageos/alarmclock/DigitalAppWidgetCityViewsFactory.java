@@ -18,33 +18,50 @@ package com.lineageos.alarmclock;
 
 import static android.appwidget.AppWidgetManager.EXTRA_APPWIDGET_ID;
 import static android.appwidget.AppWidgetManager.INVALID_APPWIDGET_ID;
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
 import static java.util.Calendar.DAY_OF_WEEK;
 
+import android.appwidget.AppWidgetManager;
 import android.content.Context;
 import android.content.Intent;
 import android.content.res.Resources;
+import android.os.SystemClock;
 import android.text.format.DateFormat;
 import android.util.TypedValue;
 import android.view.View;
 import android.widget.RemoteViews;
 import android.widget.RemoteViewsService.RemoteViewsFactory;
 
+import androidx.collection.ArrayMap;
+
 import com.lineageos.deskclock.LogUtils;
 import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.Utils;
 import com.lineageos.deskclock.data.City;
 import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.ModelSnapshot;
+import com.lineageos.deskclock.data.ZoneTransitionCache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This factory produces entries in the world cities list view displayed at the bottom of the
  * digital widget. Each row is comprised of two world cities located side-by-side.
+ *
+ * <p>All rows are built when the data set changes, on the binder thread that requests it, from an
+ * immutable snapshot of the model. Rows are keyed by their content and reused across data set
+ * changes, so only rows whose cities, day labels or appearance changed are rebuilt. The clocks
+ * within each row tick on their own, so a change of time alone never rebuilds a row. Until the
+ * main thread has loaded the model after the process starts, the current rows are kept and the
+ * data set is invalidated again once it has.</p>
  */
 public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
 
@@ -56,11 +73,12 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
     private final float m12HourFontSize;
     private final float m24HourFontSize;
     private final int mWidgetId;
-    private float mFontScale = 1;
 
-    private City mHomeCity;
-    private boolean mShowHomeClock;
-    private List<City> mCities = Collections.emptyList();
+    /** The rows served to the widget; replaced as a whole when the data set changes. */
+    private volatile RemoteViews[] mRows = new RemoteViews[0];
+
+    /** Maps the key of each row to the row built for it at the last data set change. */
+    private Map<Object, RemoteViews> mRowCache = Collections.emptyMap();
 
     public DigitalAppWidgetCityViewsFactory(Context context, Intent intent) {
         mContext = context;
@@ -81,67 +99,15 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
         LOGGER.i("DigitalAppWidgetCityViewsFactory onDestroy " + mWidgetId);
     }
 
-    /**
-     * <p>Synchronized to ensure single-threaded reading/writing of mCities, mHomeCity and
-     * mShowHomeClock.</p>
-     *
-     * {@inheritDoc}
-     */
     @Override
-    public synchronized int getCount() {
-        final int homeClockCount = mShowHomeClock ? 1 : 0;
-        final int worldClockCount = mCities.size();
-        final double totalClockCount = homeClockCount + worldClockCount;
-
-        // Number of clocks / 2 clocks per row
-        return (int) Math.ceil(totalClockCount / 2);
+    public int getCount() {
+        return mRows.length;
     }
 
-    /**
-     * <p>Synchronized to ensure single-threaded reading/writing of mCities, mHomeCity and
-     * mShowHomeClock.</p>
-     *
-     * {@inheritDoc}
-     */
     @Override
-    public synchronized RemoteViews getViewAt(int position) {
-        final int homeClockOffset = mShowHomeClock ? -1 : 0;
-        final int leftIndex = position * 2 + homeClockOffset;
-        final int rightIndex = leftIndex + 1;
-
-        final City left = leftIndex == -1 ? mHomeCity :
-                (leftIndex < mCities.size() ? mCities.get(leftIndex) : null);
-        final City right = rightIndex < mCities.size() ? mCities.get(rightIndex) : null;
-
-        String packageName = mContext.getPackageName();
-        int[] layoutIds = WidgetUtils.getWidgetLayouts(mContext, mWidgetId);
-        final RemoteViews rv = new RemoteViews(packageName, layoutIds[0]);
-        rv.setLightBackgroundLayoutId(layoutIds[1]);
-
-        rv.removeAllViews(R.id.themed_root);
-        rv.addView(R.id.themed_root, new RemoteViews(packageName,
-                R.layout.world_clock_remote_list_item));
-
-        // Show the left clock if one exists.
-        if (left != null) {
-            update(rv, left, R.id.left_clock, R.id.city_name_left, R.id.city_day_left);
-        } else {
-            hide(rv, R.id.left_clock, R.id.city_name_left, R.id.city_day_left);
-        }
-
-        // Show the right clock if one exists.
-        if (right != null) {
-            update(rv, right, R.id.right_clock, R.id.city_name_right, R.id.city_day_right);
-        } else {
-            hide(rv, R.id.right_clock, R.id.city_name_right, R.id.city_day_right);
-        }
-
-        // Hide last spacer in last row; show for all others.
-        final boolean lastRow = position == getCount() - 1;
-        rv.setViewVisibility(R.id.city_spacer, lastRow ? View.GONE : View.VISIBLE);
-
-        rv.setOnClickFillInIntent(R.id.widget_item, mFillInIntent);
-        return rv;
+    public RemoteViews getViewAt(int position) {
+        final RemoteViews[] rows = mRows;
+        return position < rows.length ? rows[position] : null;
     }
 
     @Override
@@ -165,48 +131,128 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
     }
 
     /**
-     * <p>Synchronized to ensure single-threaded reading/writing of mCities, mHomeCity and
-     * mShowHomeClock.</p>
+     * <p>Synchronized to ensure single-threaded rebuilding of the rows.</p>
      *
      * {@inheritDoc}
      */
     @Override
     public synchronized void onDataSetChanged() {
-        // Fetch the data on the main Looper.
-        final RefreshRunnable refreshRunnable = new RefreshRunnable();
-        DataModel.getDataModel().run(refreshRunnable);
-
-        // Store the data in local variables.
-        mHomeCity = refreshRunnable.mHomeCity;
-        mCities = refreshRunnable.mCities;
-        mShowHomeClock = refreshRunnable.mShowHomeClock;
-        mFontScale = WidgetUtils.getScaleRatio(mContext, null, mWidgetId, mCities.size());
+        final long start = SystemClock.elapsedRealtime();
+
+        // Read the data from the snapshot rather than waiting on the main thread.
+        final DataModel dm = DataModel.getDataModel();
+        final CompletableFuture<ModelSnapshot> future = dm.getSnapshotAsync();
+        final ModelSnapshot snapshot = future.getNow(null);
+        if (snapshot == null) {
+            // Keep serving the current rows and rebuild them once the main thread has loaded the
+            // data, rather than blocking this binder thread until it does.
+            future.whenComplete((loaded, t) -> {
+                if (t != null) {
+                    LOGGER.e("Failed to load the data for widget " + mWidgetId, t);
+                    return;
+                }
+                LOGGER.v("Loaded the data for widget %d in %d ms", mWidgetId,
+                        SystemClock.elapsedRealtime() - start);
+                AppWidgetManager.getInstance(mContext)
+                        .notifyAppWidgetViewDataChanged(mWidgetId, R.id.world_city_list);
+            });
+            return;
+        }
+
+        final City homeCity = snapshot.getHomeCity();
+        final List<City> cities = snapshot.getSelectedCities();
+        final boolean showHomeClock = dm.getShowHomeClock();
+
+        final List<City> clocks = new ArrayList<>(cities.size() + 1);
+        if (showHomeClock) {
+            clocks.add(homeCity);
+        }
+        clocks.addAll(cities);
+
+        // Attributes shared by all rows.
+        final float fontScale =
+                WidgetUtils.getScaleRatio(mContext, null, mWidgetId, cities.size());
+        final Locale locale = Locale.getDefault();
+        final boolean is24HourFormat = DateFormat.is24HourFormat(mContext);
+        final int[] layoutIds = WidgetUtils.getWidgetLayouts(mContext, mWidgetId);
+        final long now = System.currentTimeMillis();
+
+        // Number of clocks / 2 clocks per row
+        final int rowCount = (clocks.size() + 1) / 2;
+        final RemoteViews[] rows = new RemoteViews[rowCount];
+        final Map<Object, RemoteViews> rowCache = new ArrayMap<>(rowCount);
+        int rebuilt = 0;
+        for (int position = 0; position < rowCount; position++) {
+            final City left = clocks.get(position * 2);
+            final City right = position * 2 + 1 < clocks.size() ? clocks.get(position * 2 + 1)
+                    : null;
+            final String leftDay = getDayOfWeekLabel(left, now);
+            final String rightDay = right == null ? null : getDayOfWeekLabel(right, now);
+            final boolean lastRow = position == rowCount - 1;
+
+            final Object key = Arrays.asList(layoutIds[0], locale, is24HourFormat, fontScale,
+                    lastRow, getCityKey(left), leftDay, getCityKey(right), rightDay);
+            RemoteViews row = mRowCache.get(key);
+            if (row == null) {
+                row = buildRow(layoutIds, is24HourFormat, fontScale, lastRow, left, leftDay,
+                        right, rightDay);
+                rebuilt++;
+            }
+            rows[position] = row;
+            rowCache.put(key, row);
+        }
+
+        mRowCache = rowCache;
+        mRows = rows;
+        LOGGER.v("Rebuilt %d of %d rows for widget %d in %d ms", rebuilt, rowCount, mWidgetId,
+                SystemClock.elapsedRealtime() - start);
     }
 
-    private void update(RemoteViews rv, City city, int clockId, int labelId, int dayId) {
+    private RemoteViews buildRow(int[] layoutIds, boolean is24HourFormat, float fontScale,
+            boolean lastRow, City left, String leftDay, City right, String rightDay) {
+        final String packageName = mContext.getPackageName();
+        final RemoteViews rv = new RemoteViews(packageName, layoutIds[0]);
+        rv.setLightBackgroundLayoutId(layoutIds[1]);
+
+        rv.removeAllViews(R.id.themed_root);
+        rv.addView(R.id.themed_root, new RemoteViews(packageName,
+                R.layout.world_clock_remote_list_item));
+
+        // Show the left clock; a row always has one.
+        update(rv, is24HourFormat, fontScale, left, leftDay, R.id.left_clock,
+                R.id.city_name_left, R.id.city_day_left);
+
+        // Show the right clock if one exists.
+        if (right != null) {
+            update(rv, is24HourFormat, fontScale, right, rightDay, R.id.right_clock,
+                    R.id.city_name_right, R.id.city_day_right);
+        } else {
+            hide(rv, R.id.right_clock, R.id.city_name_right, R.id.city_day_right);
+        }
+
+        // Hide last spacer in last row; show for all others.
+        rv.setViewVisibility(R.id.city_spacer, lastRow ? View.GONE : View.VISIBLE);
+
+        rv.setOnClickFillInIntent(R.id.widget_item, mFillInIntent);
+        return rv;
+    }
+
+    private void update(RemoteViews rv, boolean is24HourFormat, float fontScale, City city,
+            String dayOfWeekLabel, int clockId, int labelId, int dayId) {
         rv.setCharSequence(clockId, "setFormat12Hour", Utils.get12ModeFormat(0.4f, false));
         rv.setCharSequence(clockId, "setFormat24Hour", Utils.get24ModeFormat(false));
 
-        final boolean is24HourFormat = DateFormat.is24HourFormat(mContext);
         final float fontSize = is24HourFormat ? m24HourFontSize : m12HourFontSize;
-        rv.setTextViewTextSize(clockId, TypedValue.COMPLEX_UNIT_PX, fontSize * mFontScale);
+        rv.setTextViewTextSize(clockId, TypedValue.COMPLEX_UNIT_PX, fontSize * fontScale);
         rv.setString(clockId, "setTimeZone", city.getTimeZone().getID());
         rv.setTextViewText(labelId, city.getName());
 
-        // Compute if the city week day matches the weekday of the current timezone.
-        final Calendar localCal = Calendar.getInstance(TimeZone.getDefault());
-        final Calendar cityCal = Calendar.getInstance(city.getTimeZone());
-        final boolean displayDayOfWeek = localCal.get(DAY_OF_WEEK) != cityCal.get(DAY_OF_WEEK);
-
         // Bind the week day display.
-        if (displayDayOfWeek) {
-            final Locale locale = Locale.getDefault();
-            final String weekday = cityCal.getDisplayName(DAY_OF_WEEK, Calendar.SHORT, locale);
-            final String slashDay = mContext.getString(R.string.world_day_of_week_label, weekday);
-            rv.setTextViewText(dayId, slashDay);
+        if (dayOfWeekLabel != null) {
+            rv.setTextViewText(dayId, dayOfWeekLabel);
         }
 
-        rv.setViewVisibility(dayId, displayDayOfWeek ? View.VISIBLE : View.GONE);
+        rv.setViewVisibility(dayId, dayOfWeekLabel != null ? View.VISIBLE : View.GONE);
         rv.setViewVisibility(clockId, View.VISIBLE);
         rv.setViewVisibility(labelId, View.VISIBLE);
     }
@@ -218,19 +264,34 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
     }
 
     /**
-     * This Runnable fetches data for this factory on the main thread to ensure all DataModel reads
-     * occur on the main thread.
+     * @return the week day label of the {@code city}; {@code null} if its week day matches the
+     *      week day of the current timezone
+     */
+    private String getDayOfWeekLabel(City city, long now) {
+        // Compute if the city week day matches the weekday of the current timezone.
+        final long localOffset = ZoneTransitionCache.getOffset(TimeZone.getDefault(), now);
+        final long cityOffset = ZoneTransitionCache.getOffset(city.getTimeZone(), now);
+        final boolean displayDayOfWeek = Math.floorDiv(now + localOffset, DAY_IN_MILLIS)
+                != Math.floorDiv(now + cityOffset, DAY_IN_MILLIS);
+        if (!displayDayOfWeek) {
+            return null;
+        }
+
+        final Calendar cityCal = Calendar.getInstance(city.getTimeZone());
+        cityCal.setTimeInMillis(now);
+        final Locale locale = Locale.getDefault();
+        final String weekday = cityCal.getDisplayName(DAY_OF_WEEK, Calendar.SHORT, locale);
+        return mContext.getString(R.string.world_day_of_week_label, weekday);
+    }
+
+    /**
+     * @return an object whose equality reflects the displayed identity of the {@code city}
      */
-    private static final class RefreshRunnable implements Runnable {
-        private City mHomeCity;
-        private List<City> mCities;
-        private boolean mShowHomeClock;
-
-        @Override
-        public void run() {
-            mHomeCity = DataModel.getDataModel().getHomeCity();
-            mCities = new ArrayList<>(DataModel.getDataModel().getSelectedCities());
-            mShowHomeClock = DataModel.getDataModel().getShowHomeClock();
+    private static Object getCityKey(City city) {
+        if (city == null) {
+            return null;
         }
+        // The home city has no id; it is identified by its name and time zone instead.
+        return Arrays.asList(city.getId(), city.getName(), city.getTimeZone().getID());
     }
 }
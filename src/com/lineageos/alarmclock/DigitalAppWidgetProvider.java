@@ -18,8 +18,6 @@ package com.lineageos.alarmclock;
 
 import static android.app.AlarmManager.ACTION_NEXT_ALARM_CLOCK_CHANGED;
 import static android.app.PendingIntent.FLAG_IMMUTABLE;
-import static android.app.PendingIntent.FLAG_NO_CREATE;
-import static android.app.PendingIntent.FLAG_UPDATE_CURRENT;
 import static android.appwidget.AppWidgetManager.OPTION_APPWIDGET_MAX_HEIGHT;
 import static android.appwidget.AppWidgetManager.OPTION_APPWIDGET_MAX_WIDTH;
 import static android.appwidget.AppWidgetManager.OPTION_APPWIDGET_MIN_HEIGHT;
@@ -32,12 +30,12 @@ import static android.util.TypedValue.COMPLEX_UNIT_PX;
 import static android.view.View.GONE;
 import static android.view.View.MeasureSpec.UNSPECIFIED;
 import static android.view.View.VISIBLE;
+import static com.lineageos.alarmclock.WallClockScheduler.ACTION_ON_DAY_CHANGE;
 import static com.lineageos.deskclock.data.DataModel.ACTION_WORLD_CITIES_CHANGED;
 import static java.lang.Math.max;
 import static java.lang.Math.round;
 
 import android.annotation.SuppressLint;
-import android.app.AlarmManager;
 import android.app.PendingIntent;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
@@ -51,7 +49,6 @@ import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.text.format.DateFormat;
-import android.util.ArraySet;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.LinearLayout;
@@ -65,17 +62,12 @@ import com.lineageos.deskclock.DeskClock;
 import com.lineageos.deskclock.LogUtils;
 import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.Utils;
-import com.lineageos.deskclock.data.City;
 import com.lineageos.deskclock.data.DataModel;
 import com.lineageos.deskclock.uidata.UiDataModel;
 import com.lineageos.deskclock.worldclock.CitySelectionActivity;
 
 import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
 import java.util.Locale;
-import java.util.Set;
-import java.util.TimeZone;
 
 /**
  * <p>This provider produces a widget resembling one of the formats below.</p>
@@ -102,22 +94,12 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
 
     private static boolean sReceiversRegistered;
 
-    /**
-     * Intent action used for refreshing a world city display when any of them changes days or when
-     * the default TimeZone changes days. This affects the widget display because the day-of-week is
-     * only visible when the world city day-of-week differs from the default TimeZone's day-of-week.
-     */
-    private static final String ACTION_ON_DAY_CHANGE = "com.lineageos.deskclock.ON_DAY_CHANGE";
-
-    /** Intent used to deliver the {@link #ACTION_ON_DAY_CHANGE} callback. */
-    private static final Intent DAY_CHANGE_INTENT = new Intent(ACTION_ON_DAY_CHANGE);
-
     @Override
     public void onEnabled(Context context) {
         super.onEnabled(context);
 
         // Schedule the day-change callback if necessary.
-        updateDayChangeCallback(context);
+        WallClockScheduler.update(context);
     }
 
     @Override
@@ -125,7 +107,7 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         super.onDisabled(context);
 
         // Remove any scheduled day-change callback.
-        removeDayChangeCallback(context);
+        WallClockScheduler.update(context);
     }
 
     @Override
@@ -159,7 +141,7 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         dm.updateWidgetCount(getClass(), widgetIds.length, R.string.category_digital_widget);
 
         if (widgetIds.length > 0) {
-            updateDayChangeCallback(context);
+            WallClockScheduler.update(context);
         }
     }
 
@@ -181,7 +163,6 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
 
         IntentFilter intentFilter = new IntentFilter();
         intentFilter.addAction(ACTION_WORLD_CITIES_CHANGED);
-        intentFilter.addAction(ACTION_ON_DAY_CHANGE);
         intentFilter.addAction(ACTION_CONFIGURATION_CHANGED);
         context.getApplicationContext().registerReceiver(receiver, intentFilter);
 
@@ -375,56 +356,6 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         return low;
     }
 
-    /**
-     * Remove the existing day-change callback if it is not needed (no selected cities exist).
-     * Add the day-change callback if it is needed (selected cities exist).
-     */
-    private void updateDayChangeCallback(Context context) {
-        final DataModel dm = DataModel.getDataModel();
-        final List<City> selectedCities = dm.getSelectedCities();
-        final boolean showHomeClock = dm.getShowHomeClock();
-        if (selectedCities.isEmpty() && !showHomeClock) {
-            // Remove the existing day-change callback.
-            removeDayChangeCallback(context);
-            return;
-        }
-
-        // Look up the time at which the next day change occurs across all timezones.
-        final Set<TimeZone> zones = new ArraySet<>(selectedCities.size() + 2);
-        zones.add(TimeZone.getDefault());
-        if (showHomeClock) {
-            zones.add(dm.getHomeCity().getTimeZone());
-        }
-        for (City city : selectedCities) {
-            zones.add(city.getTimeZone());
-        }
-        final Date nextDay = Utils.getNextDay(new Date(), zones);
-        if (nextDay == null) {
-            return;
-        }
-
-        // Schedule the next day-change callback; at least one city is displayed.
-        final PendingIntent pi = PendingIntent.getBroadcast(context, 0, DAY_CHANGE_INTENT,
-                        FLAG_UPDATE_CURRENT | FLAG_IMMUTABLE);
-        getAlarmManager(context).setExact(AlarmManager.RTC, nextDay.getTime(), pi);
-    }
-
-    /**
-     * Remove the existing day-change callback.
-     */
-    private void removeDayChangeCallback(Context context) {
-        final PendingIntent pi = PendingIntent.getBroadcast(context, 0, DAY_CHANGE_INTENT,
-                        FLAG_NO_CREATE | FLAG_IMMUTABLE);
-        if (pi != null) {
-            getAlarmManager(context).cancel(pi);
-            pi.cancel();
-        }
-    }
-
-    private static AlarmManager getAlarmManager(Context context) {
-        return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-    }
-
     /**
      * Compute all font and icon sizes based on the given {@code clockFontSize} and apply them to
      * the offscreen {@code sizer} view. Measure the {@code sizer} view and return the resulting
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.alarmclock;
+
+import static android.app.PendingIntent.FLAG_IMMUTABLE;
+import static android.app.PendingIntent.FLAG_NO_CREATE;
+import static android.app.PendingIntent.FLAG_UPDATE_CURRENT;
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.util.ArraySet;
+
+import com.lineageos.deskclock.LogUtils;
+import com.lineageos.deskclock.data.City;
+import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.ZoneTransitionCache;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Schedules the single wall clock wakeup shared by all widgets. The clocks within widgets tick on
+ * their own and the next alarm is delivered by broadcast, so the only event that must be scheduled
+ * is the next change of day in any time zone displayed by a widget. One alarm covers all widgets
+ * and, when it fires, every widget is refreshed in one pass.
+ */
+public final class WallClockScheduler {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("WallClockScheduler");
+
+    /**
+     * Intent action used for refreshing a world city display when any of them changes days or when
+     * the default TimeZone changes days. This affects the widget display because the day-of-week is
+     * only visible when the world city day-of-week differs from the default TimeZone's day-of-week.
+     */
+    static final String ACTION_ON_DAY_CHANGE = "com.lineageos.deskclock.ON_DAY_CHANGE";
+
+    /**
+     * The day change need not be delivered exactly at midnight; allowing this window lets the
+     * system batch it with other alarms.
+     */
+    private static final long WINDOW_MS = MINUTE_IN_MILLIS;
+
+    /** The time of the armed alarm; {@link Long#MIN_VALUE} if unknown or none is armed. */
+    private static long sArmedTime = Long.MIN_VALUE;
+
+    private WallClockScheduler() {}
+
+    /**
+     * Arms the alarm for the next day change across all widgets, or cancels it if no widget
+     * needs one. Must be called on the main thread.
+     */
+    public static void update(Context context) {
+        final long nextDay = getNextDayChange(context);
+        if (nextDay == Long.MAX_VALUE) {
+            cancel(context);
+            return;
+        }
+
+        // Avoid the binder call if the alarm is already armed for this time.
+        if (nextDay == sArmedTime) {
+            return;
+        }
+
+        final PendingIntent pi = PendingIntent.getBroadcast(context, 0, getIntent(context),
+                FLAG_UPDATE_CURRENT | FLAG_IMMUTABLE);
+        getAlarmManager(context).setWindow(AlarmManager.RTC, nextDay, WINDOW_MS, pi);
+        sArmedTime = nextDay;
+        LOGGER.v("Armed day change callback at %d", nextDay);
+    }
+
+    private static void cancel(Context context) {
+        final PendingIntent pi = PendingIntent.getBroadcast(context, 0, getIntent(context),
+                FLAG_NO_CREATE | FLAG_IMMUTABLE);
+        if (pi != null) {
+            getAlarmManager(context).cancel(pi);
+            pi.cancel();
+            LOGGER.v("Cancelled day change callback");
+        }
+        sArmedTime = Long.MIN_VALUE;
+    }
+
+    /**
+     * @return the time of the next day change in any time zone displayed by a widget;
+     *      {@link Long#MAX_VALUE} if no widget displays a day that can change independently
+     */
+    private static long getNextDayChange(Context context) {
+        // Only digital widgets display world cities; analog widgets need no wakeups.
+        final AppWidgetManager wm = AppWidgetManager.getInstance(context);
+        if (wm == null) {
+            return Long.MAX_VALUE;
+        }
+        final ComponentName digital = new ComponentName(context, DigitalAppWidgetProvider.class);
+        if (wm.getAppWidgetIds(digital).length == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        final DataModel dm = DataModel.getDataModel();
+        final List<City> selectedCities = dm.getSelectedCities();
+        final boolean showHomeClock = dm.getShowHomeClock();
+        if (selectedCities.isEmpty() && !showHomeClock) {
+            return Long.MAX_VALUE;
+        }
+
+        // Look up the time at which the next day change occurs across all timezones.
+        final Set<TimeZone> zones = new ArraySet<>(selectedCities.size() + 2);
+        zones.add(TimeZone.getDefault());
+        if (showHomeClock) {
+            zones.add(dm.getHomeCity().getTimeZone());
+        }
+        for (City city : selectedCities) {
+            zones.add(city.getTimeZone());
+        }
+        return ZoneTransitionCache.getNextDay(System.currentTimeMillis(), zones);
+    }
+
+    /**
+     * @return the explicit intent delivered to the digital widgets at the day change
+     */
+    private static Intent getIntent(Context context) {
+        return new Intent(ACTION_ON_DAY_CHANGE)
+                .setClass(context, DigitalAppWidgetProvider.class);
+    }
+
+    private static AlarmManager getAlarmManager(Context context) {
+        return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    }
+}
@@ -24,6 +24,8 @@ import android.content.Intent;
 import android.database.Cursor;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -47,7 +49,9 @@ import com.lineageos.deskclock.alarms.dataadapter.CollapsedAlarmViewHolder;
 import com.lineageos.deskclock.alarms.dataadapter.ExpandedAlarmViewHolder;
 import com.lineageos.deskclock.provider.Alarm;
 import com.lineageos.deskclock.provider.AlarmInstance;
+import com.lineageos.deskclock.uidata.TabListener;
 import com.lineageos.deskclock.uidata.UiDataModel;
+import com.lineageos.deskclock.uidata.UiDataModel.Tab;
 import com.lineageos.deskclock.widget.EmptyViewController;
 import com.lineageos.deskclock.widget.toast.SnackbarManager;
 import com.lineageos.deskclock.widget.toast.ToastManager;
@@ -74,9 +78,25 @@ public final class AlarmClockFragment extends DeskClockFragment implements
 
     private static final String KEY_EXPANDED_ID = "expandedId";
 
+    // Only one alarm is expanded at a time, so an expand or collapse needs at most one new holder
+    // of each type. While its change animation runs, the outgoing holder lives on next to the
+    // incoming one, so the pool keeps both expanded holders afterwards.
+    private static final int PREINFLATED_COLLAPSED_HOLDERS = 1;
+    private static final int PREINFLATED_EXPANDED_HOLDERS = 1;
+    private static final int MAX_RECYCLED_COLLAPSED_HOLDERS = 5;
+    private static final int MAX_RECYCLED_EXPANDED_HOLDERS = 2;
+
     // Updates "Today/Tomorrow" in the UI when midnight passes.
     private final Runnable mMidnightUpdater = new MidnightRunnable();
 
+    // Creates view holders ahead of their first use once the alarm tab is displayed.
+    private final MessageQueue.IdleHandler mPreinflater = new Preinflater();
+    private final TabListener mTabWatcher = new TabWatcher();
+    private boolean mPreinflaterScheduled;
+
+    // Holds the view holders of both types; created with the views whose holders it pools.
+    private RecyclerView.RecycledViewPool mViewPool;
+
     // Views
     private ViewGroup mMainLayout;
     private RecyclerView mRecyclerView;
@@ -129,6 +149,12 @@ public final class AlarmClockFragment extends DeskClockFragment implements
             }
         };
         mRecyclerView.setLayoutManager(mLayoutManager);
+        mViewPool = new RecyclerView.RecycledViewPool();
+        mViewPool.setMaxRecycledViews(CollapsedAlarmViewHolder.VIEW_TYPE,
+                MAX_RECYCLED_COLLAPSED_HOLDERS);
+        mViewPool.setMaxRecycledViews(ExpandedAlarmViewHolder.VIEW_TYPE,
+                MAX_RECYCLED_EXPANDED_HOLDERS);
+        mRecyclerView.setRecycledViewPool(mViewPool);
         mMainLayout = v.findViewById(R.id.main);
         mAlarmUpdateHandler = new AlarmUpdateHandler(context, this, mMainLayout);
         final TextView emptyView = v.findViewById(R.id.alarms_empty_view);
@@ -190,6 +216,22 @@ public final class AlarmClockFragment extends DeskClockFragment implements
 
         if (!isTabSelected()) {
             TimePickerDialogFragment.removeTimeEditDialog(getParentFragmentManager());
+        } else {
+            schedulePreinflater();
+        }
+
+        // Start watching for the alarm tab to be displayed.
+        UiDataModel.getUiDataModel().addTabListener(mTabWatcher);
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+
+        UiDataModel.getUiDataModel().removeTabListener(mTabWatcher);
+        if (mPreinflaterScheduled) {
+            Looper.myQueue().removeIdleHandler(mPreinflater);
+            mPreinflaterScheduled = false;
         }
     }
 
@@ -423,6 +465,17 @@ public final class AlarmClockFragment extends DeskClockFragment implements
         mItemAdapter.removeItem(itemHolder);
     }
 
+    /**
+     * Fills the view pool while the main thread is idle, so that the first expand or collapse
+     * binds a pooled holder instead of inflating its layout within the animated frame.
+     */
+    private void schedulePreinflater() {
+        if (!mPreinflaterScheduled) {
+            mPreinflaterScheduled = true;
+            Looper.myQueue().addIdleHandler(mPreinflater);
+        }
+    }
+
     /**
      * Updates the vertical scroll state of this tab in the {@link UiDataModel} as the user scrolls
      * the recyclerview or when the size/position of elements within the recyclerview changes.
@@ -451,4 +504,40 @@ public final class AlarmClockFragment extends DeskClockFragment implements
             mItemAdapter.notifyDataSetChanged();
         }
     }
+
+    /**
+     * Creates one missing view holder each time the main thread becomes idle, so no single frame
+     * pays for all of them, and unregisters itself once the pool holds enough of each type.
+     */
+    private final class Preinflater implements MessageQueue.IdleHandler {
+        @Override
+        public boolean queueIdle() {
+            final int viewType;
+            if (mViewPool.getRecycledViewCount(ExpandedAlarmViewHolder.VIEW_TYPE)
+                    < PREINFLATED_EXPANDED_HOLDERS) {
+                viewType = ExpandedAlarmViewHolder.VIEW_TYPE;
+            } else if (mViewPool.getRecycledViewCount(CollapsedAlarmViewHolder.VIEW_TYPE)
+                    < PREINFLATED_COLLAPSED_HOLDERS) {
+                viewType = CollapsedAlarmViewHolder.VIEW_TYPE;
+            } else {
+                mPreinflaterScheduled = false;
+                return false;
+            }
+
+            mViewPool.putRecycledView(mItemAdapter.createViewHolder(mRecyclerView, viewType));
+            return true;
+        }
+    }
+
+    /**
+     * Prepares view holders when the alarm tab is displayed.
+     */
+    private final class TabWatcher implements TabListener {
+        @Override
+        public void selectedTabChanged(Tab newSelectedTab) {
+            if (newSelectedTab == ALARMS) {
+                schedulePreinflater();
+            }
+        }
+    }
 }
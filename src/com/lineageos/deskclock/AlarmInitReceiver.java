@@ -18,19 +18,22 @@ package com.lineageos.deskclock;
 
 import android.annotation.SuppressLint;
 import android.content.BroadcastReceiver;
-import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.PowerManager.WakeLock;
+import android.os.SystemClock;
 
 import com.lineageos.deskclock.alarms.AlarmNotifications;
 import com.lineageos.deskclock.alarms.AlarmStateManager;
 import com.lineageos.deskclock.controller.Controller;
 import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.ZoneTransitionCache;
 import com.lineageos.deskclock.provider.AlarmInstance;
 
 import java.util.Calendar;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AlarmInitReceiver extends BroadcastReceiver {
 
@@ -51,6 +54,9 @@ public class AlarmInitReceiver extends BroadcastReceiver {
     @SuppressLint("InlinedApi")
     private static final String ACTION_BOOT_COMPLETED = Intent.ACTION_LOCKED_BOOT_COMPLETED;
 
+    /** Recent phase timings, retained across the broadcasts handled by this process. */
+    private static final PhaseTimings sPhaseTimings = new PhaseTimings(32);
+
     /**
      * This receiver handles a variety of actions:
      *
@@ -72,11 +78,49 @@ public class AlarmInitReceiver extends BroadcastReceiver {
         final WakeLock wl = AlarmAlertWakeLock.createPartialWakeLock(context);
         wl.acquire();
 
+        // The broadcast is finished once both the alarm and the deferred phases complete.
+        final AtomicInteger pendingPhases = new AtomicInteger(2);
+        final Runnable finishPhase = () -> {
+            if (pendingPhases.decrementAndGet() == 0) {
+                result.finish();
+                wl.release();
+                LogUtils.v("AlarmInitReceiver finished; recent phases: %s", sPhaseTimings);
+            }
+        };
+
+        // Cached zone offsets may be stale if the time zone rules were updated.
+        if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            ZoneTransitionCache.clear();
+        }
+
         // We need to increment the global id out of the async task to prevent race conditions
         DataModel.getDataModel().updateGlobalIntentId();
 
+        // Update alarm status once receive the status update broadcast
+        if (ACTION_UPDATE_ALARM_STATUS.equals(action)) {
+            final long start = SystemClock.elapsedRealtime();
+            updateAlarmStatus(context, intent);
+            sPhaseTimings.record("alarm status", start);
+        }
+
+        // Re-arm alarms first and off the main thread; nothing else here is as urgent.
+        AsyncHandler.post(() -> {
+            final long start = SystemClock.elapsedRealtime();
+            try {
+                // Process restored data if any exists
+                if (!DeskClockBackupAgent.processRestoredData(context)) {
+                    // Update all the alarm instances on time change event
+                    AlarmStateManager.fixAlarmInstances(context);
+                }
+            } finally {
+                sPhaseTimings.record("alarms", start);
+                finishPhase.run();
+            }
+        });
+
         // Updates stopwatch and timer data after a device reboot so they are as accurate as
-        // possible.
+        // possible. This reschedules timer expiration so it is not deferred.
+        final long start = SystemClock.elapsedRealtime();
         if (ACTION_BOOT_COMPLETED.equals(action)) {
             DataModel.getDataModel().updateAfterReboot();
             // Stopwatch and timer data need to be updated on time change so the reboot
@@ -84,70 +128,114 @@ public class AlarmInitReceiver extends BroadcastReceiver {
         } else if (Intent.ACTION_TIME_CHANGED.equals(action)) {
             DataModel.getDataModel().updateAfterTimeSet();
         }
+        sPhaseTimings.record("timers", start);
 
-        // Update shortcuts so they exist for the user.
-        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
-                || Intent.ACTION_LOCALE_CHANGED.equals(action)) {
-            Controller.getController().updateShortcuts();
-            NotificationUtils.updateNotificationChannels(context);
-        }
-
-        // Notifications are canceled by the system on application upgrade. This broadcast signals
-        // that the new app is free to rebuild the notifications using the existing data.
-        // Additionally on new app installs, make sure to enable shortcuts immediately as opposed
-        // to waiting for system reboot.
-        if (Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
-            DataModel.getDataModel().updateAllNotifications();
-            Controller.getController().updateShortcuts();
-        }
+        // Cosmetic work is deferred so the main thread first returns from this broadcast.
+        new Handler(Looper.getMainLooper()).post(() -> {
+            final long cosmeticStart = SystemClock.elapsedRealtime();
+            try {
+                // Update shortcuts so they exist for the user.
+                if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                        || Intent.ACTION_LOCALE_CHANGED.equals(action)) {
+                    Controller.getController().updateShortcuts();
+                    NotificationUtils.updateNotificationChannels(context);
+                }
 
-        // Update alarm status once receive the status update broadcast
-        if (ACTION_UPDATE_ALARM_STATUS.equals(action)) {
-            long alarmTime = intent.getLongExtra(TIME, 0L);
-            int alarmStatus = intent.getIntExtra(STATUS, 0);
-
-            if (alarmTime != 0) {
-                ContentResolver cr = context.getContentResolver();
-                List<AlarmInstance> alarmInstances = AlarmInstance.getInstances(cr, null);
-                AlarmInstance alarmInstance = null;
-                for (AlarmInstance instance : alarmInstances) {
-                    if (instance.getAlarmTime().getTimeInMillis() == alarmTime) {
-                        alarmInstance = instance;
-                        break;
-                    }
+                // Notifications are canceled by the system on application upgrade. This broadcast
+                // signals that the new app is free to rebuild the notifications using the existing
+                // data. Additionally on new app installs, make sure to enable shortcuts immediately
+                // as opposed to waiting for system reboot.
+                if (Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+                    DataModel.getDataModel().updateAllNotifications();
+                    Controller.getController().updateShortcuts();
                 }
+            } finally {
+                sPhaseTimings.record("cosmetic", cosmeticStart);
+                finishPhase.run();
+            }
+        });
+    }
 
-                if (alarmInstance != null) {
-                    // Update alarm status if the alarm instance is not null
-                    if (alarmStatus == DISMISS_STATUS) {
-                        AlarmStateManager.setDismissState(context, alarmInstance);
-                    } else if (alarmStatus == SNOOZE_STATUS) {
-                        long snoozeTime = intent.getLongExtra(SNOOZE_TIME, 0L);
-                        if (snoozeTime > System.currentTimeMillis()) {
-                            AlarmNotifications.clearNotification(context, alarmInstance);
-                            Calendar c = Calendar.getInstance();
-                            c.setTimeInMillis(snoozeTime);
-                            alarmInstance.setAlarmTime(c);
-                            alarmInstance.mAlarmState = AlarmInstance.SNOOZE_STATE;
-                            AlarmInstance.updateInstance(cr, alarmInstance);
-                        }
+    /**
+     * Applies a snooze or dismiss performed from the power-off alarm companion.
+     */
+    private static void updateAlarmStatus(Context context, Intent intent) {
+        long alarmTime = intent.getLongExtra(TIME, 0L);
+        int alarmStatus = intent.getIntExtra(STATUS, 0);
+
+        if (alarmTime != 0) {
+            AlarmInstance alarmInstance = AlarmInstance.getInstanceByAlarmTime(context, alarmTime);
+
+            if (alarmInstance != null) {
+                // Update alarm status if the alarm instance is not null
+                if (alarmStatus == DISMISS_STATUS) {
+                    AlarmStateManager.setDismissState(context, alarmInstance);
+                } else if (alarmStatus == SNOOZE_STATUS) {
+                    long snoozeTime = intent.getLongExtra(SNOOZE_TIME, 0L);
+                    if (snoozeTime > System.currentTimeMillis()) {
+                        AlarmNotifications.clearNotification(context, alarmInstance);
+                        Calendar c = Calendar.getInstance();
+                        c.setTimeInMillis(snoozeTime);
+                        alarmInstance.setAlarmTime(c);
+                        alarmInstance.mAlarmState = AlarmInstance.SNOOZE_STATE;
+                        AlarmInstance.updateInstance(context, alarmInstance);
                     }
                 }
             }
         }
+    }
 
-        AsyncHandler.post(() -> {
-            try {
-                // Process restored data if any exists
-                if (!DeskClockBackupAgent.processRestoredData(context)) {
-                    // Update all the alarm instances on time change event
-                    AlarmStateManager.fixAlarmInstances(context);
+    /**
+     * A fixed-size ring buffer of the most recent phase timings. Each entry records how long the
+     * phase took and when it completed relative to boot, which bounds how soon after
+     * {@link Intent#ACTION_LOCKED_BOOT_COMPLETED} the next alarm is re-armed.
+     */
+    private static final class PhaseTimings {
+
+        private final String[] mNames;
+        private final long[] mDurations;
+        private final long[] mCompletionTimes;
+
+        /** The index at which the next timing is recorded. */
+        private int mNext;
+
+        /** The number of timings recorded, up to the capacity of the buffer. */
+        private int mCount;
+
+        private PhaseTimings(int capacity) {
+            mNames = new String[capacity];
+            mDurations = new long[capacity];
+            mCompletionTimes = new long[capacity];
+        }
+
+        /**
+         * @param name identifies the phase
+         * @param start the elapsed realtime at which the phase started
+         */
+        private synchronized void record(String name, long start) {
+            final long now = SystemClock.elapsedRealtime();
+            mNames[mNext] = name;
+            mDurations[mNext] = now - start;
+            mCompletionTimes[mNext] = now;
+            mNext = (mNext + 1) % mNames.length;
+            mCount = Math.min(mCount + 1, mNames.length);
+
+            LogUtils.v("AlarmInitReceiver phase %s took %d ms, completed %d ms after boot",
+                    name, now - start, now);
+        }
+
+        @Override
+        public synchronized String toString() {
+            final StringBuilder sb = new StringBuilder();
+            for (int i = mCount; i > 0; i--) {
+                final int index = (mNext - i + mNames.length) % mNames.length;
+                if (sb.length() > 0) {
+                    sb.append(", ");
                 }
-            } finally {
-                result.finish();
-                wl.release();
-                LogUtils.v("AlarmInitReceiver finished");
+                sb.append(mNames[index]).append('=').append(mDurations[index])
+                        .append("ms@").append(mCompletionTimes[index]);
             }
-        });
+            return sb.toString();
+        }
     }
 }
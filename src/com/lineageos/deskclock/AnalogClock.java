@@ -71,6 +71,9 @@ public class AnalogClock extends FrameLayout {
     private TimeZone mTimeZone;
     private boolean mEnableSeconds = true;
 
+    /** {@code false} if the owner of this clock drives its updates via {@link #setTime}. */
+    private boolean mAutoTick = true;
+
     public AnalogClock(Context context) {
         this(context, null /* attrs */);
     }
@@ -112,6 +115,10 @@ public class AnalogClock extends FrameLayout {
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
 
+        if (!mAutoTick) {
+            return;
+        }
+
         final IntentFilter filter = new IntentFilter();
         filter.addAction(Intent.ACTION_TIME_TICK);
         filter.addAction(Intent.ACTION_TIME_CHANGED);
@@ -133,12 +140,20 @@ public class AnalogClock extends FrameLayout {
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
+        if (!mAutoTick) {
+            return;
+        }
+
         getContext().unregisterReceiver(mIntentReceiver);
         removeCallbacks(mClockTick);
     }
 
     private void onTimeChanged() {
-        mTime.setTimeInMillis(System.currentTimeMillis());
+        onTimeChanged(System.currentTimeMillis());
+    }
+
+    private void onTimeChanged(long timeMillis) {
+        mTime.setTimeInMillis(timeMillis);
         final float hourAngle = mTime.get(Calendar.HOUR) * 30f;
         mHourHand.setRotation(hourAngle);
         final float minuteAngle = mTime.get(Calendar.MINUTE) * 6f;
@@ -157,6 +172,23 @@ public class AnalogClock extends FrameLayout {
         onTimeChanged();
     }
 
+    /**
+     * Stops this clock from listening for time ticks itself so that many clocks can share a
+     * single tick source. Must be called before the clock is attached to a window.
+     *
+     * @param autoTick {@code false} if the time is instead supplied via {@link #setTime}
+     */
+    public void setAutoTick(boolean autoTick) {
+        mAutoTick = autoTick;
+    }
+
+    /**
+     * @param timeMillis the time to display in ms since the epoch
+     */
+    public void setTime(long timeMillis) {
+        onTimeChanged(timeMillis);
+    }
+
     public void enableSeconds(boolean enable) {
         mEnableSeconds = enable;
         if (mEnableSeconds) {
@@ -43,7 +43,13 @@ public final class AsyncRingtonePlayer {
     private static final LogUtils.Logger LOGGER = new LogUtils.Logger("AsyncRingtonePlayer");
 
     // Volume suggested by media team for in-call alarms.
-    private static final float IN_CALL_VOLUME = 0.125f;
+    static final float IN_CALL_VOLUME = 0.125f;
+
+    /** Plays ringtones via the alarm stream. */
+    static final AudioAttributes ALARM_AUDIO_ATTRIBUTES = new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_ALARM)
+            .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+            .build();
 
     // Message codes used with the ringtone thread.
     private static final int EVENT_PLAY = 1;
@@ -152,7 +158,7 @@ public final class AsyncRingtonePlayer {
     /**
      * @return <code>true</code> iff the device is currently in a telephone call
      */
-    private static boolean isInTelephoneCall(AudioManager audioManager) {
+    static boolean isInTelephoneCall(AudioManager audioManager) {
         final int audioMode = audioManager.getMode();
             return audioMode == AudioManager.MODE_IN_COMMUNICATION ||
                     audioMode == AudioManager.MODE_COMMUNICATION_REDIRECT ||
@@ -164,14 +170,14 @@ public final class AsyncRingtonePlayer {
     /**
      * @return Uri of the ringtone to play when the user is in a telephone call
      */
-    private static Uri getInCallRingtoneUri(Context context) {
+    static Uri getInCallRingtoneUri(Context context) {
         return Utils.getResourceUri(context, R.raw.alarm_expire);
     }
 
     /**
      * @return Uri of the ringtone to play when the chosen ringtone fails to play
      */
-    private static Uri getFallbackRingtoneUri(Context context) {
+    static Uri getFallbackRingtoneUri(Context context) {
         return Utils.getResourceUri(context, R.raw.alarm_expire);
     }
 
@@ -317,11 +323,7 @@ public final class AsyncRingtonePlayer {
          */
         private boolean startPlayback(boolean inTelephoneCall) {
             // Indicate the ringtone should be played via the alarm stream.
-            AudioAttributes audioAttributes = new AudioAttributes.Builder()
-                    .setUsage(AudioAttributes.USAGE_ALARM)
-                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
-                    .build();
-            mRingtone.setAudioAttributes(audioAttributes);
+            mRingtone.setAudioAttributes(ALARM_AUDIO_ATTRIBUTES);
 
             // Attempt to adjust the ringtone volume if the user is in a telephone call.
             boolean scheduleVolumeAdjustment = false;
@@ -337,7 +339,7 @@ public final class AsyncRingtonePlayer {
             }
 
             mFocusRequest = new AudioFocusRequest.Builder(AUDIOFOCUS_GAIN_TRANSIENT)
-                    .setAudioAttributes(audioAttributes)
+                    .setAudioAttributes(ALARM_AUDIO_ATTRIBUTES)
                     .build();
             mAudioManager.requestAudioFocus(mFocusRequest);
 
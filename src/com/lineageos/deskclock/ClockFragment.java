@@ -17,11 +17,13 @@
 package com.lineageos.deskclock;
 
 import static android.app.AlarmManager.ACTION_NEXT_ALARM_CLOCK_CHANGED;
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
 import static android.view.View.GONE;
 import static android.view.View.INVISIBLE;
 import static android.view.View.VISIBLE;
 import static com.lineageos.deskclock.uidata.UiDataModel.Tab.CLOCKS;
-import static java.util.Calendar.DAY_OF_WEEK;
 
 import android.app.Activity;
 import android.content.BroadcastReceiver;
@@ -29,7 +31,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.Bundle;
-import android.text.format.DateUtils;
+import android.text.format.DateFormat;
 import android.view.GestureDetector;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
@@ -46,10 +48,12 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.lineageos.deskclock.data.City;
 import com.lineageos.deskclock.data.CityListener;
 import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.ZoneTransitionCache;
 import com.lineageos.deskclock.events.Events;
 import com.lineageos.deskclock.uidata.UiDataModel;
 import com.lineageos.deskclock.worldclock.CitySelectionActivity;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.TimeZone;
@@ -62,6 +66,9 @@ public final class ClockFragment extends DeskClockFragment {
     // Updates dates in the UI on every quarter-hour.
     private final Runnable mQuarterHourUpdater = new QuarterHourRunnable();
 
+    // Updates the times of all world clocks on every minute.
+    private final Runnable mMinuteUpdater = new MinuteRunnable();
+
     // Updates the UI in response to changes to the scheduled alarm.
     private BroadcastReceiver mAlarmChangeReceiver;
 
@@ -128,6 +135,9 @@ public final class ClockFragment extends DeskClockFragment {
         // Schedule a runnable to update the date every quarter hour.
         UiDataModel.getUiDataModel().addQuarterHourCallback(mQuarterHourUpdater);
 
+        // Schedule a single runnable to update the time of every world clock each minute.
+        UiDataModel.getUiDataModel().addMinuteCallback(mMinuteUpdater, 100L);
+
         return fragmentView;
     }
 
@@ -178,6 +188,7 @@ public final class ClockFragment extends DeskClockFragment {
     public void onDestroyView() {
         super.onDestroyView();
         UiDataModel.getUiDataModel().removePeriodicCallback(mQuarterHourUpdater);
+        UiDataModel.getUiDataModel().removePeriodicCallback(mMinuteUpdater);
         DataModel.getDataModel().removeCityListener(mCityAdapter);
     }
 
@@ -268,7 +279,19 @@ public final class ClockFragment extends DeskClockFragment {
     private final class QuarterHourRunnable implements Runnable {
         @Override
         public void run() {
-            mCityAdapter.notifyDataSetChanged();
+            mCityAdapter.refreshMainClock();
+        }
+    }
+
+    /**
+     * This runnable executes at every minute and is the single source of ticks for all world
+     * clocks; their views do not listen for time ticks themselves. It also executes immediately
+     * when the device time or time zone changes.
+     */
+    private final class MinuteRunnable implements Runnable {
+        @Override
+        public void run() {
+            mCityAdapter.updateCityClocks(System.currentTimeMillis());
         }
     }
 
@@ -319,6 +342,9 @@ public final class ClockFragment extends DeskClockFragment {
         private final String mDateFormat;
         private final String mDateFormatForAccessibility;
 
+        /** The world clocks currently attached to the recyclerview; the only ones updated. */
+        private final List<CityViewHolder> mAttachedCityViewHolders = new ArrayList<>();
+
         private SelectedCitiesAdapter(Context context, String dateFormat,
                 String dateFormatForAccessibility) {
             mContext = context;
@@ -366,7 +392,7 @@ public final class ClockFragment extends DeskClockFragment {
                                 + (mShowHomeClock ? 1 : 0);
                         city = getCities().get(position - positionAdjuster);
                     }
-                    ((CityViewHolder) holder).bind(mContext, city);
+                    ((CityViewHolder) holder).bind(mContext, city, System.currentTimeMillis());
                     break;
                 case MAIN_CLOCK:
                     ((MainClockViewHolder) holder).bind(mContext, mDateFormat,
@@ -377,6 +403,23 @@ public final class ClockFragment extends DeskClockFragment {
             }
         }
 
+        @Override
+        public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
+            if (holder instanceof CityViewHolder) {
+                final CityViewHolder cityViewHolder = (CityViewHolder) holder;
+                mAttachedCityViewHolders.add(cityViewHolder);
+                // The row may have been detached across a tick without being rebound.
+                cityViewHolder.update(mContext, System.currentTimeMillis());
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull RecyclerView.ViewHolder holder) {
+            if (holder instanceof CityViewHolder) {
+                mAttachedCityViewHolders.remove(holder);
+            }
+        }
+
         @Override
         public int getItemCount() {
             final int mainClockCount = mIsPortrait ? 1 : 0;
@@ -394,11 +437,25 @@ public final class ClockFragment extends DeskClockFragment {
         }
 
         private void refreshAlarm() {
+            refreshMainClock();
+        }
+
+        private void refreshMainClock() {
             if (mIsPortrait && getItemCount() > 0) {
                 notifyItemChanged(0);
             }
         }
 
+        /**
+         * @param now the current time; each attached world clock updates only the text that
+         *      changed since it was last updated
+         */
+        private void updateCityClocks(long now) {
+            for (int i = 0; i < mAttachedCityViewHolders.size(); i++) {
+                mAttachedCityViewHolders.get(i).update(mContext, now);
+            }
+        }
+
         @Override
         public void citiesChanged() {
             notifyDataSetChanged();
@@ -407,10 +464,29 @@ public final class ClockFragment extends DeskClockFragment {
         private static final class CityViewHolder extends RecyclerView.ViewHolder {
 
             private final TextView mName;
-            private final TextClock mDigitalClock;
+            private final TextView mDigitalClock;
             private final AnalogClock mAnalogClock;
             private final TextView mHoursAhead;
 
+            /** The time zone of the bound city and a calendar used to format times in it. */
+            private TimeZone mCityTimeZone;
+            private Calendar mCityTime;
+
+            /** The pattern of the digital clock; {@code null} if the analog clock is shown. */
+            private CharSequence mFormat;
+
+            /** UTC offsets of the bound city and of the device, valid until either changes. */
+            private String mLocalTimeZoneId;
+            private long mCityUtcOffset;
+            private long mLocalUtcOffset;
+            private long mOffsetsValidUntil;
+
+            /** The displayed minute of the city; {@link Long#MIN_VALUE} if nothing is shown. */
+            private long mDisplayedMinute;
+
+            /** Whether the displayed difference includes the day of week; null if not shown. */
+            private Boolean mDisplayedDayOfWeek;
+
             private CityViewHolder(View itemView) {
                 super(itemView);
 
@@ -418,46 +494,91 @@ public final class ClockFragment extends DeskClockFragment {
                 mDigitalClock = itemView.findViewById(R.id.digital_clock);
                 mAnalogClock = itemView.findViewById(R.id.analog_clock);
                 mHoursAhead = itemView.findViewById(R.id.hours_ahead);
+
+                // All world clocks are updated from the single tick of the fragment.
+                mAnalogClock.setAutoTick(false);
             }
 
-            private void bind(Context context, City city) {
-                final String cityTimeZoneId = city.getTimeZone().getID();
+            private void bind(Context context, City city, long now) {
+                mCityTimeZone = city.getTimeZone();
+                mCityTime = Calendar.getInstance(mCityTimeZone);
 
                 // Configure the digital clock or analog clock depending on the user preference.
                 if (DataModel.getDataModel().getClockStyle() == DataModel.ClockStyle.ANALOG) {
                     mDigitalClock.setVisibility(GONE);
                     mAnalogClock.setVisibility(VISIBLE);
-                    mAnalogClock.setTimeZone(cityTimeZoneId);
+                    mAnalogClock.setTimeZone(mCityTimeZone.getID());
                     mAnalogClock.enableSeconds(false);
+                    mFormat = null;
                 } else {
                     mAnalogClock.setVisibility(GONE);
                     mDigitalClock.setVisibility(VISIBLE);
-                    mDigitalClock.setTimeZone(cityTimeZoneId);
-                    mDigitalClock.setFormat12Hour(Utils.get12ModeFormat(0.3f /* amPmRatio */,
-                            false));
-                    mDigitalClock.setFormat24Hour(Utils.get24ModeFormat(false));
+                    mFormat = DateFormat.is24HourFormat(context)
+                            ? Utils.get24ModeFormat(false)
+                            : Utils.get12ModeFormat(0.3f /* amPmRatio */, false);
                 }
 
                 // Bind the city name.
                 mName.setText(city.getName());
 
+                // Force all text to be recomputed for the newly bound city.
+                mOffsetsValidUntil = Long.MIN_VALUE;
+                mDisplayedMinute = Long.MIN_VALUE;
+                mDisplayedDayOfWeek = null;
+                update(context, now);
+            }
+
+            /**
+             * Updates the displayed time and time difference if they changed since last shown.
+             *
+             * @param now the current time
+             */
+            private void update(Context context, long now) {
+                if (mCityTimeZone == null) {
+                    return;
+                }
+
+                // UTC offsets only change at time zone transitions or if the device zone changes.
+                final TimeZone localTimeZone = TimeZone.getDefault();
+                final boolean offsetsChanged = now >= mOffsetsValidUntil
+                        || !localTimeZone.getID().equals(mLocalTimeZoneId);
+                if (offsetsChanged) {
+                    mLocalTimeZoneId = localTimeZone.getID();
+                    mCityUtcOffset = ZoneTransitionCache.getOffset(mCityTimeZone, now);
+                    mLocalUtcOffset = ZoneTransitionCache.getOffset(localTimeZone, now);
+                    mOffsetsValidUntil = Math.min(
+                            ZoneTransitionCache.getNextTransition(mCityTimeZone, now),
+                            ZoneTransitionCache.getNextTransition(localTimeZone, now));
+                }
+
+                // Bind the time if the minute changed.
+                final long minute = Math.floorDiv(now + mCityUtcOffset, MINUTE_IN_MILLIS);
+                if (minute != mDisplayedMinute) {
+                    mDisplayedMinute = minute;
+                    if (mFormat == null) {
+                        mAnalogClock.setTime(now);
+                    } else {
+                        mCityTime.setTimeInMillis(now);
+                        mDigitalClock.setText(DateFormat.format(mFormat, mCityTime));
+                    }
+                }
+
                 // Compute if the city week day matches the weekday of the current timezone.
-                final Calendar localCal = Calendar.getInstance(TimeZone.getDefault());
-                final Calendar cityCal = Calendar.getInstance(city.getTimeZone());
                 final boolean displayDayOfWeek =
-                        localCal.get(DAY_OF_WEEK) != cityCal.get(DAY_OF_WEEK);
+                        Math.floorDiv(now + mLocalUtcOffset, DAY_IN_MILLIS)
+                                != Math.floorDiv(now + mCityUtcOffset, DAY_IN_MILLIS);
+                if (!offsetsChanged && mDisplayedDayOfWeek != null
+                        && mDisplayedDayOfWeek == displayDayOfWeek) {
+                    return;
+                }
+                mDisplayedDayOfWeek = displayDayOfWeek;
 
                 // Compare offset from UTC time on today's date (daylight savings time, etc.)
-                final TimeZone currentTimeZone = TimeZone.getDefault();
-                final TimeZone cityTimeZone = TimeZone.getTimeZone(cityTimeZoneId);
-                final long currentTimeMillis = System.currentTimeMillis();
-                final long currentUtcOffset = currentTimeZone.getOffset(currentTimeMillis);
-                final long cityUtcOffset = cityTimeZone.getOffset(currentTimeMillis);
-                final long offsetDelta = cityUtcOffset - currentUtcOffset;
-
-                final int hoursDifferent = (int) (offsetDelta / DateUtils.HOUR_IN_MILLIS);
-                final int minutesDifferent = (int) (offsetDelta / DateUtils.MINUTE_IN_MILLIS) % 60;
-                final boolean displayMinutes = offsetDelta % DateUtils.HOUR_IN_MILLIS != 0;
+                final long offsetDelta = mCityUtcOffset - mLocalUtcOffset;
+
+                final int hoursDifferent = (int) (offsetDelta / HOUR_IN_MILLIS);
+                final int minutesDifferent = (int) (offsetDelta / MINUTE_IN_MILLIS) % 60;
+                final boolean displayMinutes = offsetDelta % HOUR_IN_MILLIS != 0;
                 final boolean isAhead = hoursDifferent > 0 || (hoursDifferent == 0
                         && minutesDifferent > 0);
                 // Bind the number of hours ahead or behind, or hide if the time is the same.
@@ -19,6 +19,7 @@ package com.lineageos.deskclock;
 import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Trace;
 import android.preference.PreferenceManager;
 
 import com.lineageos.deskclock.controller.Controller;
@@ -32,6 +33,8 @@ public class DeskClockApplication extends Application {
     public void onCreate() {
         super.onCreate();
 
+        // Traced so the cold-start cost, e.g. on the alarm firing path, can be measured.
+        Trace.beginSection("DeskClockApplication.onCreate");
         final Context applicationContext = getApplicationContext();
         final SharedPreferences prefs = getDefaultSharedPreferences(applicationContext);
 
@@ -39,6 +42,7 @@ public class DeskClockApplication extends Application {
         UiDataModel.getUiDataModel().init(applicationContext, prefs);
         Controller.getController().setContext(applicationContext);
         Controller.getController().addEventTracker(new LogEventTracker(applicationContext));
+        Trace.endSection();
     }
 
     /**
@@ -21,7 +21,6 @@ import android.app.PendingIntent;
 import android.app.backup.BackupAgent;
 import android.app.backup.BackupDataInput;
 import android.app.backup.BackupDataOutput;
-import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.os.ParcelFileDescriptor;
@@ -115,8 +114,7 @@ public class DeskClockBackupAgent extends BackupAgent {
         LOGGER.i("processRestoredData() started");
 
         // Now that alarms have been restored, schedule new instances in AlarmManager.
-        final ContentResolver contentResolver = context.getContentResolver();
-        final List<Alarm> alarms = Alarm.getAlarms(contentResolver, null);
+        final List<Alarm> alarms = Alarm.getAlarms(context, null);
 
         final Calendar now = Calendar.getInstance();
         for (Alarm alarm : alarms) {
@@ -129,7 +127,7 @@ public class DeskClockBackupAgent extends BackupAgent {
                 AlarmInstance alarmInstance = alarm.createInstanceAfter(now);
 
                 // Add the next alarm instance to the database.
-                alarmInstance = AlarmInstance.addInstance(contentResolver, alarmInstance);
+                alarmInstance = AlarmInstance.addInstance(context, alarmInstance);
 
                 // Schedule the next alarm instance in AlarmManager.
                 AlarmStateManager.registerInstance(context, alarmInstance, true);
@@ -17,7 +17,6 @@
 package com.lineageos.deskclock;
 
 import android.app.Activity;
-import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.provider.AlarmClock;
@@ -66,7 +65,6 @@ class FetchMatchingAlarmsAction implements Runnable {
             return;
         }
 
-        final ContentResolver cr = mContext.getContentResolver();
         switch (searchMode) {
             case AlarmClock.ALARM_SEARCH_MODE_TIME:
                 // at least one of these has to be specified in this search mode.
@@ -105,7 +103,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                 // Match currently firing alarms before scheduled alarms.
                 for (Alarm alarm : mAlarms) {
                     final AlarmInstance alarmInstance =
-                            AlarmInstance.getNextUpcomingInstanceByAlarmId(cr, alarm.id);
+                            AlarmInstance.getNextUpcomingInstanceByAlarmId(mContext, alarm.id);
                     if (alarmInstance != null
                             && alarmInstance.mAlarmState == AlarmInstance.FIRED_STATE) {
                         mMatchingAlarms.add(alarm);
@@ -126,7 +124,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                 // get time from nextAlarm and see if there are any other alarms matching this time
                 final Calendar nextTime = nextAlarm.getAlarmTime();
                 final List<Alarm> alarmsFiringAtSameTime = getAlarmsByHourMinutes(
-                        nextTime.get(Calendar.HOUR_OF_DAY), nextTime.get(Calendar.MINUTE), cr);
+                        nextTime.get(Calendar.HOUR_OF_DAY), nextTime.get(Calendar.MINUTE));
                 // there might me multiple alarms firing next
                 mMatchingAlarms.addAll(alarmsFiringAtSameTime);
                 break;
@@ -158,12 +156,12 @@ class FetchMatchingAlarmsAction implements Runnable {
         }
     }
 
-    private List<Alarm> getAlarmsByHourMinutes(int hour24, int minutes, ContentResolver cr) {
+    private List<Alarm> getAlarmsByHourMinutes(int hour24, int minutes) {
         // if we want to dismiss we should only add enabled alarms
         final String selection = String.format("%s=? AND %s=? AND %s=?",
                 Alarm.HOUR, Alarm.MINUTES, Alarm.ENABLED);
         final String[] args = { String.valueOf(hour24), String.valueOf(minutes), "1" };
-        return Alarm.getAlarms(cr, selection, args);
+        return Alarm.getAlarms(mContext, selection, args);
     }
 
     public List<Alarm> getMatchingAlarms() {
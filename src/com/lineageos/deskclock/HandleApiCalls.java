@@ -26,7 +26,6 @@ import static com.lineageos.deskclock.uidata.UiDataModel.Tab.ALARMS;
 import static com.lineageos.deskclock.uidata.UiDataModel.Tab.TIMERS;
 
 import android.app.Activity;
-import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.Context;
 import android.content.Intent;
@@ -127,7 +126,7 @@ public class HandleApiCalls extends Activity {
     public static void dismissAlarm(Alarm alarm, Activity activity) {
         final Context context = activity.getApplicationContext();
         final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
-                context.getContentResolver(), alarm.id);
+                context, alarm.id);
         if (instance == null) {
             final String reason = context.getString(R.string.no_alarm_scheduled_for_this_time);
             Controller.getController().notifyVoiceFailure(activity, reason);
@@ -181,7 +180,6 @@ public class HandleApiCalls extends Activity {
         protected void execute() {
             ExecutorService executor = Executors.newSingleThreadExecutor();
             executor.execute(() -> {
-                final ContentResolver cr = mContext.getContentResolver();
                 final List<Alarm> alarms = getEnabledAlarms(mContext);
                 if (alarms.isEmpty()) {
                     final String reason = mContext.getString(R.string.no_scheduled_alarms);
@@ -193,7 +191,7 @@ public class HandleApiCalls extends Activity {
                 // remove Alarms in MISSED, DISMISSED, and PREDISMISSED states
                 for (Iterator<Alarm> i = alarms.iterator(); i.hasNext();) {
                     final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
-                            cr, i.next().id);
+                            mContext, i.next().id);
                     if (instance == null || instance.mAlarmState > FIRED_STATE) {
                         i.remove();
                     }
@@ -246,7 +244,7 @@ public class HandleApiCalls extends Activity {
         private static List<Alarm> getEnabledAlarms(Context context) {
             final String selection = String.format("%s=?", Alarm.ENABLED);
             final String[] args = { "1" };
-            return Alarm.getAlarms(context.getContentResolver(), selection, args);
+            return Alarm.getAlarms(context, selection, args);
         }
     }
 
@@ -254,9 +252,8 @@ public class HandleApiCalls extends Activity {
         ExecutorService executor = Executors.newSingleThreadExecutor();
         executor.execute(() -> {
             final Context context = getApplicationContext();
-            final ContentResolver cr = context.getContentResolver();
             final List<AlarmInstance> alarmInstances = AlarmInstance.getInstancesByState(
-                    cr, FIRED_STATE);
+                    context, FIRED_STATE);
             if (alarmInstances.isEmpty()) {
                 final String reason = context.getString(R.string.no_firing_alarms);
                 Controller.getController().notifyVoiceFailure(this, reason);
@@ -311,7 +308,6 @@ public class HandleApiCalls extends Activity {
         }
 
         final boolean skipUi = intent.getBooleanExtra(AlarmClock.EXTRA_SKIP_UI, false);
-        final ContentResolver cr = getContentResolver();
 
         // If time information was not provided an existing alarm cannot be located and a new one
         // cannot be created so show the UI for creating the alarm from scratch per spec.
@@ -338,14 +334,14 @@ public class HandleApiCalls extends Activity {
 
         // Try to locate an existing alarm using the intent data.
         final String[] args = argsList.toArray(new String[0]);
-        final List<Alarm> alarms = Alarm.getAlarms(cr, selection.toString(), args);
+        final List<Alarm> alarms = Alarm.getAlarms(this, selection.toString(), args);
 
         final Alarm alarm;
         if (!alarms.isEmpty()) {
             // Enable the first matching alarm.
             alarm = alarms.get(0);
             alarm.enabled = true;
-            Alarm.updateAlarm(cr, alarm);
+            Alarm.updateAlarm(this, alarm);
 
             // Delete all old instances.
             AlarmStateManager.deleteAllInstances(this, alarm.id);
@@ -359,7 +355,7 @@ public class HandleApiCalls extends Activity {
             alarm.deleteAfterUse = !alarm.daysOfWeek.isRepeating() && skipUi;
 
             // Save the new alarm.
-            Alarm.addAlarm(cr, alarm);
+            Alarm.addAlarm(this, alarm);
 
             Events.sendAlarmEvent(R.string.action_create, R.string.label_intent);
             LOGGER.i("Created new alarm: " + alarm);
@@ -499,7 +495,7 @@ public class HandleApiCalls extends Activity {
     }
 
     private void setupInstance(AlarmInstance instance, boolean skipUi) {
-        instance = AlarmInstance.addInstance(this.getContentResolver(), instance);
+        instance = AlarmInstance.addInstance(this, instance);
         AlarmStateManager.registerInstance(this, instance, true);
         AlarmUtils.popAlarmSetToast(this, instance.getAlarmTime().getTimeInMillis());
         if (!skipUi) {
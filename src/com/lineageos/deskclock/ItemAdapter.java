@@ -204,6 +204,27 @@ public class ItemAdapter<T extends ItemAdapter.ItemHolder>
         return this;
     }
 
+    /**
+     * Appends the specified item holders to the end of the list. Invokes
+     * {@link #notifyItemRangeInserted} to update the UI.
+     *
+     * @param itemHolders the item holders to append
+     * @return this object, allowing calls to methods in this class to be chained
+     */
+    public ItemAdapter addItems(@NonNull List<T> itemHolders) {
+        if (mItemHolders == null) {
+            setItems(new ArrayList<>(itemHolders));
+            return this;
+        }
+        final int position = mItemHolders.size();
+        for (T itemHolder : itemHolders) {
+            itemHolder.addOnItemChangedListener(mItemChangedNotifier);
+        }
+        mItemHolders.addAll(itemHolders);
+        notifyItemRangeInserted(position, itemHolders.size());
+        return this;
+    }
+
     /**
      * Removes the first occurrence of the specified element from this list, if it is present
      * (optional operation). If this list does not contain the element, it is unchanged. Invokes
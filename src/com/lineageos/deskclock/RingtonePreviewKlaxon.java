@@ -16,32 +16,327 @@
 
 package com.lineageos.deskclock;
 
+import static android.media.AudioManager.AUDIOFOCUS_GAIN_TRANSIENT;
+import static com.lineageos.deskclock.AsyncRingtonePlayer.ALARM_AUDIO_ATTRIBUTES;
+import static com.lineageos.deskclock.AsyncRingtonePlayer.IN_CALL_VOLUME;
+import static com.lineageos.deskclock.AsyncRingtonePlayer.getFallbackRingtoneUri;
+import static com.lineageos.deskclock.AsyncRingtonePlayer.getInCallRingtoneUri;
+import static com.lineageos.deskclock.AsyncRingtonePlayer.isInTelephoneCall;
+
+import android.annotation.SuppressLint;
 import android.content.Context;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+import android.media.Ringtone;
+import android.media.RingtoneManager;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.SystemClock;
 
+/**
+ * Plays short previews of ringtones, e.g. as the user taps through the ringtone picker.
+ *
+ * <p>Unlike {@link AsyncRingtonePlayer}, which prepares everything from scratch for each alarm,
+ * the preview engine stays warm across previews: its thread and its audio focus are retained
+ * until {@link #release} is called or playback has been idle for a while. Starting a preview
+ * cross-fades from the one currently playing, and a start superseded by a later one is dropped
+ * before its audio is decoded. The latency from each request to audible playback is logged.</p>
+ */
 public final class RingtonePreviewKlaxon {
 
-    private static AsyncRingtonePlayer sAsyncRingtonePlayer;
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("RingtonePreviewKlaxon");
+
+    /** The length of time over which one preview fades into the next. */
+    private static final long FADE_DURATION_MS = 150;
+
+    /** The interval between volume changes during a fade. */
+    private static final long FADE_STEP_MS = 25;
+
+    /** Audio focus is abandoned once no preview has played for this long. */
+    private static final long IDLE_RELEASE_MS = 5000;
+
+    // Message codes used with the preview thread.
+    private static final int EVENT_START = 1;
+    private static final int EVENT_STOP = 2;
+    private static final int EVENT_FADE = 3;
+    private static final int EVENT_RELEASE = 4;
+
+    /** Handler running on the preview thread. */
+    private static Handler sHandler;
+
+    /** Identifies the latest start request; earlier requests are superseded. */
+    private static volatile int sRequestId;
 
     private RingtonePreviewKlaxon() {
     }
 
     public static void stop(Context context) {
         LogUtils.i("RingtonePreviewKlaxon.stop()");
-        getAsyncRingtonePlayer(context).stop();
+        sRequestId++;
+        final Handler handler = getHandler(context);
+        handler.removeMessages(EVENT_START);
+        handler.sendEmptyMessage(EVENT_STOP);
     }
 
     public static void start(Context context, Uri uri) {
-        stop(context);
         LogUtils.i("RingtonePreviewKlaxon.start()");
-        getAsyncRingtonePlayer(context).play(uri, 0);
+        final int requestId = ++sRequestId;
+        final Handler handler = getHandler(context);
+
+        // Any start still waiting to run is superseded by this one.
+        handler.removeMessages(EVENT_START);
+        final Message message = handler.obtainMessage(EVENT_START, requestId, 0,
+                new StartRequest(uri, SystemClock.elapsedRealtime()));
+        handler.sendMessage(message);
+    }
+
+    /**
+     * Stops any preview and abandons audio focus immediately, e.g. when the ringtone picker
+     * closes.
+     */
+    public static void release(Context context) {
+        LogUtils.i("RingtonePreviewKlaxon.release()");
+        sRequestId++;
+        final Handler handler = getHandler(context);
+        handler.removeMessages(EVENT_START);
+        handler.sendEmptyMessage(EVENT_STOP);
+        handler.sendEmptyMessage(EVENT_RELEASE);
+    }
+
+    private static synchronized Handler getHandler(Context context) {
+        if (sHandler == null) {
+            final HandlerThread thread = new HandlerThread("ringtone-preview");
+            thread.start();
+            sHandler = new PreviewHandler(thread, context.getApplicationContext());
+        }
+
+        return sHandler;
     }
 
-    private static synchronized AsyncRingtonePlayer getAsyncRingtonePlayer(Context context) {
-        if (sAsyncRingtonePlayer == null) {
-            sAsyncRingtonePlayer = new AsyncRingtonePlayer(context.getApplicationContext());
+    /**
+     * A request to start a preview along with the time at which it was made.
+     */
+    private static final class StartRequest {
+
+        private final Uri mUri;
+        private final long mRequestTime;
+
+        private StartRequest(Uri uri, long requestTime) {
+            mUri = uri;
+            mRequestTime = requestTime;
         }
+    }
+
+    /**
+     * Owns all playback state; it is only accessed from the preview thread.
+     */
+    @SuppressLint("HandlerLeak")
+    private static final class PreviewHandler extends Handler {
+
+        private final Context mContext;
+        private final AudioManager mAudioManager;
+        private final AudioFocusRequest mFocusRequest;
+
+        /** {@code true} while audio focus is held on behalf of previews. */
+        private boolean mHasFocus;
+
+        /** The preview fading in or playing; {@code null} if none. */
+        private Ringtone mIncoming;
 
-        return sAsyncRingtonePlayer;
+        /** The preview fading out; {@code null} if none. */
+        private Ringtone mOutgoing;
+
+        /** The full volume of {@link #mIncoming}. */
+        private float mIncomingVolume = 1f;
+
+        /** The volume of {@link #mOutgoing} when its fade began. */
+        private float mOutgoingVolume = 1f;
+
+        /** The time at which the current fade began. */
+        private long mFadeStartTime;
+
+        private PreviewHandler(HandlerThread thread, Context context) {
+            super(thread.getLooper());
+            mContext = context;
+            mAudioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+            mFocusRequest = new AudioFocusRequest.Builder(AUDIOFOCUS_GAIN_TRANSIENT)
+                    .setAudioAttributes(ALARM_AUDIO_ATTRIBUTES)
+                    .build();
+        }
+
+        @Override
+        public void handleMessage(Message msg) {
+            switch (msg.what) {
+                case EVENT_START:
+                    onStart(msg.arg1, (StartRequest) msg.obj);
+                    break;
+                case EVENT_STOP:
+                    beginFade(null, 1f);
+                    scheduleRelease();
+                    break;
+                case EVENT_FADE:
+                    onFade();
+                    break;
+                case EVENT_RELEASE:
+                    releaseFocus();
+                    break;
+            }
+        }
+
+        private void onStart(int requestId, StartRequest request) {
+            // Skip the decode entirely if a later request has already arrived.
+            if (requestId != sRequestId) {
+                return;
+            }
+
+            removeMessages(EVENT_RELEASE);
+
+            final boolean inTelephoneCall = isInTelephoneCall(mAudioManager);
+            final Uri uri = inTelephoneCall ? getInCallRingtoneUri(mContext) : request.mUri;
+            Ringtone ringtone = createRingtone(uri);
+
+            // Creating the ringtone prepares its player and may take a while.
+            if (requestId != sRequestId) {
+                LOGGER.v("Dropping superseded preview of %s", uri);
+                stopRingtone(ringtone);
+                return;
+            }
+
+            if (!mHasFocus) {
+                mAudioManager.requestAudioFocus(mFocusRequest);
+                mHasFocus = true;
+            }
+
+            final float volume = inTelephoneCall ? IN_CALL_VOLUME : 1f;
+            if (!play(ringtone)) {
+                LOGGER.e("Using the fallback ringtone, could not play %s", uri);
+                stopRingtone(ringtone);
+                ringtone = createRingtone(getFallbackRingtoneUri(mContext));
+                if (!play(ringtone)) {
+                    LOGGER.e("Failed to play fallback ringtone");
+                    stopRingtone(ringtone);
+                    scheduleRelease();
+                    return;
+                }
+            }
+
+            LOGGER.i("Preview of %s started %d ms after request", uri,
+                    SystemClock.elapsedRealtime() - request.mRequestTime);
+            beginFade(ringtone, volume);
+        }
+
+        /**
+         * Starts fading out the current preview while fading in the {@code incoming} one.
+         *
+         * @param incoming the preview that has begun playing silently; {@code null} to only fade
+         *      out the current preview
+         * @param volume the volume at which {@code incoming} should settle
+         */
+        private void beginFade(Ringtone incoming, float volume) {
+            final float fraction = getFadeFraction();
+            if (mIncoming != null) {
+                // A preview still fading out from an earlier change is cut off now.
+                stopRingtone(mOutgoing);
+                mOutgoing = mIncoming;
+                mOutgoingVolume = fraction * mIncomingVolume;
+            } else if (mOutgoing != null) {
+                // Continue fading out the stopped preview from its current volume.
+                mOutgoingVolume = (1f - fraction) * mOutgoingVolume;
+            }
+            mIncoming = incoming;
+            mIncomingVolume = volume;
+            mFadeStartTime = SystemClock.elapsedRealtime();
+
+            removeMessages(EVENT_FADE);
+            onFade();
+        }
+
+        private void onFade() {
+            final float fraction = getFadeFraction();
+            if (mIncoming != null) {
+                mIncoming.setVolume(fraction * mIncomingVolume);
+            }
+            if (mOutgoing != null) {
+                mOutgoing.setVolume((1f - fraction) * mOutgoingVolume);
+            }
+
+            if (fraction < 1f) {
+                sendEmptyMessageDelayed(EVENT_FADE, FADE_STEP_MS);
+            } else {
+                stopRingtone(mOutgoing);
+                mOutgoing = null;
+            }
+        }
+
+        /**
+         * @return the fraction of the current fade that has completed
+         */
+        private float getFadeFraction() {
+            final long elapsed = SystemClock.elapsedRealtime() - mFadeStartTime;
+            return Math.min(1f, (float) elapsed / FADE_DURATION_MS);
+        }
+
+        private void scheduleRelease() {
+            removeMessages(EVENT_RELEASE);
+            sendEmptyMessageDelayed(EVENT_RELEASE, IDLE_RELEASE_MS);
+        }
+
+        private void releaseFocus() {
+            removeMessages(EVENT_RELEASE);
+
+            // Never abandon focus while a preview is still audible.
+            if (mIncoming != null) {
+                return;
+            }
+
+            removeMessages(EVENT_FADE);
+            stopRingtone(mOutgoing);
+            mOutgoing = null;
+
+            if (mHasFocus) {
+                mAudioManager.abandonAudioFocusRequest(mFocusRequest);
+                mHasFocus = false;
+            }
+        }
+
+        private Ringtone createRingtone(Uri uri) {
+            Ringtone ringtone = RingtoneManager.getRingtone(mContext, uri);
+            if (ringtone == null) {
+                // Fall back to the system default ringtone.
+                ringtone = RingtoneManager.getRingtone(mContext,
+                        RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM));
+            }
+            return ringtone;
+        }
+
+        /**
+         * Starts the {@code ringtone} looping silently so that it can be faded in.
+         *
+         * @return {@code true} if playback started
+         */
+        private boolean play(Ringtone ringtone) {
+            if (ringtone == null) {
+                return false;
+            }
+            try {
+                ringtone.setAudioAttributes(ALARM_AUDIO_ATTRIBUTES);
+                ringtone.setLooping(true);
+                ringtone.setVolume(0f);
+                ringtone.play();
+                return true;
+            } catch (Throwable t) {
+                LOGGER.e("Could not play ringtone", t);
+                return false;
+            }
+        }
+
+        private void stopRingtone(Ringtone ringtone) {
+            // Stopping also releases the player, even if it never started.
+            if (ringtone != null) {
+                ringtone.stop();
+            }
+        }
     }
 }
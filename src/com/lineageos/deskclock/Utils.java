@@ -65,6 +65,7 @@ import androidx.core.view.accessibility.AccessibilityNodeInfoCompat.Accessibilit
 import androidx.vectordrawable.graphics.drawable.VectorDrawableCompat;
 
 import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.ZoneTransitionCache;
 import com.lineageos.deskclock.provider.AlarmInstance;
 import com.lineageos.deskclock.uidata.UiDataModel;
 
@@ -398,26 +399,10 @@ public class Utils {
      * @return the nearest point in the future at which any of the time zones changes days
      */
     public static Date getNextDay(Date time, Collection<TimeZone> zones) {
-        Calendar next = null;
-        for (TimeZone tz : zones) {
-            final Calendar c = Calendar.getInstance(tz);
-            c.setTime(time);
-
-            // Advance to the next day.
-            c.add(Calendar.DAY_OF_YEAR, 1);
-
-            // Reset the time to midnight.
-            c.set(Calendar.HOUR_OF_DAY, 0);
-            c.set(Calendar.MINUTE, 0);
-            c.set(Calendar.SECOND, 0);
-            c.set(Calendar.MILLISECOND, 0);
-
-            if (next == null || c.compareTo(next) < 0) {
-                next = c;
-            }
+        if (zones.isEmpty()) {
+            return null;
         }
-
-        return next == null ? null : next.getTime();
+        return new Date(ZoneTransitionCache.getNextDay(time.getTime(), zones));
     }
 
     public static String getNumberFormattedQuantityString(Context context, int id, int quantity) {
@@ -160,7 +160,7 @@ public class AlarmActivity extends BaseActivity
 
         setVolumeControlStream(AudioManager.STREAM_ALARM);
         final long instanceId = AlarmInstance.getId(getIntent().getData());
-        mAlarmInstance = AlarmInstance.getInstance(getContentResolver(), instanceId);
+        mAlarmInstance = AlarmInstance.getInstance(this, instanceId);
         if (mAlarmInstance == null) {
             // The alarm was deleted before the activity got created, so just finish()
             LOGGER.e("Error displaying alarm for intent: %s", getIntent());
@@ -237,7 +237,7 @@ public class AlarmActivity extends BaseActivity
 
         // Re-query for AlarmInstance in case the state has changed externally
         final long instanceId = AlarmInstance.getId(getIntent().getData());
-        mAlarmInstance = AlarmInstance.getInstance(getContentResolver(), instanceId);
+        mAlarmInstance = AlarmInstance.getInstance(this, instanceId);
 
         if (mAlarmInstance == null) {
             LOGGER.i("No alarm instance for instanceId: %d", instanceId);
@@ -17,7 +17,6 @@ package com.lineageos.deskclock.alarms;
 
 import android.app.Service;
 import android.content.BroadcastReceiver;
-import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
@@ -209,8 +208,7 @@ public class AlarmService extends Service {
                 // If state is changed to firing, actually fire the alarm!
                 final int alarmState = intent.getIntExtra(AlarmStateManager.ALARM_STATE_EXTRA, -1);
                 if (alarmState == AlarmInstance.FIRED_STATE) {
-                    final ContentResolver cr = this.getContentResolver();
-                    final AlarmInstance instance = AlarmInstance.getInstance(cr, instanceId);
+                    final AlarmInstance instance = AlarmInstance.getInstance(this, instanceId);
                     if (instance == null) {
                         LogUtils.e("No instance found to start alarm: %d", instanceId);
                         if (mCurrentAlarm != null) {
@@ -21,7 +21,6 @@ import android.app.AlarmManager;
 import android.app.AlarmManager.AlarmClockInfo;
 import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
-import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
@@ -168,9 +167,9 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @return an alarm instance that will fire earliest relative to current time.
      */
     public static AlarmInstance getNextFiringAlarm(Context context) {
-        final ContentResolver cr = context.getContentResolver();
-        final String activeAlarmQuery = AlarmInstance.ALARM_STATE + "<" + AlarmInstance.FIRED_STATE;
-        final List<AlarmInstance> alarmInstances = AlarmInstance.getInstances(cr, activeAlarmQuery);
+        final String activeAlarmQuery = AlarmInstance.ALARM_STATE + " < ?";
+        final List<AlarmInstance> alarmInstances = AlarmInstance.getInstances(context,
+                activeAlarmQuery, String.valueOf(AlarmInstance.FIRED_STATE));
 
         AlarmInstance nextAlarm = null;
         for (AlarmInstance instance : alarmInstances) {
@@ -221,8 +220,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to update parent for
      */
     private static void updateParentAlarm(Context context, AlarmInstance instance) {
-        ContentResolver cr = context.getContentResolver();
-        Alarm alarm = Alarm.getAlarm(cr, instance.mAlarmId);
+        Alarm alarm = Alarm.getAlarm(context, instance.mAlarmId);
         if (alarm == null) {
             LogUtils.e("Parent has been deleted with instance: " + instance);
             return;
@@ -231,11 +229,11 @@ public final class AlarmStateManager extends BroadcastReceiver {
         if (!alarm.daysOfWeek.isRepeating()) {
             if (alarm.deleteAfterUse) {
                 LogUtils.i("Deleting parent alarm: " + alarm.id);
-                Alarm.deleteAlarm(cr, alarm.id);
+                Alarm.deleteAlarm(context, alarm.id);
             } else {
                 LogUtils.i("Disabling parent alarm: " + alarm.id);
                 alarm.enabled = false;
-                Alarm.updateAlarm(cr, alarm);
+                Alarm.updateAlarm(context, alarm);
             }
         } else {
             // Schedule the next repeating instance which may be before the current instance if a
@@ -249,7 +247,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
             LogUtils.i("Creating new instance for repeating alarm " + alarm.id + " at " +
                     AlarmUtils.getFormattedTime(context, nextRepeatedInstance.getAlarmTime()));
-            AlarmInstance.addInstance(cr, nextRepeatedInstance);
+            AlarmInstance.addInstance(context, nextRepeatedInstance);
             registerInstance(context, nextRepeatedInstance, true);
         }
     }
@@ -317,9 +315,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.i("Setting silent state to instance " + instance.mId);
 
         // Update alarm in db
-        ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.SILENT_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.clearNotification(context, instance);
@@ -339,9 +336,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.i("Setting low notification state to instance " + instance.mId);
 
         // Update alarm state in db
-        ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.LOW_NOTIFICATION_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showUpcomingNotification(context, instance, true);
@@ -361,9 +357,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.i("Setting hide notification state to instance " + instance.mId);
 
         // Update alarm state in db
-        ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.HIDE_NOTIFICATION_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.clearNotification(context, instance);
@@ -383,9 +378,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.i("Setting high notification state to instance " + instance.mId);
 
         // Update alarm state in db
-        ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.HIGH_NOTIFICATION_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showUpcomingNotification(context, instance, false);
@@ -405,14 +399,13 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.i("Setting fire state to instance " + instance.mId);
 
         // Update alarm state in db
-        ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.FIRED_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         if (instance.mAlarmId != null) {
             // if the time changed *backward* and pushed an instance from missed back to fired,
             // remove any other scheduled instances that may exist
-            AlarmInstance.deleteOtherInstances(context, contentResolver, instance.mAlarmId,
+            AlarmInstance.deleteOtherInstances(context, instance.mAlarmId,
                     instance.mId);
         }
 
@@ -450,7 +443,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 + AlarmUtils.getFormattedTime(context, newAlarmTime));
         instance.setAlarmTime(newAlarmTime);
         instance.mAlarmState = AlarmInstance.SNOOZE_STATE;
-        AlarmInstance.updateInstance(context.getContentResolver(), instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showSnoozeNotification(context, instance);
@@ -492,9 +485,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         }
 
         // Update alarm state
-        ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.MISSED_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showMissedNotification(context, instance);
@@ -517,9 +509,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.i("Setting predismissed state to instance " + instance.mId);
 
         // Update alarm in db
-        final ContentResolver contentResolver = context.getContentResolver();
         instance.mAlarmState = AlarmInstance.PREDISMISSED_STATE;
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.clearNotification(context, instance);
@@ -541,8 +532,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
     public static void setDismissState(Context context, AlarmInstance instance) {
         LogUtils.i("Setting dismissed state to instance " + instance.mId);
         instance.mAlarmState = AlarmInstance.DISMISSED_STATE;
-        final ContentResolver contentResolver = context.getContentResolver();
-        AlarmInstance.updateInstance(contentResolver, instance);
+        AlarmInstance.updateInstance(context, instance);
 
         cancelPowerOffAlarm(context, instance);
     }
@@ -566,7 +556,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         }
 
         // Delete instance as it is not needed anymore
-        AlarmInstance.deleteInstance(context.getContentResolver(), instance.mId);
+        AlarmInstance.deleteInstance(context, instance.mId);
 
         // Instance is not valid anymore, so find next alarm that will fire and notify system
         updateNextAlarm(context);
@@ -615,8 +605,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
     public static void registerInstance(Context context, AlarmInstance instance,
             boolean updateNextAlarm) {
         LogUtils.i("Registering instance: " + instance.mId);
-        final ContentResolver cr = context.getContentResolver();
-        final Alarm alarm = Alarm.getAlarm(cr, instance.mAlarmId);
+        final Alarm alarm = Alarm.getAlarm(context, instance.mAlarmId);
         final Calendar currentTime = getCurrentTime();
         final Calendar alarmTime = instance.getAlarmTime();
         final Calendar timeoutTime = instance.getTimeout();
@@ -654,7 +643,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 // Make sure we re-enable the parent alarm of the instance
                 // because it will get activated by by the below code
                 alarm.enabled = true;
-                Alarm.updateAlarm(cr, alarm);
+                Alarm.updateAlarm(context, alarm);
             }
         } else if (instance.mAlarmState == AlarmInstance.PREDISMISSED_STATE) {
             if (currentTime.before(alarmTime)) {
@@ -716,11 +705,10 @@ public final class AlarmStateManager extends BroadcastReceiver {
      */
     public static void deleteAllInstances(Context context, long alarmId) {
         LogUtils.i("Deleting all instances of alarm: " + alarmId);
-        ContentResolver cr = context.getContentResolver();
-        List<AlarmInstance> instances = AlarmInstance.getInstancesByAlarmId(cr, alarmId);
+        List<AlarmInstance> instances = AlarmInstance.getInstancesByAlarmId(context, alarmId);
         for (AlarmInstance instance : instances) {
             unregisterInstance(context, instance);
-            AlarmInstance.deleteInstance(context.getContentResolver(), instance.mId);
+            AlarmInstance.deleteInstance(context, instance.mId);
         }
         updateNextAlarm(context);
     }
@@ -733,21 +721,20 @@ public final class AlarmStateManager extends BroadcastReceiver {
     public static void fixAlarmInstances(Context context) {
         LogUtils.i("Fixing alarm instances");
         // Register all instances after major time changes or when phone restarts
-        final ContentResolver contentResolver = context.getContentResolver();
         final Calendar currentTime = getCurrentTime();
 
         // Sort the instances in reverse chronological order so that later instances are fixed or
         // deleted before re-scheduling prior instances (which may re-create or update the later
         // instances).
         final List<AlarmInstance> instances = AlarmInstance.getInstances(
-                contentResolver, null /* selection */);
+                context, null /* selection */);
         instances.sort((lhs, rhs) -> rhs.getAlarmTime().compareTo(lhs.getAlarmTime()));
 
         for (AlarmInstance instance : instances) {
-            final Alarm alarm = Alarm.getAlarm(contentResolver, instance.mAlarmId);
+            final Alarm alarm = Alarm.getAlarm(context, instance.mAlarmId);
             if (alarm == null) {
                 unregisterInstance(context, instance);
-                AlarmInstance.deleteInstance(contentResolver, instance.mId);
+                AlarmInstance.deleteInstance(context, instance.mId);
                 LogUtils.e("Found instance without matching alarm; deleting instance %s", instance);
                 continue;
             }
@@ -765,6 +752,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 // remove it and schedule the new appropriate instance.
                 AlarmStateManager.deleteInstanceAndUpdateParent(context, instance);
             } else {
+                // Keep the indexed alarm time in step with a change of time zone.
+                AlarmInstance.updateStoredAlarmTime(context, instance);
                 registerInstance(context, instance, false /* updateNextAlarm */);
             }
         }
@@ -838,8 +827,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         LogUtils.v("AlarmStateManager received intent " + intent);
         if (CHANGE_STATE_ACTION.equals(action)) {
             Uri uri = intent.getData();
-            AlarmInstance instance = AlarmInstance.getInstance(context.getContentResolver(),
-                    AlarmInstance.getId(uri));
+            AlarmInstance instance = AlarmInstance.getInstance(context, AlarmInstance.getId(uri));
             if (instance == null) {
                 LogUtils.e("Can not change state for unknown instance: " + uri);
                 return;
@@ -874,8 +862,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
             }
         } else if (SHOW_AND_DISMISS_ALARM_ACTION.equals(action)) {
             Uri uri = intent.getData();
-            AlarmInstance instance = AlarmInstance.getInstance(context.getContentResolver(),
-                    AlarmInstance.getId(uri));
+            AlarmInstance instance = AlarmInstance.getInstance(context, AlarmInstance.getId(uri));
 
             if (instance == null) {
                 LogUtils.e("Null alarminstance for SHOW_AND_DISMISS");
@@ -16,7 +16,6 @@
 
 package com.lineageos.deskclock.alarms;
 
-import android.content.ContentResolver;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
@@ -68,10 +67,8 @@ public final class AlarmUpdateHandler {
             AlarmInstance instance = null;
             if (alarm != null) {
                 Events.sendAlarmEvent(R.string.action_create, R.string.label_deskclock);
-                ContentResolver cr = mAppContext.getContentResolver();
-
                 // Add alarm to db
-                Alarm newAlarm = Alarm.addAlarm(cr, alarm);
+                Alarm newAlarm = Alarm.addAlarm(mAppContext, alarm);
 
                 // Be ready to scroll to this alarm on UI later.
                 mScrollHandler.setSmoothScrollStableId(newAlarm.id);
@@ -104,15 +101,13 @@ public final class AlarmUpdateHandler {
         ExecutorService executor = Executors.newSingleThreadExecutor();
         Handler handler = new Handler(Looper.getMainLooper());
         executor.execute(() -> {
-            ContentResolver cr = mAppContext.getContentResolver();
-
             // Update alarm
-            Alarm.updateAlarm(cr, alarm);
+            Alarm.updateAlarm(mAppContext, alarm);
 
             if (minorUpdate) {
                 // just update the instance in the database and update notifications.
                 final List<AlarmInstance> instanceList =
-                        AlarmInstance.getInstancesByAlarmId(cr, alarm.id);
+                        AlarmInstance.getInstancesByAlarmId(mAppContext, alarm.id);
                 for (AlarmInstance instance : instanceList) {
                     // Make a copy of the existing instance
                     final AlarmInstance newInstance = new AlarmInstance(instance);
@@ -124,7 +119,7 @@ public final class AlarmUpdateHandler {
                     // Since we copied the mId of the old instance and the mId is used
                     // as the primary key in the AlarmInstance table, this will replace
                     // the existing instance.
-                    AlarmInstance.updateInstance(cr, newInstance);
+                    AlarmInstance.updateInstance(mAppContext, newInstance);
                     // Update the notification for this instance.
                     AlarmNotifications.updateNotification(mAppContext, newInstance);
                 }
@@ -159,7 +154,7 @@ public final class AlarmUpdateHandler {
                 return;
             }
             AlarmStateManager.deleteAllInstances(mAppContext, alarm.id);
-            final boolean deleted = Alarm.deleteAlarm(mAppContext.getContentResolver(), alarm.id);
+            final boolean deleted = Alarm.deleteAlarm(mAppContext, alarm.id);
 
             handler.post(() -> {
                 if (deleted) {
@@ -202,9 +197,8 @@ public final class AlarmUpdateHandler {
     }
 
     private AlarmInstance setupAlarmInstance(Alarm alarm) {
-        final ContentResolver cr = mAppContext.getContentResolver();
         AlarmInstance newInstance = alarm.createInstanceAfter(Calendar.getInstance());
-        newInstance = AlarmInstance.addInstance(cr, newInstance);
+        newInstance = AlarmInstance.addInstance(mAppContext, newInstance);
         // Register instance to state manager
         AlarmStateManager.registerInstance(mAppContext, newInstance, true);
         return newInstance;
@@ -160,6 +160,10 @@ class ShortcutController {
 
         @Override
         public void stopwatchUpdated(Stopwatch before, Stopwatch after) {
+            // The shortcut only reflects the primary stopwatch.
+            if (after == null || !after.isPrimary()) {
+                return;
+            }
             if (!mUserManager.isUserUnlocked()) {
                 LogUtils.i("Skipping stopwatch shortcut update because user is locked.");
                 return;
@@ -162,8 +162,8 @@ public final class City {
         private final long now = System.currentTimeMillis();
 
         public int compare(City c1, City c2) {
-            final int utcOffset1 = c1.getTimeZone().getOffset(now);
-            final int utcOffset2 = c2.getTimeZone().getOffset(now);
+            final int utcOffset1 = ZoneTransitionCache.getOffset(c1.getTimeZone(), now);
+            final int utcOffset2 = ZoneTransitionCache.getOffset(c2.getTimeZone(), now);
             return Integer.compare(utcOffset1, utcOffset2);
         }
     }
@@ -22,6 +22,8 @@ import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.SharedPreferences;
 import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.Utils;
@@ -29,6 +31,7 @@ import com.lineageos.deskclock.data.DataModel.CitySort;
 import com.lineageos.deskclock.settings.SettingsActivity;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -36,12 +39,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 
 /**
  * All {@link City} data is accessed via this model.
  */
 final class CityModel {
 
+    /** The event delivered to {@link CityListener}s. */
+    private static final ListenerList.Event<CityListener, Void, Void> CITIES_CHANGED =
+            (listener, unused1, unused2) -> listener.citiesChanged();
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
@@ -60,12 +68,29 @@ final class CityModel {
     @SuppressWarnings("FieldCanBeLocal")
     private final BroadcastReceiver mLocaleChangedReceiver = new LocaleChangedReceiver();
 
+    /** Re-sorts the cities by UTC offset when the device time changes. */
+    @SuppressWarnings("FieldCanBeLocal")
+    private final BroadcastReceiver mTimeChangedReceiver = new TimeChangedReceiver();
+
+    /** Re-sorts the cities by UTC offset when the UTC offset of any city next changes. */
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mUtcOffsetOrderUpdater = this::updateUtcOffsetOrder;
+
     /** List of listeners to invoke upon world city list change */
-    private final List<CityListener> mCityListeners = new ArrayList<>();
+    private final ListenerList<CityListener> mCityListeners = new ListenerList<>();
 
     /** Maps city ID to city instance. */
     private Map<String, City> mCityMap;
 
+    /** All city instances sorted by name; locale-sensitive so rebuilt on locale change. */
+    private City[] mCitiesByName;
+
+    /** All city instances sorted by UTC offset; re-sorted when any UTC offset changes. */
+    private City[] mCitiesByUtcOffset;
+
+    /** The set of selected city instances, used to partition the presorted cities. */
+    private Set<City> mSelectedCitySet;
+
     /** List of city instances in display order. */
     private List<City> mAllCities;
 
@@ -78,8 +103,13 @@ final class CityModel {
     /** A city instance representing the home timezone of the user. */
     private City mHomeCity;
 
-    CityModel(Context context, SharedPreferences prefs, SettingsModel settingsModel) {
+    /** Receives the selected cities and home city after each change. */
+    private final ModelSnapshot.Publisher mSnapshotPublisher;
+
+    CityModel(Context context, SharedPreferences prefs, SettingsModel settingsModel,
+            ModelSnapshot.Publisher snapshotPublisher) {
         mContext = context;
+        mSnapshotPublisher = snapshotPublisher;
         mPrefs = prefs;
         mSettingsModel = settingsModel;
 
@@ -87,6 +117,12 @@ final class CityModel {
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
         mContext.registerReceiver(mLocaleChangedReceiver, localeBroadcastFilter);
 
+        // Re-sort cities by UTC offset when the device time jumps, e.g. past a transition.
+        final IntentFilter timeChangedBroadcastFilter = new IntentFilter();
+        timeChangedBroadcastFilter.addAction(Intent.ACTION_TIME_CHANGED);
+        timeChangedBroadcastFilter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        mContext.registerReceiver(mTimeChangedReceiver, timeChangedBroadcastFilter);
+
         // Clear caches affected by preferences when preferences change.
         prefs.registerOnSharedPreferenceChangeListener(mPreferenceListener);
     }
@@ -95,6 +131,10 @@ final class CityModel {
         mCityListeners.add(cityListener);
     }
 
+    void addCityListener(CityListener cityListener, Executor executor) {
+        mCityListeners.add(cityListener, executor);
+    }
+
     void removeCityListener(CityListener cityListener) {
         mCityListeners.remove(cityListener);
     }
@@ -104,15 +144,9 @@ final class CityModel {
      */
     List<City> getAllCities() {
         if (mAllCities == null) {
-            // Create a set of selections to identify the unselected cities.
-            final List<City> selected = new ArrayList<>(getSelectedCities());
-
-            // Sort the selected cities alphabetically by name.
-            selected.sort(new City.NameComparator());
-
-            // Combine selected and unselected cities into a single list.
+            // Combine selected cities, alphabetically by name, and unselected cities.
             final List<City> allCities = new ArrayList<>(getCityMap().size());
-            allCities.addAll(selected);
+            filter(getCitiesByName(), getSelectedCitySet(), true, allCities);
             allCities.addAll(getUnselectedCities());
             mAllCities = Collections.unmodifiableList(allCities);
         }
@@ -128,6 +162,7 @@ final class CityModel {
             final String name = mContext.getString(R.string.home_label);
             final TimeZone timeZone = mSettingsModel.getHomeTimeZone();
             mHomeCity = new City(null, -1, null, name, name, timeZone);
+            mSnapshotPublisher.publishHomeCity(mHomeCity);
         }
 
         return mHomeCity;
@@ -138,20 +173,11 @@ final class CityModel {
      */
     List<City> getUnselectedCities() {
         if (mUnselectedCities == null) {
-            // Create a set of selections to identify the unselected cities.
-            final List<City> selected = new ArrayList<>(getSelectedCities());
-            final Set<City> selectedSet = Utils.newArraySet(selected);
-
-            final Collection<City> all = getCityMap().values();
-            final List<City> unselected = new ArrayList<>(all.size() - selectedSet.size());
-            for (City city : all) {
-                if (!selectedSet.contains(city)) {
-                    unselected.add(city);
-                }
-            }
-
-            // Sort the unselected cities according by the user's preferred sort.
-            unselected.sort(getCitySortComparator());
+            // Take the unselected cities from those presorted by the user's preferred sort.
+            final Set<City> selectedSet = getSelectedCitySet();
+            final List<City> unselected =
+                    new ArrayList<>(getCityMap().size() - selectedSet.size());
+            filter(getCitiesInSortOrder(), selectedSet, false, unselected);
             mUnselectedCities = Collections.unmodifiableList(unselected);
         }
 
@@ -163,9 +189,12 @@ final class CityModel {
      */
     List<City> getSelectedCities() {
         if (mSelectedCities == null) {
-            final List<City> selectedCities = CityDAO.getSelectedCities(mPrefs, getCityMap());
-            selectedCities.sort(new City.UtcOffsetComparator());
+            // Take the selected cities from those presorted by UTC offset.
+            final Set<City> selectedSet = getSelectedCitySet();
+            final List<City> selectedCities = new ArrayList<>(selectedSet.size());
+            filter(getCitiesByUtcOffset(), selectedSet, true, selectedCities);
             mSelectedCities = Collections.unmodifiableList(selectedCities);
+            mSnapshotPublisher.publishSelectedCities(mSelectedCities);
         }
 
         return mSelectedCities;
@@ -177,11 +206,15 @@ final class CityModel {
     void setSelectedCities(Collection<City> cities) {
         CityDAO.setSelectedCities(mPrefs, cities);
 
-        // Clear caches affected by this update.
+        // Clear caches affected by this update; they are rebuilt from the presorted cities.
+        mSelectedCitySet = Utils.newArraySet(cities);
         mAllCities = null;
         mSelectedCities = null;
         mUnselectedCities = null;
 
+        // Publish the new selection before anyone is told of the change.
+        getSelectedCities();
+
         // Broadcast the change to the selected cities for the benefit of widgets.
         fireCitiesChanged();
     }
@@ -224,20 +257,121 @@ final class CityModel {
         return mCityMap;
     }
 
-    private Comparator<City> getCitySortComparator() {
+    private Set<City> getSelectedCitySet() {
+        if (mSelectedCitySet == null) {
+            mSelectedCitySet =
+                    Utils.newArraySet(CityDAO.getSelectedCities(mPrefs, getCityMap()));
+        }
+
+        return mSelectedCitySet;
+    }
+
+    /**
+     * @return all cities in the order preferred by the user
+     */
+    private City[] getCitiesInSortOrder() {
         final CitySort citySort = mSettingsModel.getCitySort();
         switch (citySort) {
-            case NAME: return new City.NameComparator();
-            case UTC_OFFSET: return new City.UtcOffsetComparator();
+            case NAME: return getCitiesByName();
+            case UTC_OFFSET: return getCitiesByUtcOffset();
         }
         throw new IllegalStateException("unexpected city sort: " + citySort);
     }
 
+    private City[] getCitiesByName() {
+        if (mCitiesByName == null) {
+            final City[] cities = getCityMap().values().toArray(new City[0]);
+            Arrays.sort(cities, new City.NameComparator());
+            mCitiesByName = cities;
+        }
+
+        return mCitiesByName;
+    }
+
+    private City[] getCitiesByUtcOffset() {
+        if (mCitiesByUtcOffset == null) {
+            // Starting from the name order leaves less for the sort to do.
+            mCitiesByUtcOffset = getCitiesByName().clone();
+            sortByUtcOffset();
+        }
+
+        return mCitiesByUtcOffset;
+    }
+
+    /**
+     * Re-sorts the cities by UTC offset. If the order changed, the lists derived from it are
+     * rebuilt, republished and listeners are told of the change.
+     */
+    private void updateUtcOffsetOrder() {
+        if (mCitiesByUtcOffset == null) {
+            return;
+        }
+
+        final City[] before = mCitiesByUtcOffset.clone();
+        sortByUtcOffset();
+        if (!Arrays.equals(before, mCitiesByUtcOffset)) {
+            mAllCities = null;
+            mSelectedCities = null;
+            mUnselectedCities = null;
+
+            refreshSnapshot();
+            fireCitiesChanged();
+        }
+    }
+
+    /**
+     * Sorts the cities by UTC offset and schedules them to be sorted again when the UTC offset of
+     * any city next changes.
+     */
+    private void sortByUtcOffset() {
+        // Only the cities whose offset changed move, so the sort runs over mostly ordered data.
+        final long now = System.currentTimeMillis();
+        Arrays.sort(mCitiesByUtcOffset, new City.UtcOffsetComparator());
+
+        long validUntil = Long.MAX_VALUE;
+        for (City city : mCitiesByUtcOffset) {
+            validUntil = Math.min(validUntil,
+                    ZoneTransitionCache.getNextTransition(city.getTimeZone(), now));
+        }
+
+        mHandler.removeCallbacks(mUtcOffsetOrderUpdater);
+        if (validUntil != Long.MAX_VALUE) {
+            mHandler.postDelayed(mUtcOffsetOrderUpdater, Math.max(0, validUntil - now));
+        }
+    }
+
+    /**
+     * @param cities the cities to filter, in the order they are added to {@code result}
+     * @param selected the selected cities
+     * @param keepSelected {@code true} to keep only selected cities; {@code false} to keep only
+     *      unselected cities
+     * @param result receives the cities kept
+     */
+    private static void filter(City[] cities, Set<City> selected, boolean keepSelected,
+            List<City> result) {
+        for (City city : cities) {
+            if (selected.contains(city) == keepSelected) {
+                result.add(city);
+            }
+        }
+    }
+
+    /**
+     * Reloads the cities published in the snapshot if they were loaded before.
+     */
+    private void refreshSnapshot() {
+        final ModelSnapshot snapshot = mSnapshotPublisher.get();
+        if (snapshot.getSelectedCities() != null) {
+            getSelectedCities();
+        }
+        if (snapshot.getHomeCity() != null) {
+            getHomeCity();
+        }
+    }
+
     private void fireCitiesChanged() {
         mContext.sendBroadcast(new Intent(DataModel.ACTION_WORLD_CITIES_CHANGED));
-        for (CityListener cityListener : mCityListeners) {
-            cityListener.citiesChanged();
-        }
+        mCityListeners.dispatch(CITIES_CHANGED, null, null);
     }
 
     /**
@@ -247,10 +381,26 @@ final class CityModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             mCityMap = null;
+            mCitiesByName = null;
+            mCitiesByUtcOffset = null;
+            mSelectedCitySet = null;
             mHomeCity = null;
             mAllCities = null;
             mSelectedCities = null;
             mUnselectedCities = null;
+
+            // Republish the city names in the new locale.
+            refreshSnapshot();
+        }
+    }
+
+    /**
+     * Re-sorts the cities by UTC offset when the device time changes.
+     */
+    private final class TimeChangedReceiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            updateUtcOffsetOrder();
         }
     }
 
@@ -264,6 +414,7 @@ final class CityModel {
             switch (key) {
                 case SettingsActivity.KEY_HOME_TZ:
                     mHomeCity = null;
+                    refreshSnapshot();
                 case SettingsActivity.KEY_AUTO_HOME_CLOCK:
                     fireCitiesChanged();
                     break;
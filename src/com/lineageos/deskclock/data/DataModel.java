@@ -34,11 +34,13 @@ import android.media.AudioManager;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Trace;
 import android.view.View;
 
 import androidx.annotation.Keep;
 import androidx.annotation.StringRes;
 
+import com.lineageos.deskclock.LogUtils;
 import com.lineageos.deskclock.Predicate;
 import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.timer.TimerService;
@@ -46,8 +48,13 @@ import com.lineageos.deskclock.timer.TimerService;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * All application-wide data is accessible through this singleton.
@@ -162,6 +169,11 @@ public final class DataModel {
 
     private Context mContext;
 
+    private SharedPreferences mPrefs;
+
+    /** Publishes immutable snapshots of model data readable from any thread. */
+    private final ModelSnapshot.Publisher mSnapshotPublisher = new ModelSnapshot.Publisher();
+
     /** The model from which settings are fetched. */
     private SettingsModel mSettingsModel;
 
@@ -199,24 +211,113 @@ public final class DataModel {
     private DataModel() {}
 
     /**
-     * Initializes the data model with the context and shared preferences to be used.
+     * Initializes the data model with the context and shared preferences to be used. The models
+     * themselves are created on first use so that processes started only to handle a broadcast,
+     * e.g. to fire an alarm, do not pay for models and receivers they never touch.
      */
     public void init(Context context, SharedPreferences prefs) {
         if (mContext != context) {
-            mContext = context.getApplicationContext();
+            Trace.beginSection("DataModel.init");
+            synchronized (this) {
+                mContext = context.getApplicationContext();
+                mPrefs = prefs;
+
+                mNotificationModel = new NotificationModel();
+                mTimeModel = null;
+                mWidgetModel = null;
+                mRingtoneModel = null;
+                mSettingsModel = null;
+                mCityModel = null;
+                mAlarmModel = null;
+                mSilentSettingsModel = null;
+                mStopwatchModel = null;
+                mTimerModel = null;
+            }
+            Trace.endSection();
+        }
+    }
 
+    private synchronized TimeModel getTimeModel() {
+        if (mTimeModel == null) {
+            Trace.beginSection("DataModel.createTimeModel");
             mTimeModel = new TimeModel(mContext);
-            mWidgetModel = new WidgetModel(prefs);
-            mNotificationModel = new NotificationModel();
-            mRingtoneModel = new RingtoneModel(mContext, prefs);
-            mSettingsModel = new SettingsModel(mContext, prefs, mTimeModel);
-            mCityModel = new CityModel(mContext, prefs, mSettingsModel);
-            mAlarmModel = new AlarmModel(mContext, mSettingsModel);
+            Trace.endSection();
+        }
+        return mTimeModel;
+    }
+
+    private synchronized WidgetModel getWidgetModel() {
+        if (mWidgetModel == null) {
+            Trace.beginSection("DataModel.createWidgetModel");
+            mWidgetModel = new WidgetModel(mPrefs);
+            Trace.endSection();
+        }
+        return mWidgetModel;
+    }
+
+    private synchronized RingtoneModel getRingtoneModel() {
+        if (mRingtoneModel == null) {
+            Trace.beginSection("DataModel.createRingtoneModel");
+            mRingtoneModel = new RingtoneModel(mContext, mPrefs);
+            Trace.endSection();
+        }
+        return mRingtoneModel;
+    }
+
+    private synchronized SettingsModel getSettingsModel() {
+        if (mSettingsModel == null) {
+            Trace.beginSection("DataModel.createSettingsModel");
+            mSettingsModel = new SettingsModel(mContext, mPrefs, getTimeModel());
+            Trace.endSection();
+        }
+        return mSettingsModel;
+    }
+
+    private synchronized CityModel getCityModel() {
+        if (mCityModel == null) {
+            Trace.beginSection("DataModel.createCityModel");
+            mCityModel = new CityModel(mContext, mPrefs, getSettingsModel(), mSnapshotPublisher);
+            Trace.endSection();
+        }
+        return mCityModel;
+    }
+
+    private synchronized AlarmModel getAlarmModel() {
+        if (mAlarmModel == null) {
+            Trace.beginSection("DataModel.createAlarmModel");
+            mAlarmModel = new AlarmModel(mContext, getSettingsModel());
+            Trace.endSection();
+        }
+        return mAlarmModel;
+    }
+
+    private synchronized SilentSettingsModel getSilentSettingsModel() {
+        if (mSilentSettingsModel == null) {
+            Trace.beginSection("DataModel.createSilentSettingsModel");
             mSilentSettingsModel = new SilentSettingsModel(mContext, mNotificationModel);
-            mStopwatchModel = new StopwatchModel(mContext, prefs, mNotificationModel);
-            mTimerModel = new TimerModel(mContext, prefs, mSettingsModel, mRingtoneModel,
-                    mNotificationModel);
+            Trace.endSection();
+        }
+        return mSilentSettingsModel;
+    }
+
+    private synchronized StopwatchModel getStopwatchModel() {
+        if (mStopwatchModel == null) {
+            Trace.beginSection("DataModel.createStopwatchModel");
+            mStopwatchModel = new StopwatchModel(mContext, mPrefs, mNotificationModel,
+                    mSnapshotPublisher);
+            Trace.endSection();
+        }
+        return mStopwatchModel;
+    }
+
+    private synchronized TimerModel getTimerModel() {
+        if (mTimerModel == null) {
+            Trace.beginSection("DataModel.createTimerModel");
+            mTimerModel = new TimerModel(mContext, mPrefs, getSettingsModel(), getRingtoneModel(),
+                    mNotificationModel, mSnapshotPublisher);
+            Trace.endSection();
         }
+        return mTimerModel;
     }
 
     /**
@@ -230,26 +331,27 @@ public final class DataModel {
     }
 
     /**
-     * Updates all timers and the stopwatch after the device has shutdown and restarted.
+     * Updates all timers and stopwatches after the device has shutdown and restarted.
      */
     public void updateAfterReboot() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterReboot();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterReboot());
+        getTimerModel().updateTimersAfterReboot();
+        getStopwatchModel().updateAfterReboot();
     }
 
     /**
-     * Updates all timers and the stopwatch after the device's time has changed.
+     * Updates all timers and stopwatches after the device's time has changed.
      */
     public void updateAfterTimeSet() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterTimeSet();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterTimeSet());
+        getTimerModel().updateTimersAfterTimeSet();
+        getStopwatchModel().updateAfterTimeSet();
     }
 
     /**
      * Posts a runnable to the main thread and blocks until the runnable executes. Used to access
-     * the data model from the main thread.
+     * the data model from the main thread. Prefer {@link #runAsync} or {@link #supplyAsync} which
+     * do not block the calling thread.
      */
     public void run(Runnable runnable, long waitMillis) throws InterruptedException {
         if (Looper.myLooper() == Looper.getMainLooper()) {
@@ -257,15 +359,118 @@ public final class DataModel {
             return;
         }
 
-        final ExecutedRunnable er = new ExecutedRunnable(runnable);
-        getHandler().post(er);
+        final CompletableFuture<Void> future = runAsync(runnable);
+        try {
+            if (waitMillis == 0) {
+                future.get();
+            } else {
+                future.get(waitMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException ignored) {
+            // Give up waiting; the runnable still executes on the main thread later and a failure
+            // is then logged by supplyAsync since nothing waits on the future any more.
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Posts a runnable to the main thread without waiting for it to execute. Used to modify the
+     * data model from background threads such as broadcast receivers.
+     *
+     * @return a future completed once the runnable has executed on the main thread
+     */
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        });
+    }
 
-        // Wait for the data to arrive, if it has not.
-        synchronized (er) {
-            if (!er.isExecuted()) {
-                er.wait(waitMillis);
+    /**
+     * Posts a read of the data model to the main thread without waiting for it to execute. The
+     * returned future is completed on the main thread; callers continue on another thread with
+     * e.g. {@link CompletableFuture#thenAcceptAsync(java.util.function.Consumer,
+     * java.util.concurrent.Executor)}.
+     *
+     * <p>A failure completes the future exceptionally. If nothing depends on or waits for the
+     * future at that point, e.g. a fire-and-forget {@link #runAsync} or a {@link #run} that gave up
+     * waiting, the failure is also logged so that it is not lost.</p>
+     *
+     * @return a future completed with the supplied value once it has been read on the main thread
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Runnable task = () -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                if (future.getNumberOfDependents() == 0) {
+                    LogUtils.e("Data model task failed with nothing waiting for it", t);
+                }
             }
+        };
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            task.run();
+        } else {
+            getHandler().post(task);
         }
+        return future;
+    }
+
+    /**
+     * Returns an immutable snapshot of the timers, stopwatch, laps and cities. This may be called
+     * from any thread; only the first call in a process, if made before the main thread has loaded
+     * all of the data, waits for the main thread to load it.
+     *
+     * @return the latest immutable snapshot of model data
+     */
+    public ModelSnapshot getSnapshot() {
+        final ModelSnapshot snapshot = mSnapshotPublisher.get();
+        if (snapshot.isComplete()) {
+            return snapshot;
+        }
+
+        run(this::loadSnapshot);
+        return mSnapshotPublisher.get();
+    }
+
+    /**
+     * Returns an immutable snapshot of the timers, stopwatch, laps and cities without blocking the
+     * calling thread. The returned future is already complete unless the main thread has yet to
+     * load all of the data, in which case it completes on the main thread once it has.
+     *
+     * @return a future completed with the latest immutable snapshot of model data
+     */
+    public CompletableFuture<ModelSnapshot> getSnapshotAsync() {
+        final ModelSnapshot snapshot = mSnapshotPublisher.get();
+        if (snapshot.isComplete()) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+
+        return supplyAsync(() -> {
+            loadSnapshot();
+            return mSnapshotPublisher.get();
+        });
+    }
+
+    /**
+     * Loads all of the data in the snapshot, which publishes it.
+     */
+    private void loadSnapshot() {
+        getTimerModel().getTimers();
+        getStopwatchModel().getStopwatch();
+        getStopwatchModel().getLaps();
+        getCityModel().getSelectedCities();
+        getCityModel().getHomeCity();
     }
 
     /**
@@ -292,10 +497,10 @@ public final class DataModel {
             mNotificationModel.setApplicationInForeground(inForeground);
 
             // Refresh all notifications in response to a change in app open state.
-            mTimerModel.updateNotification();
-            mTimerModel.updateMissedNotification();
-            mStopwatchModel.updateNotification();
-            mSilentSettingsModel.updateSilentState();
+            getTimerModel().updateNotification();
+            getTimerModel().updateMissedNotification();
+            getStopwatchModel().updateNotification();
+            getSilentSettingsModel().updateSilentState();
         }
     }
 
@@ -313,9 +518,9 @@ public final class DataModel {
      */
     public void updateAllNotifications() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
-        mTimerModel.updateMissedNotification();
-        mStopwatchModel.updateNotification();
+        getTimerModel().updateNotification();
+        getTimerModel().updateMissedNotification();
+        getStopwatchModel().updateNotification();
     }
 
     //
@@ -327,7 +532,7 @@ public final class DataModel {
      */
     public List<City> getAllCities() {
         enforceMainLooper();
-        return mCityModel.getAllCities();
+        return getCityModel().getAllCities();
     }
 
     /**
@@ -335,7 +540,7 @@ public final class DataModel {
      */
     public City getHomeCity() {
         enforceMainLooper();
-        return mCityModel.getHomeCity();
+        return getCityModel().getHomeCity();
     }
 
     /**
@@ -343,7 +548,7 @@ public final class DataModel {
      */
     public List<City> getUnselectedCities() {
         enforceMainLooper();
-        return mCityModel.getUnselectedCities();
+        return getCityModel().getUnselectedCities();
     }
 
     /**
@@ -351,7 +556,7 @@ public final class DataModel {
      */
     public List<City> getSelectedCities() {
         enforceMainLooper();
-        return mCityModel.getSelectedCities();
+        return getCityModel().getSelectedCities();
     }
 
     /**
@@ -359,7 +564,7 @@ public final class DataModel {
      */
     public void setSelectedCities(Collection<City> cities) {
         enforceMainLooper();
-        mCityModel.setSelectedCities(cities);
+        getCityModel().setSelectedCities(cities);
     }
 
     /**
@@ -367,7 +572,7 @@ public final class DataModel {
      */
     public Comparator<City> getCityIndexComparator() {
         enforceMainLooper();
-        return mCityModel.getCityIndexComparator();
+        return getCityModel().getCityIndexComparator();
     }
 
     /**
@@ -375,7 +580,7 @@ public final class DataModel {
      */
     public CitySort getCitySort() {
         enforceMainLooper();
-        return mCityModel.getCitySort();
+        return getCityModel().getCitySort();
     }
 
     /**
@@ -383,7 +588,7 @@ public final class DataModel {
      */
     public void toggleCitySort() {
         enforceMainLooper();
-        mCityModel.toggleCitySort();
+        getCityModel().toggleCitySort();
     }
 
     /**
@@ -391,15 +596,26 @@ public final class DataModel {
      */
     public void addCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.addCityListener(cityListener);
+        getCityModel().addCityListener(cityListener);
     }
 
     /**
+     * May be called from any thread.
+     *
+     * @param cityListener listener to be notified when the world city list changes
+     * @param executor runs each notification of the listener, e.g. on a background thread
+     */
+    public void addCityListener(CityListener cityListener, Executor executor) {
+        getCityModel().addCityListener(cityListener, executor);
+    }
+
+    /**
+     * May be called from any thread.
+     *
      * @param cityListener listener that no longer needs to be notified of world city list changes
      */
     public void removeCityListener(CityListener cityListener) {
-        enforceMainLooper();
-        mCityModel.removeCityListener(cityListener);
+        getCityModel().removeCityListener(cityListener);
     }
 
     //
@@ -411,15 +627,26 @@ public final class DataModel {
      */
     public void addTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.addTimerListener(timerListener);
+        getTimerModel().addTimerListener(timerListener);
     }
 
     /**
+     * May be called from any thread.
+     *
+     * @param timerListener to be notified when timers are added, updated and removed
+     * @param executor runs each notification of the listener, e.g. on a background thread
+     */
+    public void addTimerListener(TimerListener timerListener, Executor executor) {
+        getTimerModel().addTimerListener(timerListener, executor);
+    }
+
+    /**
+     * May be called from any thread.
+     *
      * @param timerListener to no longer be notified when timers are added, updated and removed
      */
     public void removeTimerListener(TimerListener timerListener) {
-        enforceMainLooper();
-        mTimerModel.removeTimerListener(timerListener);
+        getTimerModel().removeTimerListener(timerListener);
     }
 
     /**
@@ -427,7 +654,7 @@ public final class DataModel {
      */
     public List<Timer> getTimers() {
         enforceMainLooper();
-        return mTimerModel.getTimers();
+        return getTimerModel().getTimers();
     }
 
     /**
@@ -435,7 +662,7 @@ public final class DataModel {
      */
     public List<Timer> getExpiredTimers() {
         enforceMainLooper();
-        return mTimerModel.getExpiredTimers();
+        return getTimerModel().getExpiredTimers();
     }
 
     /**
@@ -444,7 +671,7 @@ public final class DataModel {
      */
     public Timer getTimer(int timerId) {
         enforceMainLooper();
-        return mTimerModel.getTimer(timerId);
+        return getTimerModel().getTimer(timerId);
     }
 
     /**
@@ -455,7 +682,7 @@ public final class DataModel {
      */
     public Timer addTimer(long length, String label, boolean deleteAfterUse) {
         enforceMainLooper();
-        return mTimerModel.addTimer(length, label, deleteAfterUse);
+        return getTimerModel().addTimer(length, label, deleteAfterUse);
     }
 
     /**
@@ -463,7 +690,7 @@ public final class DataModel {
      */
     public void removeTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.removeTimer(timer);
+        getTimerModel().removeTimer(timer);
     }
 
     /**
@@ -480,7 +707,7 @@ public final class DataModel {
     public void startTimer(Service service, Timer timer) {
         enforceMainLooper();
         final Timer started = timer.start();
-        mTimerModel.updateTimer(started);
+        getTimerModel().updateTimer(started);
         if (timer.getRemainingTime() <= 0) {
             if (service != null) {
                 expireTimer(service, started);
@@ -495,7 +722,7 @@ public final class DataModel {
      */
     public void pauseTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.pause());
+        getTimerModel().updateTimer(timer.pause());
     }
 
     /**
@@ -504,7 +731,7 @@ public final class DataModel {
      */
     public void expireTimer(Service service, Timer timer) {
         enforceMainLooper();
-        mTimerModel.expireTimer(service, timer);
+        getTimerModel().expireTimer(service, timer);
     }
 
     /**
@@ -513,7 +740,7 @@ public final class DataModel {
     @Keep
     public void resetTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.resetTimer(timer, false /* allowDelete */, 0 /* eventLabelId */);
+        getTimerModel().resetTimer(timer, false /* allowDelete */, 0 /* eventLabelId */);
     }
 
     /**
@@ -526,7 +753,7 @@ public final class DataModel {
      */
     public void resetOrDeleteTimer(Timer timer, @StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetTimer(timer, true /* allowDelete */, eventLabelId);
+        getTimerModel().resetTimer(timer, true /* allowDelete */, eventLabelId);
     }
 
     /**
@@ -536,7 +763,7 @@ public final class DataModel {
      */
     public void resetOrDeleteExpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetOrDeleteExpiredTimers(eventLabelId);
+        getTimerModel().resetOrDeleteExpiredTimers(eventLabelId);
     }
 
     /**
@@ -546,7 +773,7 @@ public final class DataModel {
      */
     public void resetUnexpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetUnexpiredTimers(eventLabelId);
+        getTimerModel().resetUnexpiredTimers(eventLabelId);
     }
 
     /**
@@ -556,7 +783,7 @@ public final class DataModel {
      */
     public void resetMissedTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetMissedTimers(eventLabelId);
+        getTimerModel().resetMissedTimers(eventLabelId);
     }
 
     /**
@@ -564,7 +791,7 @@ public final class DataModel {
      */
     public void addTimerMinute(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.addMinute());
+        getTimerModel().updateTimer(timer.addMinute());
     }
 
     /**
@@ -573,7 +800,7 @@ public final class DataModel {
      */
     public void setTimerLabel(Timer timer, String label) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setLabel(label));
+        getTimerModel().updateTimer(timer.setLabel(label));
     }
 
     /**
@@ -581,7 +808,7 @@ public final class DataModel {
      */
     public void updateTimerNotification() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
+        getTimerModel().updateNotification();
     }
 
     /**
@@ -589,7 +816,7 @@ public final class DataModel {
      */
     public Uri getDefaultTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getDefaultTimerRingtoneUri();
+        return getTimerModel().getDefaultTimerRingtoneUri();
     }
 
     /**
@@ -597,7 +824,7 @@ public final class DataModel {
      */
     public boolean isTimerRingtoneSilent() {
         enforceMainLooper();
-        return mTimerModel.isTimerRingtoneSilent();
+        return getTimerModel().isTimerRingtoneSilent();
     }
 
     /**
@@ -605,7 +832,7 @@ public final class DataModel {
      */
     public Uri getTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneUri();
+        return getTimerModel().getTimerRingtoneUri();
     }
 
     /**
@@ -613,7 +840,7 @@ public final class DataModel {
      */
     public void setTimerRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mTimerModel.setTimerRingtoneUri(uri);
+        getTimerModel().setTimerRingtoneUri(uri);
     }
 
     /**
@@ -621,7 +848,7 @@ public final class DataModel {
      */
     public String getTimerRingtoneTitle() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneTitle();
+        return getTimerModel().getTimerRingtoneTitle();
     }
 
     /**
@@ -630,7 +857,7 @@ public final class DataModel {
      */
     public long getTimerCrescendoDuration() {
         enforceMainLooper();
-        return mTimerModel.getTimerCrescendoDuration();
+        return getTimerModel().getTimerCrescendoDuration();
     }
 
     /**
@@ -638,7 +865,7 @@ public final class DataModel {
      */
     public boolean getTimerVibrate() {
         enforceMainLooper();
-        return mTimerModel.getTimerVibrate();
+        return getTimerModel().getTimerVibrate();
     }
 
     /**
@@ -646,7 +873,7 @@ public final class DataModel {
      */
     public void setTimerVibrate(boolean enabled) {
         enforceMainLooper();
-        mTimerModel.setTimerVibrate(enabled);
+        getTimerModel().setTimerVibrate(enabled);
     }
 
     //
@@ -658,7 +885,7 @@ public final class DataModel {
      */
     public Uri getDefaultAlarmRingtoneUri() {
         enforceMainLooper();
-        return mAlarmModel.getDefaultAlarmRingtoneUri();
+        return getAlarmModel().getDefaultAlarmRingtoneUri();
     }
 
     /**
@@ -666,7 +893,7 @@ public final class DataModel {
      */
     public void setDefaultAlarmRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mAlarmModel.setDefaultAlarmRingtoneUri(uri);
+        getAlarmModel().setDefaultAlarmRingtoneUri(uri);
     }
 
     /**
@@ -675,7 +902,7 @@ public final class DataModel {
      */
     public long getAlarmCrescendoDuration() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmCrescendoDuration();
+        return getAlarmModel().getAlarmCrescendoDuration();
     }
 
     /**
@@ -683,78 +910,154 @@ public final class DataModel {
      */
     public AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmVolumeButtonBehavior();
+        return getAlarmModel().getAlarmVolumeButtonBehavior();
     }
 
     /**
      * @return the number of minutes an alarm may ring before it has timed out and becomes missed
      */
     public int getAlarmTimeout() {
-        return mAlarmModel.getAlarmTimeout();
+        return getAlarmModel().getAlarmTimeout();
     }
 
     /**
      * @return the number of minutes an alarm will remain snoozed before it rings again
      */
     public int getSnoozeLength() {
-        return mAlarmModel.getSnoozeLength();
+        return getAlarmModel().getSnoozeLength();
     }
 
     public int getFlipAction() {
-        return mAlarmModel.getFlipAction();
+        return getAlarmModel().getFlipAction();
     }
 
     public int getShakeAction() {
-        return mAlarmModel.getShakeAction();
+        return getAlarmModel().getShakeAction();
     }
 
     //
     // Stopwatch
     //
+    // The UI shows only the primary stopwatch; the methods taking a stopwatch id are not yet
+    // called outside of the data model and its tests.
+    //
 
     /**
      * @param stopwatchListener to be notified when stopwatch changes or laps are added
      */
     public void addStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.addStopwatchListener(stopwatchListener);
+        getStopwatchModel().addStopwatchListener(stopwatchListener);
     }
 
     /**
+     * May be called from any thread.
+     *
+     * @param stopwatchListener to be notified when stopwatch changes or laps are added
+     * @param executor runs each notification of the listener, e.g. on a background thread
+     */
+    public void addStopwatchListener(StopwatchListener stopwatchListener, Executor executor) {
+        getStopwatchModel().addStopwatchListener(stopwatchListener, executor);
+    }
+
+    /**
+     * May be called from any thread.
+     *
      * @param stopwatchListener to no longer be notified when stopwatch changes or laps are added
      */
     public void removeStopwatchListener(StopwatchListener stopwatchListener) {
-        enforceMainLooper();
-        mStopwatchModel.removeStopwatchListener(stopwatchListener);
+        getStopwatchModel().removeStopwatchListener(stopwatchListener);
     }
 
     /**
-     * @return the current state of the stopwatch
+     * @return the current state of the primary stopwatch
      */
     public Stopwatch getStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.getStopwatch();
+        return getStopwatchModel().getStopwatch();
+    }
+
+    /**
+     * @return the current state of the stopwatch with the given {@code id}; {@code null} if none
+     */
+    public Stopwatch getStopwatch(int id) {
+        enforceMainLooper();
+        return getStopwatchModel().getStopwatch(id);
+    }
+
+    /**
+     * @return an immutable list of all stopwatches ordered by id, starting with the primary
+     */
+    public List<Stopwatch> getStopwatches() {
+        enforceMainLooper();
+        return getStopwatchModel().getStopwatchList();
+    }
+
+    /**
+     * @return a new reset stopwatch
+     */
+    public Stopwatch addStopwatch() {
+        enforceMainLooper();
+        return getStopwatchModel().addStopwatch();
+    }
+
+    /**
+     * @param id the id of the stopwatch to remove; the primary stopwatch cannot be removed
+     */
+    public void removeStopwatch(int id) {
+        enforceMainLooper();
+        getStopwatchModel().removeStopwatch(id);
     }
 
     /**
      */
     public void startStopwatch() {
+        startStopwatch(Stopwatch.PRIMARY_ID);
+    }
+
+    /**
+     * @param id the id of the stopwatch to start
+     */
+    public void startStopwatch(int id) {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().start());
+        final Stopwatch stopwatch = getStopwatchModel().getStopwatch(id);
+        if (stopwatch != null) {
+            getStopwatchModel().setStopwatch(stopwatch.start());
+        }
     }
 
     /**
      */
     public void pauseStopwatch() {
+        pauseStopwatch(Stopwatch.PRIMARY_ID);
+    }
+
+    /**
+     * @param id the id of the stopwatch to pause
+     */
+    public void pauseStopwatch(int id) {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().pause());
+        final Stopwatch stopwatch = getStopwatchModel().getStopwatch(id);
+        if (stopwatch != null) {
+            getStopwatchModel().setStopwatch(stopwatch.pause());
+        }
     }
 
     /**
      */
     public void resetStopwatch() {
+        resetStopwatch(Stopwatch.PRIMARY_ID);
+    }
+
+    /**
+     * @param id the id of the stopwatch to reset
+     */
+    public void resetStopwatch(int id) {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().reset());
+        final Stopwatch stopwatch = getStopwatchModel().getStopwatch(id);
+        if (stopwatch != null) {
+            getStopwatchModel().setStopwatch(stopwatch.reset());
+        }
     }
 
     /**
@@ -762,7 +1065,7 @@ public final class DataModel {
      */
     public List<Lap> getLaps() {
         enforceMainLooper();
-        return (mStopwatchModel != null) ? mStopwatchModel.getLaps() : new ArrayList<>();
+        return getStopwatchModel().getLaps();
     }
 
     /**
@@ -770,7 +1073,7 @@ public final class DataModel {
      */
     public Lap addLap() {
         enforceMainLooper();
-        return mStopwatchModel.addLap();
+        return getStopwatchModel().addLap();
     }
 
     /**
@@ -778,7 +1081,7 @@ public final class DataModel {
      */
     public boolean canAddMoreLaps() {
         enforceMainLooper();
-        return mStopwatchModel.canAddMoreLaps();
+        return getStopwatchModel().canAddMoreLaps();
     }
 
     /**
@@ -786,7 +1089,7 @@ public final class DataModel {
      */
     public long getLongestLapTime() {
         enforceMainLooper();
-        return mStopwatchModel.getLongestLapTime();
+        return getStopwatchModel().getLongestLapTime();
     }
 
     /**
@@ -795,7 +1098,7 @@ public final class DataModel {
      */
     public long getCurrentLapTime(long time) {
         enforceMainLooper();
-        return mStopwatchModel.getCurrentLapTime(time);
+        return getStopwatchModel().getCurrentLapTime(time);
     }
 
     //
@@ -807,28 +1110,28 @@ public final class DataModel {
      * @return the current time in milliseconds
      */
     public long currentTimeMillis() {
-        return mTimeModel.currentTimeMillis();
+        return getTimeModel().currentTimeMillis();
     }
 
     /**
      * @return milliseconds since boot, including time spent in sleep
      */
     public long elapsedRealtime() {
-        return mTimeModel.elapsedRealtime();
+        return getTimeModel().elapsedRealtime();
     }
 
     /**
      * @return {@code true} if 24 hour time format is selected; {@code false} otherwise
      */
     public boolean is24HourFormat() {
-        return mTimeModel.is24HourFormat();
+        return getTimeModel().is24HourFormat();
     }
 
     /**
      * @return a new calendar object initialized to the {@link #currentTimeMillis()}
      */
     public Calendar getCalendar() {
-        return mTimeModel.getCalendar();
+        return getTimeModel().getCalendar();
     }
 
     //
@@ -842,7 +1145,7 @@ public final class DataModel {
      */
     public void loadRingtoneTitles() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtoneTitles();
+        getRingtoneModel().loadRingtoneTitles();
     }
 
     /**
@@ -850,7 +1153,7 @@ public final class DataModel {
      */
     public void loadRingtonePermissions() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtonePermissions();
+        getRingtoneModel().loadRingtonePermissions();
     }
 
     /**
@@ -859,7 +1162,7 @@ public final class DataModel {
      */
     public String getRingtoneTitle(Uri uri) {
         enforceMainLooper();
-        return mRingtoneModel.getRingtoneTitle(uri);
+        return getRingtoneModel().getRingtoneTitle(uri);
     }
 
     /**
@@ -868,7 +1171,7 @@ public final class DataModel {
      */
     public void addCustomRingtone(Uri uri, String title) {
         enforceMainLooper();
-        mRingtoneModel.addCustomRingtone(uri, title);
+        getRingtoneModel().addCustomRingtone(uri, title);
     }
 
     /**
@@ -876,7 +1179,7 @@ public final class DataModel {
      */
     public void removeCustomRingtone(Uri uri) {
         enforceMainLooper();
-        mRingtoneModel.removeCustomRingtone(uri);
+        getRingtoneModel().removeCustomRingtone(uri);
     }
 
     /**
@@ -884,7 +1187,7 @@ public final class DataModel {
      */
     public List<CustomRingtone> getCustomRingtones() {
         enforceMainLooper();
-        return mRingtoneModel.getCustomRingtones();
+        return getRingtoneModel().getCustomRingtones();
     }
 
     //
@@ -898,7 +1201,7 @@ public final class DataModel {
      */
     public void updateWidgetCount(Class widgetClass, int count, @StringRes int eventCategoryId) {
         enforceMainLooper();
-        mWidgetModel.updateWidgetCount(widgetClass, count, eventCategoryId);
+        getWidgetModel().updateWidgetCount(widgetClass, count, eventCategoryId);
     }
 
     //
@@ -910,22 +1213,34 @@ public final class DataModel {
      */
     public void addSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.addSilentSettingsListener(silentSettingsListener);
+        getSilentSettingsModel().addSilentSettingsListener(silentSettingsListener);
     }
 
     /**
+     * May be called from any thread.
+     *
+     * @param silentSettingsListener to be notified when alarm-silencing settings change
+     * @param executor runs each notification of the listener, e.g. on a background thread
+     */
+    public void addSilentSettingsListener(OnSilentSettingsListener silentSettingsListener,
+            Executor executor) {
+        getSilentSettingsModel().addSilentSettingsListener(silentSettingsListener, executor);
+    }
+
+    /**
+     * May be called from any thread.
+     *
      * @param silentSettingsListener to no longer be notified when alarm-silencing settings change
      */
     public void removeSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
-        enforceMainLooper();
-        mSilentSettingsModel.removeSilentSettingsListener(silentSettingsListener);
+        getSilentSettingsModel().removeSilentSettingsListener(silentSettingsListener);
     }
 
     /**
      * @return the id used to discriminate relevant AlarmManager callbacks from defunct ones
      */
     public int getGlobalIntentId() {
-        return mSettingsModel.getGlobalIntentId();
+        return getSettingsModel().getGlobalIntentId();
     }
 
     /**
@@ -933,7 +1248,7 @@ public final class DataModel {
      */
     public void updateGlobalIntentId() {
         enforceMainLooper();
-        mSettingsModel.updateGlobalIntentId();
+        getSettingsModel().updateGlobalIntentId();
     }
 
     /**
@@ -941,7 +1256,7 @@ public final class DataModel {
      */
     public ClockStyle getClockStyle() {
         enforceMainLooper();
-        return mSettingsModel.getClockStyle();
+        return getSettingsModel().getClockStyle();
     }
 
     /**
@@ -949,7 +1264,7 @@ public final class DataModel {
      */
     public boolean getDisplayClockSeconds() {
         enforceMainLooper();
-        return mSettingsModel.getDisplayClockSeconds();
+        return getSettingsModel().getDisplayClockSeconds();
     }
 
     /**
@@ -957,7 +1272,7 @@ public final class DataModel {
      */
     public void setDisplayClockSeconds(boolean displaySeconds) {
         enforceMainLooper();
-        mSettingsModel.setDisplayClockSeconds(displaySeconds);
+        getSettingsModel().setDisplayClockSeconds(displaySeconds);
     }
 
     /**
@@ -965,7 +1280,7 @@ public final class DataModel {
      */
     public ClockStyle getScreensaverClockStyle() {
         enforceMainLooper();
-        return mSettingsModel.getScreensaverClockStyle();
+        return getSettingsModel().getScreensaverClockStyle();
     }
 
     /**
@@ -973,16 +1288,17 @@ public final class DataModel {
      */
     public boolean getScreensaverNightModeOn() {
         enforceMainLooper();
-        return mSettingsModel.getScreensaverNightModeOn();
+        return getSettingsModel().getScreensaverNightModeOn();
     }
 
     /**
+     * May be called from any thread; the setting and time zones it consults are thread-safe.
+     *
      * @return {@code true} if the users wants to automatically show a clock for their home timezone
      *      when they have travelled outside of that timezone
      */
     public boolean getShowHomeClock() {
-        enforceMainLooper();
-        return mSettingsModel.getShowHomeClock();
+        return getSettingsModel().getShowHomeClock();
     }
 
     /**
@@ -991,21 +1307,21 @@ public final class DataModel {
      */
     public Weekdays.Order getWeekdayOrder() {
         enforceMainLooper();
-        return mSettingsModel.getWeekdayOrder();
+        return getSettingsModel().getWeekdayOrder();
     }
 
     /**
      * @return {@code true} if the restore process (of backup and restore) has completed
      */
     public boolean isRestoreBackupFinished() {
-        return mSettingsModel.isRestoreBackupFinished();
+        return getSettingsModel().isRestoreBackupFinished();
     }
 
     /**
      * @param finished {@code true} means the restore process (of backup and restore) has completed
      */
     public void setRestoreBackupFinished(boolean finished) {
-        mSettingsModel.setRestoreBackupFinished(finished);
+        getSettingsModel().setRestoreBackupFinished(finished);
     }
 
     /**
@@ -1013,33 +1329,19 @@ public final class DataModel {
      */
     public TimeZones getTimeZones() {
         enforceMainLooper();
-        return mSettingsModel.getTimeZones();
+        return getSettingsModel().getTimeZones();
     }
 
     /**
-     * Used to execute a delegate runnable and track its completion.
+     * Builds the time zones available for selection in the background unless they are cached.
+     * Callers continue on the main thread with e.g.
+     * {@link CompletableFuture#thenAcceptAsync(java.util.function.Consumer,
+     * java.util.concurrent.Executor)}.
+     *
+     * @return a future completed with a description of the time zones available for selection
      */
-    private static class ExecutedRunnable implements Runnable {
-
-        private final Runnable mDelegate;
-        private boolean mExecuted;
-
-        private ExecutedRunnable(Runnable delegate) {
-            this.mDelegate = delegate;
-        }
-
-        @Override
-        public void run() {
-            mDelegate.run();
-
-            synchronized (this) {
-                mExecuted = true;
-                notifyAll();
-            }
-        }
-
-        private boolean isExecuted() {
-            return mExecuted;
-        }
+    public CompletableFuture<TimeZones> loadTimeZones() {
+        enforceMainLooper();
+        return getSettingsModel().loadTimeZones();
     }
 }
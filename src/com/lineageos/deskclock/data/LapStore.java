@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import com.lineageos.deskclock.AsyncHandler;
+import com.lineageos.deskclock.LogUtils;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Records the laps of the stopwatch as the accumulated time at the end of each lap. Laps are
+ * appended to a growable array and to an append-only file in which each lap occupies one 8-byte
+ * record. {@link Lap} objects are only created when a lap is read from {@link #getLaps()}.
+ */
+final class LapStore {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("LapStore");
+
+    /** The size in bytes of each lap record in the file. */
+    private static final int RECORD_SIZE = Long.BYTES;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The file to which laps are appended. */
+    private final File mFile;
+
+    /** The accumulated time at the end of each lap in the order they were recorded. */
+    private long[] mAccumulatedTimes = new long[INITIAL_CAPACITY];
+
+    /** The number of recorded laps. */
+    private int mSize;
+
+    /** The longest lap time of all recorded laps. */
+    private long mLongestLapTime;
+
+    /** The view of the laps as they stand now; {@code null} until requested after a change. */
+    private List<Lap> mLaps;
+
+    private LapStore(File file) {
+        mFile = file;
+    }
+
+    /**
+     * @param file the file in which laps are recorded
+     * @param maxLaps the most laps to read from the {@code file}
+     * @return the laps previously recorded in the {@code file}
+     */
+    static LapStore load(File file, int maxLaps) {
+        final LapStore store = new LapStore(file);
+        if (!file.exists()) {
+            return store;
+        }
+
+        // A partial trailing record can only be the result of an interrupted write; ignore it.
+        final long length = file.length();
+        final int count = (int) Math.min(length / RECORD_SIZE, maxLaps);
+        final byte[] bytes = new byte[count * RECORD_SIZE];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(bytes);
+        } catch (IOException e) {
+            LOGGER.e("Unable to read laps", e);
+            return store;
+        }
+
+        // Drop the ignored bytes so that records appended later start on a record boundary.
+        if (length > bytes.length) {
+            truncate(file, bytes.length);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        store.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            store.append(buffer.getLong());
+        }
+        return store;
+    }
+
+    /**
+     * @return an immutable view of the recorded laps, newest first; it is unaffected by laps
+     *      recorded or cleared afterwards
+     */
+    List<Lap> getLaps() {
+        if (mLaps == null) {
+            mLaps = new LapList(mAccumulatedTimes, mSize);
+        }
+        return mLaps;
+    }
+
+    /**
+     * @return the number of recorded laps
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @return the accumulated time at the end of the most recent lap; 0 if no laps are recorded
+     */
+    long getLastAccumulatedTime() {
+        return mSize == 0 ? 0 : mAccumulatedTimes[mSize - 1];
+    }
+
+    /**
+     * @return the longest lap time of all recorded laps; 0 if no laps are recorded
+     */
+    long getLongestLapTime() {
+        return mLongestLapTime;
+    }
+
+    /**
+     * @param accumulatedTime the time accumulated by the stopwatch at the end of the new lap
+     * @return the newly recorded lap
+     */
+    Lap add(long accumulatedTime) {
+        final long lapTime = accumulatedTime - getLastAccumulatedTime();
+        ensureCapacity(mSize + 1);
+        append(accumulatedTime);
+        write(new long[] { accumulatedTime });
+        return new Lap(mSize, lapTime, accumulatedTime);
+    }
+
+    /**
+     * @param accumulatedTimes the times accumulated by the stopwatch at the end of each new lap
+     */
+    void addAll(long[] accumulatedTimes) {
+        ensureCapacity(mSize + accumulatedTimes.length);
+        for (long accumulatedTime : accumulatedTimes) {
+            append(accumulatedTime);
+        }
+        write(accumulatedTimes);
+    }
+
+    /**
+     * Removes all recorded laps.
+     */
+    void clear() {
+        // Views handed out earlier keep the old array, so it must not be reused.
+        mAccumulatedTimes = new long[INITIAL_CAPACITY];
+        mSize = 0;
+        mLongestLapTime = 0;
+        mLaps = null;
+
+        final File file = mFile;
+        AsyncHandler.post(() -> {
+            if (file.exists() && !file.delete()) {
+                LOGGER.e("Unable to delete %s", file);
+            }
+        });
+    }
+
+    private void append(long accumulatedTime) {
+        final long lapTime = accumulatedTime - getLastAccumulatedTime();
+        mLongestLapTime = Math.max(mLongestLapTime, lapTime);
+        mAccumulatedTimes[mSize++] = accumulatedTime;
+        mLaps = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mAccumulatedTimes.length) {
+            final int newCapacity = Math.max(capacity, mAccumulatedTimes.length * 2);
+            mAccumulatedTimes = Arrays.copyOf(mAccumulatedTimes, newCapacity);
+        }
+    }
+
+    /**
+     * Appends records to the file in the background. Each batch is written with a single call so
+     * that an interrupted write can only leave a partial record at the end of the file.
+     */
+    private void write(long[] accumulatedTimes) {
+        final ByteBuffer buffer = ByteBuffer.allocate(accumulatedTimes.length * RECORD_SIZE);
+        for (long accumulatedTime : accumulatedTimes) {
+            buffer.putLong(accumulatedTime);
+        }
+
+        final File file = mFile;
+        final byte[] bytes = buffer.array();
+        AsyncHandler.post(() -> {
+            try (FileOutputStream out = new FileOutputStream(file, true /* append */)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                LOGGER.e("Unable to record laps", e);
+            }
+        });
+    }
+
+    /**
+     * Truncates the file to {@code size} bytes in the background, ahead of any records appended
+     * afterwards.
+     */
+    private static void truncate(File file, long size) {
+        AsyncHandler.post(() -> {
+            try (FileOutputStream out = new FileOutputStream(file, true /* append */)) {
+                out.getChannel().truncate(size);
+            } catch (IOException e) {
+                LOGGER.e("Unable to truncate laps", e);
+            }
+        });
+    }
+
+    /**
+     * An immutable view of the first {@code size} laps of an array, newest first. Entries below
+     * {@code size} are never modified once written, so the view needs no copy.
+     */
+    private static final class LapList extends AbstractList<Lap> implements RandomAccess {
+
+        private final long[] mAccumulatedTimes;
+        private final int mSize;
+
+        private LapList(long[] accumulatedTimes, int size) {
+            mAccumulatedTimes = accumulatedTimes;
+            mSize = size;
+        }
+
+        @Override
+        public Lap get(int index) {
+            if (index < 0 || index >= mSize) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+            }
+
+            final int i = mSize - 1 - index;
+            final long accumulatedTime = mAccumulatedTimes[i];
+            final long prevAccumulatedTime = i == 0 ? 0 : mAccumulatedTimes[i - 1];
+            return new Lap(i + 1, accumulatedTime - prevAccumulatedTime, accumulatedTime);
+        }
+
+        @Override
+        public int size() {
+            return mSize;
+        }
+    }
+}
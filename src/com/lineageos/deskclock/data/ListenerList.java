@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * A copy-on-write list of model listeners. Registration copies the backing array and publishes it
+ * atomically; dispatch iterates the current snapshot without locking or allocating, so listeners
+ * may be added or removed from any thread, including from within a callback.
+ *
+ * <p>Listeners registered without an {@link Executor} are invoked synchronously on the thread
+ * that dispatches the event, which for all models is the main thread. Listeners registered with
+ * an executor receive each event through that executor instead.</p>
+ *
+ * @param <L> the type of listener
+ */
+final class ListenerList<L> {
+
+    /**
+     * Delivers one type of event to a listener. Implementations should be non-capturing lambdas or
+     * method references so that dispatching an event does not allocate.
+     *
+     * @param <L> the type of listener
+     * @param <A> the type of the first event argument
+     * @param <B> the type of the second event argument
+     */
+    interface Event<L, A, B> {
+        void deliver(L listener, A a, B b);
+    }
+
+    private static final Subscriber<?>[] EMPTY = new Subscriber<?>[0];
+
+    /** The current snapshot of subscribers; replaced, never mutated, on registration changes. */
+    @SuppressWarnings("unchecked")
+    private volatile Subscriber<L>[] mSubscribers = (Subscriber<L>[]) EMPTY;
+
+    /**
+     * @param listener to be invoked synchronously on the dispatching thread
+     */
+    void add(L listener) {
+        add(listener, null);
+    }
+
+    /**
+     * @param listener to be invoked for each event
+     * @param executor runs each invocation of the listener; {@code null} to invoke the listener
+     *      synchronously on the dispatching thread
+     */
+    synchronized void add(L listener, Executor executor) {
+        final Subscriber<L>[] subscribers = mSubscribers;
+        final Subscriber<L>[] copy = Arrays.copyOf(subscribers, subscribers.length + 1);
+        copy[subscribers.length] = new Subscriber<>(listener, executor);
+        mSubscribers = copy;
+    }
+
+    /**
+     * @param listener to no longer be invoked; its first registration is removed
+     */
+    synchronized void remove(L listener) {
+        final Subscriber<L>[] subscribers = mSubscribers;
+        for (int i = 0; i < subscribers.length; i++) {
+            if (subscribers[i].mListener == listener) {
+                final Subscriber<L>[] copy = Arrays.copyOf(subscribers, subscribers.length - 1);
+                System.arraycopy(subscribers, i + 1, copy, i, subscribers.length - i - 1);
+                mSubscribers = copy;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param event delivers the event to each listener
+     * @param a the first event argument
+     * @param b the second event argument, if any
+     */
+    <A, B> void dispatch(Event<L, A, B> event, A a, B b) {
+        for (Subscriber<L> subscriber : mSubscribers) {
+            if (subscriber.mExecutor == null) {
+                event.deliver(subscriber.mListener, a, b);
+            } else {
+                final L listener = subscriber.mListener;
+                subscriber.mExecutor.execute(() -> event.deliver(listener, a, b));
+            }
+        }
+    }
+
+    private static final class Subscriber<L> {
+        private final L mListener;
+        private final Executor mExecutor;
+
+        private Subscriber(L listener, Executor executor) {
+            mListener = listener;
+            mExecutor = executor;
+        }
+    }
+}
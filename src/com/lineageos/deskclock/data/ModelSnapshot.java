@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable view of the model data most often rendered outside of the app's activities. A new
+ * snapshot is published after each mutation of that data so it may be read lock-free from any
+ * thread without a hop to the main thread.
+ */
+public final class ModelSnapshot {
+
+    /** The snapshot in effect before any model data has been loaded. */
+    private static final ModelSnapshot EMPTY =
+            new ModelSnapshot(0, null, null, null, null, null);
+
+    /** Incremented with each published change. */
+    private final long mVersion;
+
+    /** Each part is {@code null} until it is first loaded by its model. */
+    private final List<Timer> mTimers;
+    private final Stopwatch mStopwatch;
+    private final List<Lap> mLaps;
+    private final List<City> mSelectedCities;
+    private final City mHomeCity;
+
+    private ModelSnapshot(long version, List<Timer> timers, Stopwatch stopwatch, List<Lap> laps,
+            List<City> selectedCities, City homeCity) {
+        mVersion = version;
+        mTimers = timers;
+        mStopwatch = stopwatch;
+        mLaps = laps;
+        mSelectedCities = selectedCities;
+        mHomeCity = homeCity;
+    }
+
+    public long getVersion() { return mVersion; }
+    public List<Timer> getTimers() { return mTimers; }
+    public Stopwatch getStopwatch() { return mStopwatch; }
+    public List<Lap> getLaps() { return mLaps; }
+    public List<City> getSelectedCities() { return mSelectedCities; }
+    public City getHomeCity() { return mHomeCity; }
+
+    /**
+     * @return {@code true} iff every part of this snapshot has been loaded
+     */
+    boolean isComplete() {
+        return mTimers != null && mStopwatch != null && mLaps != null
+                && mSelectedCities != null && mHomeCity != null;
+    }
+
+    private static <T> List<T> copyOf(List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * Owns the current snapshot. Models publish changes to their part of the snapshot here; each
+     * publication replaces the snapshot as a whole so readers never observe a partial update.
+     */
+    static final class Publisher {
+
+        private volatile ModelSnapshot mSnapshot = EMPTY;
+
+        /**
+         * @return the latest snapshot; may be called from any thread
+         */
+        ModelSnapshot get() {
+            return mSnapshot;
+        }
+
+        synchronized void publishTimers(List<Timer> timers) {
+            final ModelSnapshot s = mSnapshot;
+            mSnapshot = new ModelSnapshot(s.mVersion + 1, copyOf(timers), s.mStopwatch, s.mLaps,
+                    s.mSelectedCities, s.mHomeCity);
+        }
+
+        synchronized void publishStopwatch(Stopwatch stopwatch) {
+            final ModelSnapshot s = mSnapshot;
+            mSnapshot = new ModelSnapshot(s.mVersion + 1, s.mTimers, stopwatch, s.mLaps,
+                    s.mSelectedCities, s.mHomeCity);
+        }
+
+        /**
+         * @param laps an immutable view of the laps; unlike other parts it is not copied because
+         *      it may hold thousands of laps
+         */
+        synchronized void publishLaps(List<Lap> laps) {
+            final ModelSnapshot s = mSnapshot;
+            mSnapshot = new ModelSnapshot(s.mVersion + 1, s.mTimers, s.mStopwatch, laps,
+                    s.mSelectedCities, s.mHomeCity);
+        }
+
+        synchronized void publishSelectedCities(List<City> selectedCities) {
+            final ModelSnapshot s = mSnapshot;
+            mSnapshot = new ModelSnapshot(s.mVersion + 1, s.mTimers, s.mStopwatch, s.mLaps,
+                    copyOf(selectedCities), s.mHomeCity);
+        }
+
+        synchronized void publishHomeCity(City homeCity) {
+            final ModelSnapshot s = mSnapshot;
+            mSnapshot = new ModelSnapshot(s.mVersion + 1, s.mTimers, s.mStopwatch, s.mLaps,
+                    s.mSelectedCities, homeCity);
+        }
+    }
+}
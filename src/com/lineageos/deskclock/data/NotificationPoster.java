@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.app.Notification;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.core.app.NotificationManagerCompat;
+
+import com.lineageos.deskclock.LogUtils;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Posts a single notification on behalf of a model. Each post is accompanied by a fingerprint of
+ * the user-visible content; posts whose fingerprint matches the one last posted are skipped and
+ * the notification is never built. Remaining posts are spaced to stay below the rate at which the
+ * platform starts dropping notification updates, with only the latest content posted at the end
+ * of each interval.
+ */
+final class NotificationPoster {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("NotificationPoster");
+
+    /** The platform drops updates beyond 5 per second per package; stay well below that. */
+    private static final long MIN_POST_INTERVAL_MS = 250;
+
+    /** Indicates the state of the notification is not known, e.g. after a process restart. */
+    private static final Object UNKNOWN = new Object();
+
+    private final NotificationManagerCompat mNotificationManager;
+
+    /** Used to post notifications deferred by the rate limit. */
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** Posts the deferred notification once the rate limit allows it. */
+    private final Runnable mPostPendingRunnable = this::postPending;
+
+    /** A short name used to identify this notification in logs. */
+    private final String mName;
+
+    private final int mNotificationId;
+
+    /** The fingerprint of the posted notification; {@code null} if it is cancelled. */
+    private Object mPostedFingerprint = UNKNOWN;
+
+    /** The fingerprint and factory of the notification waiting for the rate limit. */
+    private Object mPendingFingerprint;
+    private Supplier<Notification> mPendingFactory;
+
+    /** Elapsed time in ms of the last call to {@link NotificationManagerCompat#notify}. */
+    private long mLastPostTime = Long.MIN_VALUE;
+
+    /** Counts of requests and the resulting binder calls, logged to measure their efficiency. */
+    private int mRequestCount;
+    private int mNotifyCount;
+    private int mCancelCount;
+
+    NotificationPoster(NotificationManagerCompat notificationManager, String name,
+            int notificationId) {
+        mNotificationManager = notificationManager;
+        mName = name;
+        mNotificationId = notificationId;
+    }
+
+    /**
+     * @param fingerprint an object whose equality reflects the user-visible notification content
+     * @param factory builds the notification if it must actually be posted
+     */
+    void post(Object fingerprint, Supplier<Notification> factory) {
+        mRequestCount++;
+
+        final Object latest = mPendingFactory != null ? mPendingFingerprint : mPostedFingerprint;
+        if (Objects.equals(latest, fingerprint)) {
+            logCounts();
+            return;
+        }
+
+        final long delay = mLastPostTime == Long.MIN_VALUE
+                ? 0 : mLastPostTime + MIN_POST_INTERVAL_MS - SystemClock.elapsedRealtime();
+        if (delay <= 0 && mPendingFactory == null) {
+            notify(fingerprint, factory.get());
+            return;
+        }
+
+        // Replace any notification already waiting; only the latest content is ever posted.
+        final boolean scheduled = mPendingFactory != null;
+        mPendingFingerprint = fingerprint;
+        mPendingFactory = factory;
+        if (!scheduled) {
+            mHandler.postDelayed(mPostPendingRunnable, Math.max(0, delay));
+        }
+    }
+
+    /**
+     * Cancels the notification and any post waiting for the rate limit.
+     */
+    void cancel() {
+        mRequestCount++;
+        clearPending();
+
+        if (mPostedFingerprint != null) {
+            mPostedFingerprint = null;
+            mNotificationManager.cancel(mNotificationId);
+            mCancelCount++;
+        }
+        logCounts();
+    }
+
+    /**
+     * Forget the content last posted so the next post is built, e.g. after a locale change.
+     */
+    void invalidate() {
+        if (mPostedFingerprint != null) {
+            mPostedFingerprint = UNKNOWN;
+        }
+    }
+
+    private void postPending() {
+        final Object fingerprint = mPendingFingerprint;
+        final Supplier<Notification> factory = mPendingFactory;
+        clearPending();
+
+        if (factory != null && !Objects.equals(mPostedFingerprint, fingerprint)) {
+            notify(fingerprint, factory.get());
+        }
+    }
+
+    private void notify(Object fingerprint, Notification notification) {
+        mPostedFingerprint = fingerprint;
+        mLastPostTime = SystemClock.elapsedRealtime();
+        mNotificationManager.notify(mNotificationId, notification);
+        mNotifyCount++;
+        logCounts();
+    }
+
+    private void clearPending() {
+        mHandler.removeCallbacks(mPostPendingRunnable);
+        mPendingFingerprint = null;
+        mPendingFactory = null;
+    }
+
+    private void logCounts() {
+        LOGGER.v("%s: %d requests, %d notify calls, %d cancel calls",
+                mName, mRequestCount, mNotifyCount, mCancelCount);
+    }
+}
@@ -206,7 +206,7 @@ final class RingtoneModel {
     private final class SystemAlarmAlertChangeObserver extends ContentObserver {
 
         private SystemAlarmAlertChangeObserver() {
-            super(new Handler(Looper.myLooper()));
+            super(new Handler(Looper.getMainLooper()));
         }
 
         @Override
@@ -58,7 +58,7 @@ final class SettingsDAO {
     private static final String KEY_SORT_PREFERENCE = "sort_preference";
 
     /** Key to a preference that stores the default ringtone for new alarms. */
-    private static final String KEY_DEFAULT_ALARM_RINGTONE_URI = "default_alarm_ringtone_uri";
+    static final String KEY_DEFAULT_ALARM_RINGTONE_URI = "default_alarm_ringtone_uri";
 
     /** Key to a preference that stores the global broadcast id. */
     private static final String KEY_ALARM_GLOBAL_ID = "intent.extra.alarm.global.id";
@@ -116,7 +116,7 @@ final class SettingsDAO {
         String timeZoneId = prefs.getString(SettingsActivity.KEY_HOME_TZ, null);
 
         // If the recorded home timezone is legal, use it.
-        final TimeZones timeZones = getTimeZones(context, System.currentTimeMillis());
+        final TimeZones timeZones = TimeZonesCache.get(context, System.currentTimeMillis());
         if (timeZones.contains(timeZoneId)) {
             return TimeZone.getTimeZone(timeZoneId);
         }
@@ -312,6 +312,9 @@ final class SettingsDAO {
     }
 
     /**
+     * Builds the time zones from scratch; callers should prefer the copy kept by
+     * {@link TimeZonesCache}.
+     *
      * @param currentTime timezone offsets created relative to this time
      * @return a description of the time zones available for selection
      */
@@ -381,7 +384,7 @@ final class SettingsDAO {
             mTimeZoneId = id;
 
             final TimeZone tz = TimeZone.getTimeZone(id);
-            mOffset = tz.getOffset(currentTime);
+            mOffset = ZoneTransitionCache.getOffset(tz, currentTime);
 
             final char sign = mOffset < 0 ? '-' : '+';
             final int absoluteGMTOffset = Math.abs(mOffset);
@@ -16,8 +16,12 @@
 
 package com.lineageos.deskclock.data;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.SharedPreferences;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 import android.net.Uri;
 
 import com.lineageos.deskclock.R;
@@ -25,8 +29,10 @@ import com.lineageos.deskclock.Utils;
 import com.lineageos.deskclock.data.DataModel.AlarmVolumeButtonBehavior;
 import com.lineageos.deskclock.data.DataModel.CitySort;
 import com.lineageos.deskclock.data.DataModel.ClockStyle;
+import com.lineageos.deskclock.settings.SettingsActivity;
 
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * All settings data is accessed via this model.
@@ -40,6 +46,20 @@ final class SettingsModel {
     /** The model from which time data are fetched. */
     private final TimeModel mTimeModel;
 
+    /**
+     * Retain a hard reference to the shared preference observer to prevent it from being garbage
+     * collected. See {@link SharedPreferences#registerOnSharedPreferenceChangeListener} for detail.
+     */
+    @SuppressWarnings("FieldCanBeLocal")
+    private final OnSharedPreferenceChangeListener mPreferenceListener = new PreferenceListener();
+
+    /** Refreshes settings whose default values depend on the locale. */
+    @SuppressWarnings("FieldCanBeLocal")
+    private final BroadcastReceiver mLocaleChangedReceiver = new LocaleChangedReceiver();
+
+    /** The parsed settings; replaced as a whole so that it may be read from any thread. */
+    private volatile SettingsSnapshot mSnapshot;
+
     /** The uri of the default ringtone to use for timers until the user explicitly chooses one. */
     private Uri mDefaultTimerRingtoneUri;
 
@@ -50,6 +70,12 @@ final class SettingsModel {
 
         // Set the user's default display seconds preference if one has not yet been chosen.
         SettingsDAO.setDefaultDisplayClockSeconds(mContext, prefs);
+
+        mSnapshot = SettingsSnapshot.create(prefs);
+        prefs.registerOnSharedPreferenceChangeListener(mPreferenceListener);
+
+        final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
+        mContext.registerReceiver(mLocaleChangedReceiver, localeBroadcastFilter);
     }
 
     int getGlobalIntentId() {
@@ -102,7 +128,8 @@ final class SettingsModel {
         final TimeZone defaultTZ = TimeZone.getDefault();
         final TimeZone homeTimeZone = SettingsDAO.getHomeTimeZone(mContext, mPrefs, defaultTZ);
         final long now = System.currentTimeMillis();
-        return homeTimeZone.getOffset(now) != defaultTZ.getOffset(now);
+        return ZoneTransitionCache.getOffset(homeTimeZone, now)
+                != ZoneTransitionCache.getOffset(defaultTZ, now);
     }
 
     Uri getDefaultTimerRingtoneUri() {
@@ -115,50 +142,52 @@ final class SettingsModel {
 
     void setTimerRingtoneUri(Uri uri) {
         SettingsDAO.setTimerRingtoneUri(mPrefs, uri);
+        updateSnapshot(SettingsActivity.KEY_TIMER_RINGTONE);
     }
 
     Uri getTimerRingtoneUri() {
-        return SettingsDAO.getTimerRingtoneUri(mPrefs, getDefaultTimerRingtoneUri());
+        return mSnapshot.getTimerRingtoneUri(getDefaultTimerRingtoneUri());
     }
 
     AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() {
-        return SettingsDAO.getAlarmVolumeButtonBehavior(mPrefs);
+        return mSnapshot.getAlarmVolumeButtonBehavior();
     }
 
     int getAlarmTimeout() {
-        return SettingsDAO.getAlarmTimeout(mPrefs);
+        return mSnapshot.getAlarmTimeout();
     }
 
     int getSnoozeLength() {
-        return SettingsDAO.getSnoozeLength(mPrefs);
+        return mSnapshot.getSnoozeLength();
     }
 
     int getFlipAction() {
-        return SettingsDAO.getFlipAction(mPrefs);
+        return mSnapshot.getFlipAction();
     }
 
     int getShakeAction() {
-        return SettingsDAO.getShakeAction(mPrefs);
+        return mSnapshot.getShakeAction();
     }
 
     Uri getDefaultAlarmRingtoneUri() {
-        return SettingsDAO.getDefaultAlarmRingtoneUri(mPrefs);
+        return mSnapshot.getDefaultAlarmRingtoneUri();
     }
 
     void setDefaultAlarmRingtoneUri(Uri uri) {
         SettingsDAO.setDefaultAlarmRingtoneUri(mPrefs, uri);
+        updateSnapshot(SettingsDAO.KEY_DEFAULT_ALARM_RINGTONE_URI);
     }
 
     long getAlarmCrescendoDuration() {
-        return SettingsDAO.getAlarmCrescendoDuration(mPrefs);
+        return mSnapshot.getAlarmCrescendoDuration();
     }
 
     long getTimerCrescendoDuration() {
-        return SettingsDAO.getTimerCrescendoDuration(mPrefs);
+        return mSnapshot.getTimerCrescendoDuration();
     }
 
     Weekdays.Order getWeekdayOrder() {
-        return SettingsDAO.getWeekdayOrder(mPrefs);
+        return mSnapshot.getWeekdayOrder();
     }
 
     boolean isRestoreBackupFinished() {
@@ -170,14 +199,42 @@ final class SettingsModel {
     }
 
     boolean getTimerVibrate() {
-        return SettingsDAO.getTimerVibrate(mPrefs);
+        return mSnapshot.getTimerVibrate();
     }
 
     void setTimerVibrate(boolean enabled) {
         SettingsDAO.setTimerVibrate(mPrefs, enabled);
+        updateSnapshot(SettingsActivity.KEY_TIMER_VIBRATE);
     }
 
     TimeZones getTimeZones() {
-        return SettingsDAO.getTimeZones(mContext, mTimeModel.currentTimeMillis());
+        return TimeZonesCache.get(mContext, mTimeModel.currentTimeMillis());
+    }
+
+    CompletableFuture<TimeZones> loadTimeZones() {
+        return TimeZonesCache.load(mContext, mTimeModel.currentTimeMillis());
+    }
+
+    /**
+     * Publishes a snapshot in which the preference stored at {@code key} is parsed again. Setters
+     * call this directly because preference listeners are notified asynchronously.
+     */
+    private synchronized void updateSnapshot(String key) {
+        mSnapshot = mSnapshot.update(mPrefs, key);
+    }
+
+    private final class PreferenceListener implements OnSharedPreferenceChangeListener {
+        @Override
+        public void onSharedPreferenceChanged(SharedPreferences prefs, String key) {
+            updateSnapshot(key);
+        }
+    }
+
+    private final class LocaleChangedReceiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            // The default first day of the week is determined by the locale.
+            updateSnapshot(SettingsActivity.KEY_WEEK_START);
+        }
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.content.SharedPreferences;
+import android.net.Uri;
+
+import com.lineageos.deskclock.data.DataModel.AlarmVolumeButtonBehavior;
+import com.lineageos.deskclock.settings.SettingsActivity;
+
+/**
+ * An immutable, typed copy of the settings that are read on hot paths such as firing an alarm.
+ * Each value is parsed from {@link SharedPreferences} once; a changed preference produces a new
+ * snapshot in which only that value is parsed again.
+ */
+final class SettingsSnapshot {
+
+    private final int mAlarmTimeout;
+    private final int mSnoozeLength;
+    private final int mFlipAction;
+    private final int mShakeAction;
+    private final long mAlarmCrescendoDuration;
+    private final long mTimerCrescendoDuration;
+    private final Weekdays.Order mWeekdayOrder;
+    private final AlarmVolumeButtonBehavior mAlarmVolumeButtonBehavior;
+    private final boolean mTimerVibrate;
+
+    /** The explicitly chosen timer ringtone; {@code null} if none has been chosen. */
+    private final Uri mTimerRingtoneUri;
+
+    private final Uri mDefaultAlarmRingtoneUri;
+
+    private SettingsSnapshot(Builder builder) {
+        mAlarmTimeout = builder.mAlarmTimeout;
+        mSnoozeLength = builder.mSnoozeLength;
+        mFlipAction = builder.mFlipAction;
+        mShakeAction = builder.mShakeAction;
+        mAlarmCrescendoDuration = builder.mAlarmCrescendoDuration;
+        mTimerCrescendoDuration = builder.mTimerCrescendoDuration;
+        mWeekdayOrder = builder.mWeekdayOrder;
+        mAlarmVolumeButtonBehavior = builder.mAlarmVolumeButtonBehavior;
+        mTimerVibrate = builder.mTimerVibrate;
+        mTimerRingtoneUri = builder.mTimerRingtoneUri;
+        mDefaultAlarmRingtoneUri = builder.mDefaultAlarmRingtoneUri;
+    }
+
+    /**
+     * @return a snapshot of all settings currently stored in {@code prefs}
+     */
+    static SettingsSnapshot create(SharedPreferences prefs) {
+        final Builder builder = new Builder();
+        builder.mAlarmTimeout = SettingsDAO.getAlarmTimeout(prefs);
+        builder.mSnoozeLength = SettingsDAO.getSnoozeLength(prefs);
+        builder.mFlipAction = SettingsDAO.getFlipAction(prefs);
+        builder.mShakeAction = SettingsDAO.getShakeAction(prefs);
+        builder.mAlarmCrescendoDuration = SettingsDAO.getAlarmCrescendoDuration(prefs);
+        builder.mTimerCrescendoDuration = SettingsDAO.getTimerCrescendoDuration(prefs);
+        builder.mWeekdayOrder = SettingsDAO.getWeekdayOrder(prefs);
+        builder.mAlarmVolumeButtonBehavior = SettingsDAO.getAlarmVolumeButtonBehavior(prefs);
+        builder.mTimerVibrate = SettingsDAO.getTimerVibrate(prefs);
+        builder.mTimerRingtoneUri = SettingsDAO.getTimerRingtoneUri(prefs, null);
+        builder.mDefaultAlarmRingtoneUri = SettingsDAO.getDefaultAlarmRingtoneUri(prefs);
+        return new SettingsSnapshot(builder);
+    }
+
+    /**
+     * @param key the preference that changed; {@code null} if the preferences were cleared
+     * @return a snapshot in which the value stored at {@code key} is parsed again; this snapshot
+     *      if {@code key} is not part of it
+     */
+    SettingsSnapshot update(SharedPreferences prefs, String key) {
+        if (key == null) {
+            return create(prefs);
+        }
+
+        final Builder builder = new Builder(this);
+        switch (key) {
+            case SettingsActivity.KEY_AUTO_SILENCE:
+                builder.mAlarmTimeout = SettingsDAO.getAlarmTimeout(prefs);
+                break;
+            case SettingsActivity.KEY_ALARM_SNOOZE:
+                builder.mSnoozeLength = SettingsDAO.getSnoozeLength(prefs);
+                break;
+            case SettingsActivity.KEY_FLIP_ACTION:
+                builder.mFlipAction = SettingsDAO.getFlipAction(prefs);
+                break;
+            case SettingsActivity.KEY_SHAKE_ACTION:
+                builder.mShakeAction = SettingsDAO.getShakeAction(prefs);
+                break;
+            case SettingsActivity.KEY_ALARM_CRESCENDO:
+                builder.mAlarmCrescendoDuration = SettingsDAO.getAlarmCrescendoDuration(prefs);
+                break;
+            case SettingsActivity.KEY_TIMER_CRESCENDO:
+                builder.mTimerCrescendoDuration = SettingsDAO.getTimerCrescendoDuration(prefs);
+                break;
+            case SettingsActivity.KEY_WEEK_START:
+                builder.mWeekdayOrder = SettingsDAO.getWeekdayOrder(prefs);
+                break;
+            case SettingsActivity.KEY_VOLUME_BUTTONS:
+                builder.mAlarmVolumeButtonBehavior =
+                        SettingsDAO.getAlarmVolumeButtonBehavior(prefs);
+                break;
+            case SettingsActivity.KEY_TIMER_VIBRATE:
+                builder.mTimerVibrate = SettingsDAO.getTimerVibrate(prefs);
+                break;
+            case SettingsActivity.KEY_TIMER_RINGTONE:
+                builder.mTimerRingtoneUri = SettingsDAO.getTimerRingtoneUri(prefs, null);
+                break;
+            case SettingsDAO.KEY_DEFAULT_ALARM_RINGTONE_URI:
+                builder.mDefaultAlarmRingtoneUri = SettingsDAO.getDefaultAlarmRingtoneUri(prefs);
+                break;
+            default:
+                return this;
+        }
+        return new SettingsSnapshot(builder);
+    }
+
+    int getAlarmTimeout() { return mAlarmTimeout; }
+    int getSnoozeLength() { return mSnoozeLength; }
+    int getFlipAction() { return mFlipAction; }
+    int getShakeAction() { return mShakeAction; }
+    long getAlarmCrescendoDuration() { return mAlarmCrescendoDuration; }
+    long getTimerCrescendoDuration() { return mTimerCrescendoDuration; }
+    Weekdays.Order getWeekdayOrder() { return mWeekdayOrder; }
+    AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() { return mAlarmVolumeButtonBehavior; }
+    boolean getTimerVibrate() { return mTimerVibrate; }
+    Uri getDefaultAlarmRingtoneUri() { return mDefaultAlarmRingtoneUri; }
+
+    /**
+     * @return the uri of the selected timer ringtone or {@code defaultUri} if no explicit
+     *      selection has yet been made
+     */
+    Uri getTimerRingtoneUri(Uri defaultUri) {
+        return mTimerRingtoneUri == null ? defaultUri : mTimerRingtoneUri;
+    }
+
+    /**
+     * Collects the values of a snapshot before it is constructed.
+     */
+    private static final class Builder {
+
+        private int mAlarmTimeout;
+        private int mSnoozeLength;
+        private int mFlipAction;
+        private int mShakeAction;
+        private long mAlarmCrescendoDuration;
+        private long mTimerCrescendoDuration;
+        private Weekdays.Order mWeekdayOrder;
+        private AlarmVolumeButtonBehavior mAlarmVolumeButtonBehavior;
+        private boolean mTimerVibrate;
+        private Uri mTimerRingtoneUri;
+        private Uri mDefaultAlarmRingtoneUri;
+
+        private Builder() {}
+
+        /**
+         * @param snapshot the snapshot whose values are copied
+         */
+        private Builder(SettingsSnapshot snapshot) {
+            mAlarmTimeout = snapshot.mAlarmTimeout;
+            mSnoozeLength = snapshot.mSnoozeLength;
+            mFlipAction = snapshot.mFlipAction;
+            mShakeAction = snapshot.mShakeAction;
+            mAlarmCrescendoDuration = snapshot.mAlarmCrescendoDuration;
+            mTimerCrescendoDuration = snapshot.mTimerCrescendoDuration;
+            mWeekdayOrder = snapshot.mWeekdayOrder;
+            mAlarmVolumeButtonBehavior = snapshot.mAlarmVolumeButtonBehavior;
+            mTimerVibrate = snapshot.mTimerVibrate;
+            mTimerRingtoneUri = snapshot.mTimerRingtoneUri;
+            mDefaultAlarmRingtoneUri = snapshot.mDefaultAlarmRingtoneUri;
+        }
+    }
+}
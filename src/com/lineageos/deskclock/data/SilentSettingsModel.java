@@ -42,8 +42,7 @@ import androidx.core.app.NotificationManagerCompat;
 
 import com.lineageos.deskclock.data.DataModel.SilentSetting;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -54,9 +53,28 @@ import java.util.concurrent.Executors;
  */
 final class SilentSettingsModel {
 
+    /** The event delivered to {@link OnSilentSettingsListener}s. */
+    private static final ListenerList.Event<OnSilentSettingsListener, SilentSetting, Void>
+            SILENT_SETTINGS_CHANGED = (listener, after, unused) ->
+                    listener.onSilentSettingsChange(after);
+
     /** The Uri to the settings entry that stores alarm stream volume. */
     private static final Uri VOLUME_URI = Uri.withAppendedPath(CONTENT_URI, "volume_alarm_speaker");
 
+    /** Bits identifying the individual checks that may need to be re-run. */
+    private static final int CHECK_DO_NOT_DISTURB = 1;
+    private static final int CHECK_ALARM_VOLUME = 1 << 1;
+    private static final int CHECK_ALARM_RINGTONE = 1 << 2;
+    private static final int CHECK_NOTIFICATIONS = 1 << 3;
+    private static final int CHECK_ALL = CHECK_DO_NOT_DISTURB | CHECK_ALARM_VOLUME
+            | CHECK_ALARM_RINGTONE | CHECK_NOTIFICATIONS;
+
+    /**
+     * Requests arriving within this window (roughly one frame) are coalesced into a single
+     * evaluation so that e.g. dragging the alarm volume slider does not queue a check per notch.
+     */
+    private static final long EVALUATION_DELAY_MS = 16;
+
     private final Context mContext;
 
     /** Used to query the alarm volume and display the system control to change the alarm volume. */
@@ -69,7 +87,19 @@ final class SilentSettingsModel {
     private final NotificationModel mNotificationModel;
 
     /** List of listeners to invoke upon silence state change. */
-    private final List<OnSilentSettingsListener> mListeners = new ArrayList<>(1);
+    private final ListenerList<OnSilentSettingsListener> mListeners = new ListenerList<>();
+
+    /** Used to coalesce check requests and to deliver results on the main thread. */
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /** The single background thread that runs every check; the sole writer of check results. */
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    /** The most recent result of each check; only accessed from {@link #mExecutor}. */
+    private final SilenceSettingsChecks mChecks = new SilenceSettingsChecks();
+
+    /** Runs the coalesced checks once the debounce window has elapsed. */
+    private final Runnable mEvaluateRunnable = this::evaluate;
 
     /**
      * The last setting known to be blocking alarms; {@code null} indicates no settings are
@@ -77,8 +107,11 @@ final class SilentSettingsModel {
      */
     private SilentSetting mSilentSetting;
 
-    /** The background task that checks the device system settings that influence alarm firing. */
-    private CheckSilenceSettingsTask mCheckSilenceSettingsTask;
+    /** The checks requested since the last evaluation was started; main thread only. */
+    private int mPendingChecks;
+
+    /** Incremented per evaluation so that results of superseded evaluations are discarded. */
+    private int mGeneration;
 
     SilentSettingsModel(Context context, NotificationModel notificationModel) {
         mContext = context;
@@ -89,9 +122,10 @@ final class SilentSettingsModel {
 
         // Watch for changes to the settings that may silence alarms.
         final ContentResolver cr = context.getContentResolver();
-        final ContentObserver contentChangeWatcher = new ContentChangeWatcher();
-        cr.registerContentObserver(VOLUME_URI, false, contentChangeWatcher);
-        cr.registerContentObserver(DEFAULT_ALARM_ALERT_URI, false, contentChangeWatcher);
+        cr.registerContentObserver(VOLUME_URI, false,
+                new ContentChangeWatcher(CHECK_ALARM_VOLUME));
+        cr.registerContentObserver(DEFAULT_ALARM_ALERT_URI, false,
+                new ContentChangeWatcher(CHECK_ALARM_RINGTONE));
 
         final IntentFilter filter = new IntentFilter(ACTION_INTERRUPTION_FILTER_CHANGED);
         context.registerReceiver(new DoNotDisturbChangeReceiver(), filter);
@@ -101,30 +135,62 @@ final class SilentSettingsModel {
         mListeners.add(listener);
     }
 
+    void addSilentSettingsListener(OnSilentSettingsListener listener, Executor executor) {
+        mListeners.add(listener, executor);
+    }
+
     void removeSilentSettingsListener(OnSilentSettingsListener listener) {
         mListeners.remove(listener);
     }
 
     /**
-     * If the app is in the foreground, start a task to determine if any device setting will block
-     * alarms from firing. If the app is in the background, clear any results from the last time
-     * those settings were inspected.
+     * If the app is in the foreground, schedule a re-evaluation of every device setting that may
+     * block alarms from firing. If the app is in the background, clear any results from the last
+     * time those settings were inspected.
      */
     void updateSilentState() {
-        // Cancel any task in flight, the result is no longer relevant.
-        if (mCheckSilenceSettingsTask != null) {
-            mCheckSilenceSettingsTask.cancel();
-            mCheckSilenceSettingsTask = null;
-        }
+        requestChecks(CHECK_ALL);
+    }
 
-        if (mNotificationModel.isApplicationInForeground()) {
-            mCheckSilenceSettingsTask = new CheckSilenceSettingsTask();
-            mCheckSilenceSettingsTask.execute();
-        } else {
+    /**
+     * @param checks the bits of the checks whose inputs may have changed
+     */
+    private void requestChecks(int checks) {
+        if (!mNotificationModel.isApplicationInForeground()) {
+            // Discard pending work and any result still in flight; it is no longer relevant.
+            mMainHandler.removeCallbacks(mEvaluateRunnable);
+            mPendingChecks = 0;
+            mGeneration++;
             setSilentState(null);
+            return;
+        }
+
+        final boolean evaluationScheduled = mPendingChecks != 0;
+        mPendingChecks |= checks;
+        if (!evaluationScheduled) {
+            mMainHandler.postDelayed(mEvaluateRunnable, EVALUATION_DELAY_MS);
         }
     }
 
+    /**
+     * Hands the coalesced checks to the background thread and publishes the result on the main
+     * thread unless a newer evaluation has since been started.
+     */
+    private void evaluate() {
+        final int checks = mPendingChecks;
+        final int generation = ++mGeneration;
+        mPendingChecks = 0;
+
+        mExecutor.execute(() -> {
+            final SilentSetting silentSetting = mChecks.refresh(checks);
+            mMainHandler.post(() -> {
+                if (generation == mGeneration) {
+                    setSilentState(silentSetting);
+                }
+            });
+        });
+    }
+
     /**
      * @param silentSetting the latest notion of which setting is suppressing alarms; {@code null}
      *      if no settings are suppressing alarms
@@ -133,47 +199,49 @@ final class SilentSettingsModel {
         if (mSilentSetting != silentSetting) {
             mSilentSetting = silentSetting;
 
-            for (OnSilentSettingsListener listener : mListeners) {
-                listener.onSilentSettingsChange(silentSetting);
-            }
+            mListeners.dispatch(SILENT_SETTINGS_CHANGED, silentSetting, null);
         }
     }
 
     /**
-     * This task inspects a variety of system settings that can prevent alarms from firing or the
-     * associated ringtone from playing. If any of them would prevent an alarm from firing or
-     * making noise, a description of the setting is reported to this model on the main thread.
+     * Inspects a variety of system settings that can prevent alarms from firing or the associated
+     * ringtone from playing. The result of each check is retained so that only the checks whose
+     * inputs changed are re-run. Instances are confined to the background executor thread.
      */
-    private final class CheckSilenceSettingsTask {
-        final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
-        final Handler mHandler = new Handler(Looper.getMainLooper());
-
-        private void execute() {
-            mExecutor.execute(() -> {
-                final SilentSetting silentSetting;
-                if (isDoNotDisturbBlockingAlarms()) {
-                    silentSetting = SilentSetting.DO_NOT_DISTURB;
-                } else if (isAlarmStreamMuted()) {
-                    silentSetting = SilentSetting.MUTED_VOLUME;
-                } else if (isSystemAlarmRingtoneSilent()) {
-                    silentSetting = SilentSetting.SILENT_RINGTONE;
-                } else if (isAppNotificationBlocked()) {
-                    silentSetting = SilentSetting.BLOCKED_NOTIFICATIONS;
-                } else {
-                    silentSetting = null;
-                }
-
-                mHandler.post(() -> {
-                    if (mCheckSilenceSettingsTask == this) {
-                        mCheckSilenceSettingsTask = null;
-                        setSilentState(silentSetting);
-                    }
-                });
-            });
-        }
+    private final class SilenceSettingsChecks {
+        private boolean mDoNotDisturbBlockingAlarms;
+        private boolean mAlarmStreamMuted;
+        private boolean mSystemAlarmRingtoneSilent;
+        private boolean mAppNotificationBlocked;
+
+        /**
+         * @param checks the bits of the checks to re-run
+         * @return the setting suppressing alarms; {@code null} if no settings are suppressing alarms
+         */
+        private SilentSetting refresh(int checks) {
+            if ((checks & CHECK_DO_NOT_DISTURB) != 0) {
+                mDoNotDisturbBlockingAlarms = isDoNotDisturbBlockingAlarms();
+            }
+            if ((checks & CHECK_ALARM_VOLUME) != 0) {
+                mAlarmStreamMuted = isAlarmStreamMuted();
+            }
+            if ((checks & CHECK_ALARM_RINGTONE) != 0) {
+                mSystemAlarmRingtoneSilent = isSystemAlarmRingtoneSilent();
+            }
+            if ((checks & CHECK_NOTIFICATIONS) != 0) {
+                mAppNotificationBlocked = isAppNotificationBlocked();
+            }
 
-        private void cancel() {
-            mExecutor.shutdownNow();
+            if (mDoNotDisturbBlockingAlarms) {
+                return SilentSetting.DO_NOT_DISTURB;
+            } else if (mAlarmStreamMuted) {
+                return SilentSetting.MUTED_VOLUME;
+            } else if (mSystemAlarmRingtoneSilent) {
+                return SilentSetting.SILENT_RINGTONE;
+            } else if (mAppNotificationBlocked) {
+                return SilentSetting.BLOCKED_NOTIFICATIONS;
+            }
+            return null;
         }
 
         private boolean isDoNotDisturbBlockingAlarms() {
@@ -218,13 +286,18 @@ final class SilentSettingsModel {
      * Observe changes to specific URI for settings that can silence firing alarms.
      */
     private final class ContentChangeWatcher extends ContentObserver {
-        private ContentChangeWatcher() {
-            super(new Handler(Looper.myLooper()));
+
+        /** The checks affected by a change to the observed URI. */
+        private final int mChecks;
+
+        private ContentChangeWatcher(int checks) {
+            super(new Handler(Looper.getMainLooper()));
+            mChecks = checks;
         }
 
         @Override
         public void onChange(boolean selfChange) {
-            updateSilentState();
+            requestChecks(mChecks);
         }
     }
 
@@ -234,7 +307,7 @@ final class SilentSettingsModel {
     private final class DoNotDisturbChangeReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
-            updateSilentState();
+            requestChecks(CHECK_DO_NOT_DISTURB);
         }
     }
 }
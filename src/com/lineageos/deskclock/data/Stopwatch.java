@@ -29,10 +29,17 @@ public final class Stopwatch {
 
     public enum State { RESET, RUNNING, PAUSED }
 
+    /** The id of the stopwatch displayed by the stopwatch tab; it always exists. */
+    public static final int PRIMARY_ID = 0;
+
     static final long UNUSED = Long.MIN_VALUE;
 
-    /** The single, immutable instance of a reset stopwatch. */
-    private static final Stopwatch RESET_STOPWATCH = new Stopwatch(RESET, UNUSED, UNUSED, 0);
+    /** The single, immutable instance of the reset primary stopwatch. */
+    private static final Stopwatch RESET_STOPWATCH =
+            new Stopwatch(PRIMARY_ID, RESET, UNUSED, UNUSED, 0);
+
+    /** A unique identifier for the stopwatch. */
+    private final int mId;
 
     /** Current state of this stopwatch. */
     private final State mState;
@@ -46,13 +53,17 @@ public final class Stopwatch {
     /** Elapsed time in ms this stopwatch has accumulated while running. */
     private final long mAccumulatedTime;
 
-    Stopwatch(State state, long lastStartTime, long lastWallClockTime, long accumulatedTime) {
+    Stopwatch(int id, State state, long lastStartTime, long lastWallClockTime,
+            long accumulatedTime) {
+        mId = id;
         mState = state;
         mLastStartTime = lastStartTime;
         mLastStartWallClockTime = lastWallClockTime;
         mAccumulatedTime = accumulatedTime;
     }
 
+    public int getId() { return mId; }
+    public boolean isPrimary() { return mId == PRIMARY_ID; }
     public State getState() { return mState; }
     public long getLastStartTime() { return mLastStartTime; }
     public long getLastWallClockTime() { return mLastStartWallClockTime; }
@@ -90,7 +101,7 @@ public final class Stopwatch {
             return this;
         }
 
-        return new Stopwatch(RUNNING, now(), wallClock(), getTotalTime());
+        return new Stopwatch(mId, RUNNING, now(), wallClock(), getTotalTime());
     }
 
     /**
@@ -101,14 +112,26 @@ public final class Stopwatch {
             return this;
         }
 
-        return new Stopwatch(PAUSED, UNUSED, UNUSED, getTotalTime());
+        return new Stopwatch(mId, PAUSED, UNUSED, UNUSED, getTotalTime());
     }
 
     /**
      * @return a copy of this stopwatch that is reset
      */
     Stopwatch reset() {
-        return RESET_STOPWATCH;
+        if (mState == RESET) {
+            return this;
+        }
+
+        return create(mId);
+    }
+
+    /**
+     * @param id the id of the stopwatch
+     * @return a reset stopwatch with the given {@code id}
+     */
+    static Stopwatch create(int id) {
+        return id == PRIMARY_ID ? RESET_STOPWATCH : new Stopwatch(id, RESET, UNUSED, UNUSED, 0);
     }
 
     /**
@@ -125,7 +148,7 @@ public final class Stopwatch {
         // Avoid negative time deltas. They can happen in practice, but they can't be used. Simply
         // update the recorded times and proceed with no change in accumulated time.
         final long delta = Math.max(0, wallClockTime - mLastStartWallClockTime);
-        return new Stopwatch(mState, timeSinceBoot, wallClockTime, mAccumulatedTime + delta);
+        return new Stopwatch(mId, mState, timeSinceBoot, wallClockTime, mAccumulatedTime + delta);
     }
 
     /**
@@ -146,6 +169,6 @@ public final class Stopwatch {
             // updateAfterReboot() can successfully correct the data at a later time.
             return this;
         }
-        return new Stopwatch(mState, timeSinceBoot, wallClockTime, mAccumulatedTime + delta);
+        return new Stopwatch(mId, mState, timeSinceBoot, wallClockTime, mAccumulatedTime + delta);
     }
 }
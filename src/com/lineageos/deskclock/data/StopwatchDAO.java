@@ -23,15 +23,25 @@ import android.content.SharedPreferences;
 import com.lineageos.deskclock.data.Stopwatch.State;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * This class encapsulates the transfer of data between {@link Stopwatch} and {@link Lap} domain
- * objects and their permanent storage in {@link SharedPreferences}.
+ * This class encapsulates the transfer of data between {@link Stopwatch} domain objects and their
+ * permanent storage in {@link SharedPreferences}. Stopwatches are indexed by id. Laps are recorded
+ * by {@link LapStore}.
  */
 final class StopwatchDAO {
 
+    /** Key to a preference that stores the set of ids of stopwatches other than the primary. */
+    private static final String STOPWATCH_IDS = "sw_ids";
+
+    /** Key to a preference that stores the id to assign to the next stopwatch. */
+    private static final String NEXT_STOPWATCH_ID = "sw_next_id";
+
     /** Key to a preference that stores the state of the stopwatch. */
     private static final String STATE = "sw_state";
 
@@ -53,92 +63,152 @@ final class StopwatchDAO {
     private StopwatchDAO() {}
 
     /**
-     * @return the stopwatch from permanent storage or a reset stopwatch if none exists
+     * @return the stopwatches from permanent storage ordered by id; the primary stopwatch is
+     *      always present, reset if it was never stored
      */
-    static Stopwatch getStopwatch(SharedPreferences prefs) {
-        final int stateIndex = prefs.getInt(STATE, RESET.ordinal());
-        final State state = State.values()[stateIndex];
-        final long lastStartTime = prefs.getLong(LAST_START_TIME, Stopwatch.UNUSED);
-        final long lastWallClockTime = prefs.getLong(LAST_WALL_CLOCK_TIME, Stopwatch.UNUSED);
-        final long accumulatedTime = prefs.getLong(ACCUMULATED_TIME, 0);
-        Stopwatch s = new Stopwatch(state, lastStartTime, lastWallClockTime, accumulatedTime);
+    static List<Stopwatch> getStopwatches(SharedPreferences prefs) {
+        final Set<String> stopwatchIds = getStopwatchIds(prefs);
+        final int[] ids = new int[stopwatchIds.size() + 1];
+        int count = 0;
+        ids[count++] = Stopwatch.PRIMARY_ID;
+        for (String stopwatchId : stopwatchIds) {
+            ids[count++] = Integer.parseInt(stopwatchId);
+        }
+        Arrays.sort(ids);
 
-        // If the stopwatch reports an illegal (negative) amount of time, remove the bad data.
-        if (s.getTotalTime() < 0) {
-            s = s.reset();
-            setStopwatch(prefs, s);
+        final List<Stopwatch> stopwatches = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            stopwatches.add(getStopwatch(prefs, id));
         }
-        return s;
+        return stopwatches;
     }
 
     /**
-     * @param stopwatch the last state of the stopwatch
+     * @return a new reset stopwatch with a newly assigned id
      */
-    static void setStopwatch(SharedPreferences prefs, Stopwatch stopwatch) {
+    static Stopwatch addStopwatch(SharedPreferences prefs) {
         final SharedPreferences.Editor editor = prefs.edit();
 
-        if (stopwatch.isReset()) {
-            editor.remove(STATE)
-                    .remove(LAST_START_TIME)
-                    .remove(LAST_WALL_CLOCK_TIME)
-                    .remove(ACCUMULATED_TIME);
+        // Fetch the next stopwatch id; the primary stopwatch owns id 0.
+        final int id = Math.max(prefs.getInt(NEXT_STOPWATCH_ID, 1), 1);
+        editor.putInt(NEXT_STOPWATCH_ID, id + 1);
+
+        // Add the new stopwatch id to the set of all stopwatch ids.
+        final Set<String> stopwatchIds = new HashSet<>(getStopwatchIds(prefs));
+        stopwatchIds.add(String.valueOf(id));
+        editor.putStringSet(STOPWATCH_IDS, stopwatchIds);
+
+        editor.apply();
+
+        return Stopwatch.create(id);
+    }
+
+    /**
+     * @param id the id of the stopwatch to be removed; the primary stopwatch cannot be removed
+     */
+    static void removeStopwatch(SharedPreferences prefs, int id) {
+        final SharedPreferences.Editor editor = prefs.edit();
+
+        // Remove the stopwatch id from the set of all stopwatch ids.
+        final Set<String> stopwatchIds = new HashSet<>(getStopwatchIds(prefs));
+        stopwatchIds.remove(String.valueOf(id));
+        if (stopwatchIds.isEmpty()) {
+            editor.remove(STOPWATCH_IDS);
+            editor.remove(NEXT_STOPWATCH_ID);
         } else {
-            editor.putInt(STATE, stopwatch.getState().ordinal())
-                    .putLong(LAST_START_TIME, stopwatch.getLastStartTime())
-                    .putLong(LAST_WALL_CLOCK_TIME, stopwatch.getLastWallClockTime())
-                    .putLong(ACCUMULATED_TIME, stopwatch.getAccumulatedTime());
+            editor.putStringSet(STOPWATCH_IDS, stopwatchIds);
         }
 
+        removeFields(editor, id);
         editor.apply();
     }
 
     /**
-     * @return a list of recorded laps for the stopwatch
+     * Records the latest state of each of the given stopwatches in a single write.
+     *
+     * @param stopwatches the last states of the stopwatches
      */
-    static List<Lap> getLaps(SharedPreferences prefs) {
-        // Prepare the container to be filled with laps.
-        final int lapCount = prefs.getInt(LAP_COUNT, 0);
-        final List<Lap> laps = new ArrayList<>(lapCount);
-
-        long prevAccumulatedTime = 0;
+    static void setStopwatches(SharedPreferences prefs, Iterable<Stopwatch> stopwatches) {
+        final SharedPreferences.Editor editor = prefs.edit();
 
-        // Lap numbers are 1-based and so the are corresponding shared preference keys.
-        for (int lapNumber = 1; lapNumber <= lapCount; lapNumber++) {
-            // Look up the accumulated time for the lap.
-            final String lapAccumulatedTimeKey = LAP_ACCUMULATED_TIME + lapNumber;
-            final long accumulatedTime = prefs.getLong(lapAccumulatedTimeKey, 0);
+        for (Stopwatch stopwatch : stopwatches) {
+            final int id = stopwatch.getId();
+            if (stopwatch.isReset()) {
+                removeFields(editor, id);
+            } else {
+                editor.putInt(key(STATE, id), stopwatch.getState().ordinal())
+                        .putLong(key(LAST_START_TIME, id), stopwatch.getLastStartTime())
+                        .putLong(key(LAST_WALL_CLOCK_TIME, id), stopwatch.getLastWallClockTime())
+                        .putLong(key(ACCUMULATED_TIME, id), stopwatch.getAccumulatedTime());
+            }
+        }
 
-            // Lap time is the delta between accumulated time of this lap and prior lap.
-            final long lapTime = accumulatedTime - prevAccumulatedTime;
+        editor.apply();
+    }
 
-            // Create the lap instance from the data.
-            laps.add(new Lap(lapNumber, lapTime, accumulatedTime));
+    /**
+     * @return the stopwatch with the given {@code id} from permanent storage or a reset stopwatch
+     *      if none exists
+     */
+    private static Stopwatch getStopwatch(SharedPreferences prefs, int id) {
+        final int stateIndex = prefs.getInt(key(STATE, id), RESET.ordinal());
+        final State state = State.values()[stateIndex];
+        final long lastStartTime = prefs.getLong(key(LAST_START_TIME, id), Stopwatch.UNUSED);
+        final long lastWallClockTime =
+                prefs.getLong(key(LAST_WALL_CLOCK_TIME, id), Stopwatch.UNUSED);
+        final long accumulatedTime = prefs.getLong(key(ACCUMULATED_TIME, id), 0);
+        Stopwatch s = new Stopwatch(id, state, lastStartTime, lastWallClockTime, accumulatedTime);
 
-            // Update the accumulated time of the previous lap.
-            prevAccumulatedTime = accumulatedTime;
+        // If the stopwatch reports an illegal (negative) amount of time, remove the bad data.
+        if (s.getTotalTime() < 0) {
+            s = s.reset();
+            setStopwatches(prefs, Collections.singletonList(s));
         }
+        return s;
+    }
 
-        // Laps are stored in the order they were recorded; display order is the reverse.
-        Collections.reverse(laps);
+    private static void removeFields(SharedPreferences.Editor editor, int id) {
+        editor.remove(key(STATE, id))
+                .remove(key(LAST_START_TIME, id))
+                .remove(key(LAST_WALL_CLOCK_TIME, id))
+                .remove(key(ACCUMULATED_TIME, id));
+    }
+
+    /**
+     * The primary stopwatch predates support for multiple stopwatches and keeps its original
+     * keys; the keys of other stopwatches are suffixed with their id.
+     */
+    private static String key(String prefix, int id) {
+        return id == Stopwatch.PRIMARY_ID ? prefix : prefix + "_" + id;
+    }
 
-        return laps;
+    private static Set<String> getStopwatchIds(SharedPreferences prefs) {
+        return prefs.getStringSet(STOPWATCH_IDS, Collections.emptySet());
     }
 
     /**
-     * @param newLapCount the number of laps including the new lap
-     * @param accumulatedTime the amount of time accumulate by the stopwatch at the end of the lap
+     * Laps were formerly stored with one preference per lap; they are now kept in a
+     * {@link LapStore}. This reads laps stored the old way so that they can be migrated.
+     *
+     * @return the accumulated time at the end of each lap in the order they were recorded
      */
-    static void addLap(SharedPreferences prefs, int newLapCount, long accumulatedTime) {
-        prefs.edit()
-                .putInt(LAP_COUNT, newLapCount)
-                .putLong(LAP_ACCUMULATED_TIME + newLapCount, accumulatedTime)
-                .apply();
+    static long[] getLegacyLapTimes(SharedPreferences prefs) {
+        final int lapCount = prefs.getInt(LAP_COUNT, 0);
+        final long[] accumulatedTimes = new long[lapCount];
+
+        // Lap numbers are 1-based and so the are corresponding shared preference keys.
+        for (int lapNumber = 1; lapNumber <= lapCount; lapNumber++) {
+            accumulatedTimes[lapNumber - 1] =
+                    prefs.getLong(LAP_ACCUMULATED_TIME + lapNumber, 0);
+        }
+
+        return accumulatedTimes;
     }
 
     /**
-     * Remove the recorded laps for the stopwatch
+     * Remove the laps stored with one preference per lap.
      */
-    static void clearLaps(SharedPreferences prefs) {
+    static void clearLegacyLaps(SharedPreferences prefs) {
         final SharedPreferences.Editor editor = prefs.edit();
 
         final int lapCount = prefs.getInt(LAP_COUNT, 0);
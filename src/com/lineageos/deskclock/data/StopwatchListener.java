@@ -22,8 +22,10 @@ package com.lineageos.deskclock.data;
 public interface StopwatchListener {
 
     /**
-     * @param ignoredBefore the stopwatch state before the update
-     * @param after the stopwatch state after the update
+     * @param ignoredBefore the stopwatch state before the update; {@code null} if the stopwatch
+     *      was just added
+     * @param after the stopwatch state after the update; {@code null} if the stopwatch was
+     *      removed
      */
     void stopwatchUpdated(Stopwatch ignoredBefore, Stopwatch after);
 }
@@ -16,25 +16,39 @@
 
 package com.lineageos.deskclock.data;
 
-import android.app.Notification;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseArray;
 
 import androidx.annotation.VisibleForTesting;
 import androidx.core.app.NotificationManagerCompat;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * All {@link Stopwatch} data is accessed via this model.
  */
 final class StopwatchModel {
 
+    /** The event delivered to {@link StopwatchListener}s. */
+    private static final ListenerList.Event<StopwatchListener, Stopwatch, Stopwatch>
+            STOPWATCH_UPDATED = StopwatchListener::stopwatchUpdated;
+
+    /** The upper bound on recorded laps; 80 KB of lap data, which is read on the main thread. */
+    private static final int MAX_LAPS = 10_000;
+
+    /** The name of the file, in device protected storage, to which laps are appended. */
+    private static final String LAPS_FILE_NAME = "stopwatch_laps";
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
@@ -50,23 +64,43 @@ final class StopwatchModel {
     private final BroadcastReceiver mLocaleChangedReceiver = new LocaleChangedReceiver();
 
     /** The listeners to notify when the stopwatch or its laps change. */
-    private final List<StopwatchListener> mStopwatchListeners = new ArrayList<>();
+    private final ListenerList<StopwatchListener> mStopwatchListeners = new ListenerList<>();
 
     /** Delegate that builds platform-specific stopwatch notifications. */
     private final StopwatchNotificationBuilder mNotificationBuilder =
             new StopwatchNotificationBuilder();
 
-    /** The current state of the stopwatch. */
-    private Stopwatch mStopwatch;
+    /** Posts the stopwatch notification only when its content changes. */
+    private final NotificationPoster mNotificationPoster;
+
+    /** Receives an immutable copy of the stopwatch and laps after each change. */
+    private final ModelSnapshot.Publisher mSnapshotPublisher;
+
+    /** Writes stopwatch changes made before the posted save runs in a single batch. */
+    private final Handler mSaveHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSaveRunnable = this::saveStopwatches;
 
-    /** A mutable copy of the recorded stopwatch laps. */
-    private List<Lap> mLaps;
+    /** The current state of each stopwatch indexed by id; the primary stopwatch always exists. */
+    private SparseArray<Stopwatch> mStopwatches;
 
-    StopwatchModel(Context context, SharedPreferences prefs, NotificationModel notificationModel) {
+    /** Stopwatches changed since they were last written to storage, indexed by id. */
+    private final SparseArray<Stopwatch> mUnsavedStopwatches = new SparseArray<>();
+
+    /** An immutable list of all stopwatches; {@code null} until requested after a change. */
+    private List<Stopwatch> mStopwatchList;
+
+    /** The recorded stopwatch laps. */
+    private LapStore mLapStore;
+
+    StopwatchModel(Context context, SharedPreferences prefs, NotificationModel notificationModel,
+            ModelSnapshot.Publisher snapshotPublisher) {
         mContext = context;
         mPrefs = prefs;
         mNotificationModel = notificationModel;
+        mSnapshotPublisher = snapshotPublisher;
         mNotificationManager = NotificationManagerCompat.from(context);
+        mNotificationPoster = new NotificationPoster(mNotificationManager, "Stopwatch",
+                notificationModel.getStopwatchNotificationId());
 
         // Update stopwatch notification when locale changes.
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
@@ -80,6 +114,14 @@ final class StopwatchModel {
         mStopwatchListeners.add(stopwatchListener);
     }
 
+    /**
+     * @param stopwatchListener to be notified when stopwatch changes or laps are added
+     * @param executor runs each notification of the listener
+     */
+    void addStopwatchListener(StopwatchListener stopwatchListener, Executor executor) {
+        mStopwatchListeners.add(stopwatchListener, executor);
+    }
+
     /**
      * @param stopwatchListener to no longer be notified when stopwatch changes or laps are added
      */
@@ -88,70 +130,128 @@ final class StopwatchModel {
     }
 
     /**
-     * @return the current state of the stopwatch
+     * @return the current state of the primary stopwatch
      */
     Stopwatch getStopwatch() {
-        if (mStopwatch == null) {
-            mStopwatch = StopwatchDAO.getStopwatch(mPrefs);
+        return getStopwatches().get(Stopwatch.PRIMARY_ID);
+    }
+
+    /**
+     * @return the current state of the stopwatch with the given {@code id}; {@code null} if none
+     */
+    Stopwatch getStopwatch(int id) {
+        return getStopwatches().get(id);
+    }
+
+    /**
+     * @return an immutable list of all stopwatches ordered by id, starting with the primary
+     */
+    List<Stopwatch> getStopwatchList() {
+        if (mStopwatchList == null) {
+            final SparseArray<Stopwatch> stopwatches = getStopwatches();
+            final List<Stopwatch> list = new ArrayList<>(stopwatches.size());
+            for (int i = 0; i < stopwatches.size(); i++) {
+                list.add(stopwatches.valueAt(i));
+            }
+            mStopwatchList = Collections.unmodifiableList(list);
+        }
+
+        return mStopwatchList;
+    }
+
+    /**
+     * @return a new reset stopwatch
+     */
+    Stopwatch addStopwatch() {
+        final Stopwatch stopwatch = StopwatchDAO.addStopwatch(mPrefs);
+        getStopwatches().put(stopwatch.getId(), stopwatch);
+        mStopwatchList = null;
+
+        mStopwatchListeners.dispatch(STOPWATCH_UPDATED, null, stopwatch);
+        return stopwatch;
+    }
+
+    /**
+     * @param id the id of the stopwatch to remove; the primary stopwatch cannot be removed
+     */
+    void removeStopwatch(int id) {
+        final Stopwatch before = getStopwatch(id);
+        if (before == null || before.isPrimary()) {
+            return;
+        }
+
+        getStopwatches().remove(id);
+        mUnsavedStopwatches.remove(id);
+        mStopwatchList = null;
+        StopwatchDAO.removeStopwatch(mPrefs, id);
+
+        if (!mNotificationModel.isApplicationInForeground()) {
+            updateNotification();
         }
 
-        return mStopwatch;
+        mStopwatchListeners.dispatch(STOPWATCH_UPDATED, before, null);
     }
 
     /**
      * @param stopwatch the new state of the stopwatch
      */
     void setStopwatch(Stopwatch stopwatch) {
-        final Stopwatch before = getStopwatch();
-        if (before != stopwatch) {
-            StopwatchDAO.setStopwatch(mPrefs, stopwatch);
-            mStopwatch = stopwatch;
+        final Stopwatch before = getStopwatch(stopwatch.getId());
+        if (before != null && before != stopwatch) {
+            putStopwatch(stopwatch);
 
             // Refresh the stopwatch notification to reflect the latest stopwatch state.
             if (!mNotificationModel.isApplicationInForeground()) {
                 updateNotification();
             }
 
-            // Resetting the stopwatch implicitly clears the recorded laps.
-            if (stopwatch.isReset()) {
+            // Resetting the primary stopwatch implicitly clears the recorded laps.
+            if (stopwatch.isPrimary() && stopwatch.isReset()) {
                 clearLaps();
             }
 
             // Notify listeners of the stopwatch change.
-            for (StopwatchListener stopwatchListener : mStopwatchListeners) {
-                stopwatchListener.stopwatchUpdated(before, stopwatch);
-            }
+            mStopwatchListeners.dispatch(STOPWATCH_UPDATED, before, stopwatch);
         }
+    }
 
-        return;
+    /**
+     * Updates all stopwatches after the device has shutdown and restarted.
+     */
+    void updateAfterReboot() {
+        for (Stopwatch stopwatch : getStopwatchList()) {
+            setStopwatch(stopwatch.updateAfterReboot());
+        }
+    }
+
+    /**
+     * Updates all stopwatches after the device's time has changed.
+     */
+    void updateAfterTimeSet() {
+        for (Stopwatch stopwatch : getStopwatchList()) {
+            setStopwatch(stopwatch.updateAfterTimeSet());
+        }
     }
 
     /**
      * @return the laps recorded for this stopwatch
      */
     List<Lap> getLaps() {
-        return Collections.unmodifiableList(getMutableLaps());
+        return getLapStore().getLaps();
     }
 
     /**
      * @return a newly recorded lap completed now; {@code null} if no more laps can be added
      */
     Lap addLap() {
-        if (!mStopwatch.isRunning() || !canAddMoreLaps()) {
+        if (!getStopwatch().isRunning() || !canAddMoreLaps()) {
             return null;
         }
 
         final long totalTime = getStopwatch().getTotalTime();
-        final List<Lap> laps = getMutableLaps();
-
-        final int lapNumber = laps.size() + 1;
-        StopwatchDAO.addLap(mPrefs, lapNumber, totalTime);
-
-        final long prevAccumulatedTime = laps.isEmpty() ? 0 : laps.get(0).getAccumulatedTime();
-        final long lapTime = totalTime - prevAccumulatedTime;
-
-        final Lap lap = new Lap(lapNumber, lapTime, totalTime);
-        laps.add(0, lap);
+        final LapStore lapStore = getLapStore();
+        final Lap lap = lapStore.add(totalTime);
+        mSnapshotPublisher.publishLaps(lapStore.getLaps());
 
         // Refresh the stopwatch notification to reflect the latest stopwatch state.
         if (!mNotificationModel.isApplicationInForeground()) {
@@ -166,37 +266,31 @@ final class StopwatchModel {
      */
     @VisibleForTesting
     void clearLaps() {
-        StopwatchDAO.clearLaps(mPrefs);
-        getMutableLaps().clear();
+        final LapStore lapStore = getLapStore();
+        lapStore.clear();
+        mSnapshotPublisher.publishLaps(lapStore.getLaps());
     }
 
     /**
      * @return {@code true} iff more laps can be recorded
      */
     boolean canAddMoreLaps() {
-        return getLaps().size() < 98;
+        return getLapStore().size() < MAX_LAPS;
     }
 
     /**
      * @return the longest lap time of all recorded laps and the current lap
      */
     long getLongestLapTime() {
-        long maxLapTime = 0;
-
-        final List<Lap> laps = getLaps();
-        if (!laps.isEmpty()) {
-            // Compute the maximum lap time across all recorded laps.
-            for (Lap lap : getLaps()) {
-                maxLapTime = Math.max(maxLapTime, lap.getLapTime());
-            }
-
-            // Compare with the maximum lap time for the current lap.
-            final Stopwatch stopwatch = getStopwatch();
-            final long currentLapTime = stopwatch.getTotalTime() - laps.get(0).getAccumulatedTime();
-            maxLapTime = Math.max(maxLapTime, currentLapTime);
+        final LapStore lapStore = getLapStore();
+        if (lapStore.size() == 0) {
+            return 0;
         }
 
-        return maxLapTime;
+        // Compare the longest recorded lap, tracked as laps are added, with the current lap.
+        final Stopwatch stopwatch = getStopwatch();
+        final long currentLapTime = stopwatch.getTotalTime() - lapStore.getLastAccumulatedTime();
+        return Math.max(lapStore.getLongestLapTime(), currentLapTime);
     }
 
     /**
@@ -208,8 +302,7 @@ final class StopwatchModel {
      *      negative elapsed times are normalized to {@code 0}
      */
     long getCurrentLapTime(long time) {
-        final Lap previousLap = getLaps().get(0);
-        final long currentLapTime = time - previousLap.getAccumulatedTime();
+        final long currentLapTime = time - getLapStore().getLastAccumulatedTime();
         return Math.max(0, currentLapTime);
     }
 
@@ -217,26 +310,96 @@ final class StopwatchModel {
      * Updates the notification to reflect the latest state of the stopwatch and recorded laps.
      */
     void updateNotification() {
-        final Stopwatch stopwatch = getStopwatch();
+        // A single notification represents all stopwatches. It displays the primary stopwatch if
+        // it is in use, otherwise the first stopwatch in use, and counts the others.
+        Stopwatch stopwatch = null;
+        int othersCount = 0;
+        final SparseArray<Stopwatch> stopwatches = getStopwatches();
+        for (int i = 0; i < stopwatches.size(); i++) {
+            final Stopwatch s = stopwatches.valueAt(i);
+            if (!s.isReset()) {
+                if (stopwatch == null) {
+                    stopwatch = s;
+                } else {
+                    othersCount++;
+                }
+            }
+        }
 
-        // Notification should be hidden if the stopwatch has no time or the app is open.
-        if (stopwatch.isReset() || mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getStopwatchNotificationId());
+        // Notification should be hidden if no stopwatch has time or the app is open.
+        if (stopwatch == null || mNotificationModel.isApplicationInForeground()) {
+            mNotificationPoster.cancel();
             return;
         }
 
-        // Otherwise build and post a notification reflecting the latest stopwatch state.
-        final Notification notification =
-                mNotificationBuilder.build(mContext, mNotificationModel, stopwatch);
-        mNotificationManager.notify(mNotificationModel.getStopwatchNotificationId(), notification);
+        // Otherwise post a notification reflecting the latest stopwatch state if it changed.
+        final Stopwatch displayed = stopwatch;
+        final int others = othersCount;
+        final Object fingerprint = StopwatchNotificationBuilder.fingerprint(displayed, others,
+                getLapStore().size(), canAddMoreLaps());
+        mNotificationPoster.post(fingerprint,
+                () -> mNotificationBuilder.build(mContext, mNotificationModel, displayed, others));
+    }
+
+    private SparseArray<Stopwatch> getStopwatches() {
+        if (mStopwatches == null) {
+            final List<Stopwatch> stopwatches = StopwatchDAO.getStopwatches(mPrefs);
+            mStopwatches = new SparseArray<>(stopwatches.size());
+            for (Stopwatch stopwatch : stopwatches) {
+                mStopwatches.put(stopwatch.getId(), stopwatch);
+            }
+            mSnapshotPublisher.publishStopwatch(mStopwatches.get(Stopwatch.PRIMARY_ID));
+        }
+
+        return mStopwatches;
     }
 
-    private List<Lap> getMutableLaps() {
-        if (mLaps == null) {
-            mLaps = StopwatchDAO.getLaps(mPrefs);
+    /**
+     * Records the new state of a stopwatch in memory immediately and schedules it to be written
+     * along with any other stopwatches changed before the save posted to the main looper by the
+     * first unsaved change runs, i.e. those changed while handling the current message.
+     */
+    private void putStopwatch(Stopwatch stopwatch) {
+        final int id = stopwatch.getId();
+        getStopwatches().put(id, stopwatch);
+        mStopwatchList = null;
+        if (stopwatch.isPrimary()) {
+            mSnapshotPublisher.publishStopwatch(stopwatch);
+        }
+
+        if (mUnsavedStopwatches.size() == 0) {
+            mSaveHandler.post(mSaveRunnable);
+        }
+        mUnsavedStopwatches.put(id, stopwatch);
+    }
+
+    private void saveStopwatches() {
+        final List<Stopwatch> unsaved = new ArrayList<>(mUnsavedStopwatches.size());
+        for (int i = 0; i < mUnsavedStopwatches.size(); i++) {
+            unsaved.add(mUnsavedStopwatches.valueAt(i));
+        }
+        mUnsavedStopwatches.clear();
+        StopwatchDAO.setStopwatches(mPrefs, unsaved);
+    }
+
+    private LapStore getLapStore() {
+        if (mLapStore == null) {
+            final File dir = mContext.createDeviceProtectedStorageContext().getFilesDir();
+            mLapStore = LapStore.load(new File(dir, LAPS_FILE_NAME), MAX_LAPS);
+
+            // Move any laps stored with one preference per lap into the lap store.
+            final long[] legacyLapTimes = StopwatchDAO.getLegacyLapTimes(mPrefs);
+            if (legacyLapTimes.length > 0) {
+                if (mLapStore.size() == 0) {
+                    mLapStore.addAll(legacyLapTimes);
+                }
+                StopwatchDAO.clearLegacyLaps(mPrefs);
+            }
+
+            mSnapshotPublisher.publishLaps(mLapStore.getLaps());
         }
 
-        return mLaps;
+        return mLapStore;
     }
 
     /**
@@ -245,6 +408,8 @@ final class StopwatchModel {
     private final class LocaleChangedReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
+            mNotificationBuilder.clearCache();
+            mNotificationPoster.invalidate();
             updateNotification();
         }
     }
@@ -27,6 +27,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.res.Resources;
 import android.os.SystemClock;
+import android.util.ArrayMap;
 import android.widget.RemoteViews;
 
 import androidx.annotation.StringRes;
@@ -43,22 +44,62 @@ import com.lineageos.deskclock.events.Events;
 import com.lineageos.deskclock.stopwatch.StopwatchService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Builds notification to reflect the latest state of the stopwatch and recorded laps.
+ * Builds notification to reflect the latest state of the stopwatches and recorded laps. A single
+ * notification displays one stopwatch and counts the others in use.
  */
 class StopwatchNotificationBuilder {
 
-    public Notification build(Context context, NotificationModel nm, Stopwatch stopwatch) {
-        @StringRes final int eventLabel = R.string.label_notification;
+    /**
+     * Actions are cached by intent action and stopwatch id so that repeated builds do not each pay
+     * for a binder call to create an identical {@link PendingIntent}.
+     */
+    private final Map<String, Action> mActions = new ArrayMap<>();
+
+    /** The cached intent that loads the app when the notification is tapped. */
+    private PendingIntent mShowAppIntent;
+
+    /**
+     * @param stopwatch the stopwatch to be displayed
+     * @param othersCount the number of other stopwatches in use
+     * @param lapCount the number of recorded laps
+     * @param canAddMoreLaps {@code true} iff more laps can be recorded
+     * @return an object whose equality reflects the visible content of the notification built by
+     *      {@link #build}
+     */
+    static Object fingerprint(Stopwatch stopwatch, int othersCount, int lapCount,
+            boolean canAddMoreLaps) {
+        // The chronometer base is stable while running and frozen while paused.
+        final long time = stopwatch.isRunning()
+                ? stopwatch.getLastStartTime() - stopwatch.getAccumulatedTime()
+                : stopwatch.getTotalTime();
+        return Arrays.asList(stopwatch.getId(), stopwatch.getState(), time, othersCount,
+                lapCount, canAddMoreLaps);
+    }
+
+    /**
+     * Discards cached actions and intents, e.g. because the locale changed.
+     */
+    void clearCache() {
+        mActions.clear();
+        mShowAppIntent = null;
+    }
 
+    public Notification build(Context context, NotificationModel nm, Stopwatch stopwatch,
+            int othersCount) {
         // Intent to load the app when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(StopwatchService.ACTION_SHOW_STOPWATCH)
-                .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
+        if (mShowAppIntent == null) {
+            final Intent showApp = new Intent(context, DeskClock.class)
+                    .setAction(StopwatchService.ACTION_SHOW_STOPWATCH)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
 
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+            mShowAppIntent = Utils.pendingActivityIntent(context, showApp);
+        }
+        final PendingIntent pendingShowApp = mShowAppIntent;
 
         // Compute some values required below.
         final boolean running = stopwatch.isRunning();
@@ -70,30 +111,22 @@ class StopwatchNotificationBuilder {
         content.setChronometer(R.id.chronometer, base, null, running);
 
         final List<Action> actions = new ArrayList<>(2);
+        final int id = stopwatch.getId();
 
         if (running) {
             // Left button: Pause
-            final Intent pause = new Intent(context, StopwatchService.class)
-                    .setAction(StopwatchService.ACTION_PAUSE_STOPWATCH)
-                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-            final CharSequence title1 = res.getText(R.string.sw_pause_button);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, pause);
-            actions.add(new Action.Builder(null, title1, intent1).build());
-
-            // Right button: Add Lap
-            if (DataModel.getDataModel().canAddMoreLaps()) {
-                final Intent lap = new Intent(context, StopwatchService.class)
-                        .setAction(StopwatchService.ACTION_LAP_STOPWATCH)
-                        .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-                final CharSequence title2 = res.getText(R.string.sw_lap_button);
-                final PendingIntent intent2 = Utils.pendingServiceIntent(context, lap);
-                actions.add(new Action.Builder(null, title2, intent2).build());
+            actions.add(getServiceAction(context, StopwatchService.ACTION_PAUSE_STOPWATCH, id,
+                    R.string.sw_pause_button));
+
+            // Right button: Add Lap; laps are only recorded for the primary stopwatch.
+            final boolean primary = stopwatch.isPrimary();
+            if (primary && DataModel.getDataModel().canAddMoreLaps()) {
+                actions.add(getServiceAction(context, StopwatchService.ACTION_LAP_STOPWATCH, id,
+                        R.string.sw_lap_button));
             }
 
             // Show the current lap number if any laps have been recorded.
-            final int lapCount = DataModel.getDataModel().getLaps().size();
+            final int lapCount = primary ? DataModel.getDataModel().getLaps().size() : 0;
             if (lapCount > 0) {
                 final int lapNumber = lapCount + 1;
                 final String lap = res.getString(R.string.sw_notification_lap_number, lapNumber);
@@ -104,22 +137,12 @@ class StopwatchNotificationBuilder {
             }
         } else {
             // Left button: Start
-            final Intent start = new Intent(context, StopwatchService.class)
-                    .setAction(StopwatchService.ACTION_START_STOPWATCH)
-                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-            final CharSequence title1 = res.getText(R.string.sw_start_button);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, start);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+            actions.add(getServiceAction(context, StopwatchService.ACTION_START_STOPWATCH, id,
+                    R.string.sw_start_button));
 
             // Right button: Reset (dismisses notification and resets stopwatch)
-            final Intent reset = new Intent(context, StopwatchService.class)
-                    .setAction(StopwatchService.ACTION_RESET_STOPWATCH)
-                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-            final CharSequence title2 = res.getText(R.string.sw_reset_button);
-            final PendingIntent intent2 = Utils.pendingServiceIntent(context, reset);
-            actions.add(new Action.Builder(null, title2, intent2).build());
+            actions.add(getServiceAction(context, StopwatchService.ACTION_RESET_STOPWATCH, id,
+                    R.string.sw_reset_button));
 
             // Indicate the stopwatch is paused.
             content.setTextViewText(R.id.state, res.getString(R.string.swn_paused));
@@ -139,6 +162,12 @@ class StopwatchNotificationBuilder {
                         .setColor(ContextCompat.getColor(context, R.color.default_background))
                         .setGroup(nm.getStopwatchNotificationGroupKey());
 
+        // Count the other stopwatches in use.
+        if (othersCount > 0) {
+            notification.setSubText(res.getQuantityString(
+                    R.plurals.sw_notification_other_stopwatches, othersCount, othersCount));
+        }
+
         for (Action action : actions) {
             notification.addAction(action);
         }
@@ -146,4 +175,28 @@ class StopwatchNotificationBuilder {
         NotificationUtils.createChannel(context, STOPWATCH_NOTIFICATION_CHANNEL_ID);
         return notification.build();
     }
+
+    /**
+     * @return an action with the given title that sends {@code action} for the stopwatch with the
+     *      given {@code id} to the {@link StopwatchService}; reused across builds
+     */
+    private Action getServiceAction(Context context, String action, int id,
+            @StringRes int titleId) {
+        final String key = action + id;
+        Action result = mActions.get(key);
+        if (result == null) {
+            final Intent intent = new Intent(context, StopwatchService.class)
+                    .setAction(action)
+                    // Keeps the pending intents of different stopwatches distinct.
+                    .setIdentifier(String.valueOf(id))
+                    .putExtra(StopwatchService.EXTRA_STOPWATCH_ID, id)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+
+            final CharSequence title = context.getText(titleId);
+            final PendingIntent pendingIntent = Utils.pendingServiceIntent(context, intent);
+            result = new Action.Builder(null, title, pendingIntent).build();
+            mActions.put(key, result);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.content.Context;
+
+import com.lineageos.deskclock.AsyncHandler;
+
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caches the sorted {@link TimeZones} offered as home time zones. The table depends only on the
+ * locale, which names and formats the zones, and on the offsets of the zones, which order them.
+ * It is therefore reused until the locale changes or any of the zones reaches its next offset
+ * transition, as reported by {@link ZoneTransitionCache}. May be used from any thread.
+ */
+final class TimeZonesCache {
+
+    /** The most recently built table; {@code null} if none has been built since the last clear. */
+    private static volatile Entry sEntry;
+
+    private TimeZonesCache() {}
+
+    /**
+     * @param time the time at which the offsets of the zones are computed
+     * @return the time zones in effect at {@code time} for the current locale
+     */
+    static TimeZones get(Context context, long time) {
+        final Locale locale = Locale.getDefault();
+        final Entry cached = sEntry;
+        if (cached != null && cached.isValid(locale, time)) {
+            return cached.mTimeZones;
+        }
+
+        final Entry entry = build(context, locale, time);
+        sEntry = entry;
+        return entry.mTimeZones;
+    }
+
+    /**
+     * Builds the time zones in the background if they are not already cached.
+     *
+     * @param time the time at which the offsets of the zones are computed
+     * @return a future completed with the time zones on the {@link AsyncHandler} thread
+     */
+    static CompletableFuture<TimeZones> load(Context context, long time) {
+        final CompletableFuture<TimeZones> future = new CompletableFuture<>();
+        final Entry cached = sEntry;
+        if (cached != null && cached.isValid(Locale.getDefault(), time)) {
+            future.complete(cached.mTimeZones);
+            return future;
+        }
+
+        final Context appContext = context.getApplicationContext();
+        AsyncHandler.post(() -> {
+            try {
+                future.complete(get(appContext, time));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Forget the cached time zones, e.g. after the time zone rules change.
+     */
+    static void clear() {
+        sEntry = null;
+    }
+
+    private static Entry build(Context context, Locale locale, long time) {
+        final TimeZones timeZones = SettingsDAO.getTimeZones(context, time);
+
+        // The order of the table holds until the first zone changes its offset.
+        long validUntil = Long.MAX_VALUE;
+        for (CharSequence id : timeZones.getTimeZoneIds()) {
+            final TimeZone zone = TimeZone.getTimeZone(id.toString());
+            validUntil = Math.min(validUntil, ZoneTransitionCache.getNextTransition(zone, time));
+        }
+
+        return new Entry(locale, time, validUntil, timeZones);
+    }
+
+    /**
+     * The time zones built for a locale and the span of time over which their offsets hold.
+     */
+    private static final class Entry {
+
+        private final Locale mLocale;
+
+        /** The time at which the table was built; earlier times may fall before a transition. */
+        private final long mValidFrom;
+
+        /** The first time at which any of the zones changes its offset. */
+        private final long mValidUntil;
+
+        private final TimeZones mTimeZones;
+
+        private Entry(Locale locale, long validFrom, long validUntil, TimeZones timeZones) {
+            mLocale = locale;
+            mValidFrom = validFrom;
+            mValidUntil = validUntil;
+            mTimeZones = timeZones;
+        }
+
+        private boolean isValid(Locale locale, long time) {
+            return mLocale.equals(locale) && mValidFrom <= time && time < mValidUntil;
+        }
+    }
+}
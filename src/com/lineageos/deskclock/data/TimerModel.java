@@ -50,6 +50,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * All {@link Timer} data is accessed via this model.
@@ -62,6 +63,14 @@ final class TimerModel {
      */
     private static final long MISSED_THRESHOLD = -MINUTE_IN_MILLIS;
 
+    /** Events delivered to {@link TimerListener}s. */
+    private static final ListenerList.Event<TimerListener, Timer, Timer> TIMER_ADDED =
+            (listener, timer, unused) -> listener.timerAdded(timer);
+    private static final ListenerList.Event<TimerListener, Timer, Timer> TIMER_UPDATED =
+            TimerListener::timerUpdated;
+    private static final ListenerList.Event<TimerListener, Timer, Timer> TIMER_REMOVED =
+            (listener, timer, unused) -> listener.timerRemoved(timer);
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
@@ -93,11 +102,20 @@ final class TimerModel {
     private final OnSharedPreferenceChangeListener mPreferenceListener = new PreferenceListener();
 
     /** The listeners to notify when a timer is added, updated or removed. */
-    private final List<TimerListener> mTimerListeners = new ArrayList<>();
+    private final ListenerList<TimerListener> mTimerListeners = new ListenerList<>();
 
     /** Delegate that builds platform-specific timer notifications. */
     private final TimerNotificationBuilder mNotificationBuilder = new TimerNotificationBuilder();
 
+    /** Posts the notification for running/paused timers only when its content changes. */
+    private final NotificationPoster mUnexpiredNotificationPoster;
+
+    /** Posts the notification for missed timers only when its content changes. */
+    private final NotificationPoster mMissedNotificationPoster;
+
+    /** Receives an immutable copy of the timers after each change. */
+    private final ModelSnapshot.Publisher mSnapshotPublisher;
+
     /**
      * The ids of expired timers for which the ringer is ringing. Not all expired timers have their
      * ids in this collection. If a timer was already expired when the app was started its id will
@@ -129,13 +147,19 @@ final class TimerModel {
     private Service mService;
 
     TimerModel(Context context, SharedPreferences prefs, SettingsModel settingsModel,
-            RingtoneModel ringtoneModel, NotificationModel notificationModel) {
+            RingtoneModel ringtoneModel, NotificationModel notificationModel,
+            ModelSnapshot.Publisher snapshotPublisher) {
         mContext = context;
+        mSnapshotPublisher = snapshotPublisher;
         mPrefs = prefs;
         mSettingsModel = settingsModel;
         mRingtoneModel = ringtoneModel;
         mNotificationModel = notificationModel;
         mNotificationManager = NotificationManagerCompat.from(context);
+        mUnexpiredNotificationPoster = new NotificationPoster(mNotificationManager,
+                "UnexpiredTimers", notificationModel.getUnexpiredTimerNotificationId());
+        mMissedNotificationPoster = new NotificationPoster(mNotificationManager,
+                "MissedTimers", notificationModel.getMissedTimerNotificationId());
 
         mAlarmManager = (AlarmManager) mContext.getSystemService(Context.ALARM_SERVICE);
 
@@ -154,6 +178,14 @@ final class TimerModel {
         mTimerListeners.add(timerListener);
     }
 
+    /**
+     * @param timerListener to be notified when timers are added, updated and removed
+     * @param executor runs each notification of the listener
+     */
+    void addTimerListener(TimerListener timerListener, Executor executor) {
+        mTimerListeners.add(timerListener, executor);
+    }
+
     /**
      * @param timerListener to no longer be notified when timers are added, updated and removed
      */
@@ -221,15 +253,14 @@ final class TimerModel {
 
         // Add the timer to the cache.
         getMutableTimers().add(0, timer);
+        mSnapshotPublisher.publishTimers(mTimers);
 
         // Update the timer notification.
         updateNotification();
         // Heads-Up notification is unaffected by this change
 
         // Notify listeners of the change.
-        for (TimerListener timerListener : mTimerListeners) {
-            timerListener.timerAdded(timer);
-        }
+        mTimerListeners.dispatch(TIMER_ADDED, timer, null);
 
         return timer;
     }
@@ -474,6 +505,7 @@ final class TimerModel {
         if (mTimers == null) {
             mTimers = TimerDAO.getTimers(mPrefs);
             mTimers.sort(Timer.ID_COMPARATOR);
+            mSnapshotPublisher.publishTimers(mTimers);
         }
 
         return mTimers;
@@ -532,6 +564,7 @@ final class TimerModel {
 
         // Update the timer in the cache.
         final Timer oldTimer = timers.set(index, timer);
+        mSnapshotPublisher.publishTimers(timers);
 
         // Clear the cache of expired timers if the timer changed to/from expired.
         if (before.isExpired() || timer.isExpired()) {
@@ -549,9 +582,7 @@ final class TimerModel {
         updateRinger(before, timer);
 
         // Notify listeners of the change.
-        for (TimerListener timerListener : mTimerListeners) {
-            timerListener.timerUpdated(before, timer);
-        }
+        mTimerListeners.dispatch(TIMER_UPDATED, before, timer);
 
         return oldTimer;
     }
@@ -576,6 +607,7 @@ final class TimerModel {
         }
 
         timer = timers.remove(index);
+        mSnapshotPublisher.publishTimers(timers);
 
         // Clear the cache of expired timers if a new expired timer was added.
         if (timer.isExpired()) {
@@ -594,9 +626,7 @@ final class TimerModel {
         updateRinger(timer, null);
 
         // Notify listeners of the change.
-        for (TimerListener timerListener : mTimerListeners) {
-            timerListener.timerRemoved(timer);
-        }
+        mTimerListeners.dispatch(TIMER_REMOVED, timer, null);
     }
 
     /**
@@ -730,7 +760,7 @@ final class TimerModel {
     void updateNotification() {
         // Notifications should be hidden if the app is open.
         if (mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getUnexpiredTimerNotificationId());
+            mUnexpiredNotificationPoster.cancel();
             return;
         }
 
@@ -744,18 +774,17 @@ final class TimerModel {
 
         // If no unexpired timers exist, cancel the notification.
         if (unexpired.isEmpty()) {
-            mNotificationManager.cancel(mNotificationModel.getUnexpiredTimerNotificationId());
+            mUnexpiredNotificationPoster.cancel();
+            mNotificationBuilder.clearCache();
             return;
         }
 
         // Sort the unexpired timers to locate the next one scheduled to expire.
         unexpired.sort(Timer.EXPIRY_COMPARATOR);
 
-        // Otherwise build and post a notification reflecting the latest unexpired timers.
-        final Notification notification =
-                mNotificationBuilder.build(mContext, mNotificationModel, unexpired);
-        final int notificationId = mNotificationModel.getUnexpiredTimerNotificationId();
-        mNotificationManager.notify(notificationId, notification);
+        // Otherwise post a notification reflecting the latest unexpired timers if it changed.
+        mUnexpiredNotificationPoster.post(TimerNotificationBuilder.fingerprint(unexpired),
+                () -> mNotificationBuilder.build(mContext, mNotificationModel, unexpired));
     }
 
     /**
@@ -765,21 +794,19 @@ final class TimerModel {
     void updateMissedNotification() {
         // Notifications should be hidden if the app is open.
         if (mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getMissedTimerNotificationId());
+            mMissedNotificationPoster.cancel();
             return;
         }
 
-        final List<Timer> missed = getMissedTimers();
+        final List<Timer> missed = new ArrayList<>(getMissedTimers());
 
         if (missed.isEmpty()) {
-            mNotificationManager.cancel(mNotificationModel.getMissedTimerNotificationId());
+            mMissedNotificationPoster.cancel();
             return;
         }
 
-        final Notification notification = mNotificationBuilder.buildMissed(mContext,
-                mNotificationModel, missed);
-        final int notificationId = mNotificationModel.getMissedTimerNotificationId();
-        mNotificationManager.notify(notificationId, notification);
+        mMissedNotificationPoster.post(TimerNotificationBuilder.fingerprintMissed(missed),
+                () -> mNotificationBuilder.buildMissed(mContext, mNotificationModel, missed));
     }
 
     /**
@@ -814,6 +841,9 @@ final class TimerModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             mTimerRingtoneTitle = null;
+            mNotificationBuilder.clearCache();
+            mUnexpiredNotificationPoster.invalidate();
+            mMissedNotificationPoster.invalidate();
             updateNotification();
             updateMissedNotification();
             updateHeadsUpNotification();
@@ -29,8 +29,11 @@ import android.content.Intent;
 import android.content.res.Resources;
 import android.os.SystemClock;
 import android.text.TextUtils;
+import android.util.ArrayMap;
+import android.util.SparseArray;
 import android.widget.RemoteViews;
 
+import androidx.annotation.StringRes;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
 
@@ -43,13 +46,59 @@ import com.lineageos.deskclock.timer.ExpiredTimersActivity;
 import com.lineageos.deskclock.timer.TimerService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Builds notifications to reflect the latest state of the timers.
  */
 class TimerNotificationBuilder {
 
+    /** The key of the cached action that resets all unexpired timers. */
+    private static final String RESET_UNEXPIRED_KEY = "reset_unexpired";
+
+    /**
+     * Actions are cached by intent action and timer id so that repeated builds do not each pay
+     * for a binder call to create an identical {@link PendingIntent}.
+     */
+    private final Map<String, Action> mActions = new ArrayMap<>();
+
+    /** Content intents that show a given timer, cached by timer id. */
+    private final SparseArray<PendingIntent> mShowTimerIntents = new SparseArray<>();
+
+    /**
+     * @param unexpired the running and paused timers, sorted by expiry
+     * @return an object whose equality reflects the visible content of the notification built by
+     *      {@link #build}
+     */
+    static Object fingerprint(List<Timer> unexpired) {
+        final Timer timer = unexpired.get(0);
+        // The chronometer base is stable while running and frozen while paused.
+        final long time = timer.isRunning() ? timer.getExpirationTime() : timer.getRemainingTime();
+        return Arrays.asList(unexpired.size(), timer.getId(), timer.getState(), timer.getLabel(),
+                time);
+    }
+
+    /**
+     * @param missed the missed timers
+     * @return an object whose equality reflects the visible content of the notification built by
+     *      {@link #buildMissed}
+     */
+    static Object fingerprintMissed(List<Timer> missed) {
+        final Timer timer = missed.get(0);
+        return Arrays.asList(missed.size(), timer.getId(), timer.getLabel(),
+                timer.getExpirationTime());
+    }
+
+    /**
+     * Discards cached actions and intents, e.g. because the locale changed or no timers remain.
+     */
+    void clearCache() {
+        mActions.clear();
+        mShowTimerIntents.clear();
+    }
+
     public Notification build(Context context, NotificationModel nm, List<Timer> unexpired) {
         final Timer timer = unexpired.get(0);
         final int count = unexpired.size();
@@ -74,44 +123,24 @@ class TimerNotificationBuilder {
                 }
 
                 // Left button: Pause
-                final Intent pause = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_PAUSE_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title1 = res.getText(R.string.timer_pause);
-                final PendingIntent intent1 = Utils.pendingServiceIntent(context, pause);
-                actions.add(new Action.Builder(null, title1, intent1).build());
+                actions.add(getServiceAction(context, TimerService.ACTION_PAUSE_TIMER,
+                        timer.getId(), R.string.timer_pause));
 
                 // Right Button: +1 Minute
-                final Intent addMinute = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_ADD_MINUTE_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title2 = res.getText(R.string.timer_plus_1_min);
-                final PendingIntent intent2 = Utils.pendingServiceIntent(context, addMinute);
-                actions.add(new Action.Builder(null, title2, intent2).build());
+                actions.add(getServiceAction(context, TimerService.ACTION_ADD_MINUTE_TIMER,
+                        timer.getId(), R.string.timer_plus_1_min));
 
             } else {
                 // Single timer is paused.
                 stateText = res.getString(R.string.timer_paused);
 
                 // Left button: Start
-                final Intent start = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_START_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title1 = res.getText(R.string.sw_resume_button);
-                final PendingIntent intent1 = Utils.pendingServiceIntent(context, start);
-                actions.add(new Action.Builder(null, title1, intent1).build());
+                actions.add(getServiceAction(context, TimerService.ACTION_START_TIMER,
+                        timer.getId(), R.string.sw_resume_button));
 
                 // Right Button: Reset
-                final Intent reset = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_RESET_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title2 = res.getText(R.string.sw_reset_button);
-                final PendingIntent intent2 = Utils.pendingServiceIntent(context, reset);
-                actions.add(new Action.Builder(null, title2, intent2).build());
+                actions.add(getServiceAction(context, TimerService.ACTION_RESET_TIMER,
+                        timer.getId(), R.string.sw_reset_button));
             }
         } else {
             if (running) {
@@ -122,20 +151,20 @@ class TimerNotificationBuilder {
                 stateText = res.getString(R.string.timers_stopped, count);
             }
 
-            final Intent reset = TimerService.createResetUnexpiredTimersIntent(context);
+            Action resetAll = mActions.get(RESET_UNEXPIRED_KEY);
+            if (resetAll == null) {
+                final Intent reset = TimerService.createResetUnexpiredTimersIntent(context);
 
-            final CharSequence title1 = res.getText(R.string.timer_reset_all);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+                final CharSequence title1 = res.getText(R.string.timer_reset_all);
+                final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
+                resetAll = new Action.Builder(null, title1, intent1).build();
+                mActions.put(RESET_UNEXPIRED_KEY, resetAll);
+            }
+            actions.add(resetAll);
         }
 
         // Intent to load the app and show the timer when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(TimerService.ACTION_SHOW_TIMER)
-                .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId())
-                .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
-
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+        final PendingIntent pendingShowApp = getShowTimerIntent(context, timer.getId());
 
         final Builder notification = new NotificationCompat.Builder(
                 context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
@@ -257,13 +286,8 @@ class TimerNotificationBuilder {
             }
 
             // Reset button
-            final Intent reset = new Intent(context, TimerService.class)
-                    .setAction(TimerService.ACTION_RESET_TIMER)
-                    .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-            final CharSequence title1 = res.getText(R.string.timer_reset);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
-            action = new Action.Builder(null, title1, intent1).build();
+            action = getServiceAction(context, TimerService.ACTION_RESET_TIMER, timer.getId(),
+                    R.string.timer_reset);
         } else {
             // Multiple missed timers.
             stateText = res.getString(R.string.timer_multi_missed, count);
@@ -276,12 +300,7 @@ class TimerNotificationBuilder {
         }
 
         // Intent to load the app and show the timer when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(TimerService.ACTION_SHOW_TIMER)
-                .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId())
-                .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
-
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+        final PendingIntent pendingShowApp = getShowTimerIntent(context, timer.getId());
 
         final Builder notification = new NotificationCompat.Builder(
                 context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
@@ -318,6 +337,50 @@ class TimerNotificationBuilder {
         return SystemClock.elapsedRealtime() + adjustedRemaining;
     }
 
+    /**
+     * @return an action with the given title that sends {@code action} for the given timer to the
+     *      {@link TimerService}; reused across builds
+     */
+    private Action getServiceAction(Context context, String action, int timerId,
+            @StringRes int titleId) {
+        // The same action is offered under different titles, e.g. reset in the expired and the
+        // paused notification.
+        final String key = action + "/" + timerId + "/" + titleId;
+        Action result = mActions.get(key);
+        if (result == null) {
+            final Intent intent = new Intent(context, TimerService.class)
+                    .setAction(action)
+                    // Keeps the pending intents of different timers distinct.
+                    .setIdentifier(String.valueOf(timerId))
+                    .putExtra(TimerService.EXTRA_TIMER_ID, timerId);
+
+            final CharSequence title = context.getText(titleId);
+            final PendingIntent pendingIntent = Utils.pendingServiceIntent(context, intent);
+            result = new Action.Builder(null, title, pendingIntent).build();
+            mActions.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return an intent that loads the app and shows the given timer; reused across builds
+     */
+    private PendingIntent getShowTimerIntent(Context context, int timerId) {
+        PendingIntent result = mShowTimerIntents.get(timerId);
+        if (result == null) {
+            final Intent showApp = new Intent(context, DeskClock.class)
+                    .setAction(TimerService.ACTION_SHOW_TIMER)
+                    // Keeps the pending intents of different timers distinct.
+                    .setIdentifier(String.valueOf(timerId))
+                    .putExtra(TimerService.EXTRA_TIMER_ID, timerId)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+
+            result = Utils.pendingActivityIntent(context, showApp);
+            mShowTimerIntents.put(timerId, result);
+        }
+        return result;
+    }
+
     private RemoteViews buildChronometer(String pname, long base, boolean running,
             CharSequence stateText) {
         final RemoteViews content = new RemoteViews(pname, R.layout.chronometer_notif_content);
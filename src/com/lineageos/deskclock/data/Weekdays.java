@@ -26,7 +26,6 @@ import static java.util.Calendar.TUESDAY;
 import static java.util.Calendar.WEDNESDAY;
 
 import android.content.Context;
-import android.util.ArrayMap;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
@@ -36,9 +35,8 @@ import com.lineageos.deskclock.R;
 import java.text.DateFormatSymbols;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 
 /**
  * This class is responsible for encoding a weekly repeat cycle in a {@link #getBits bitset}. It
@@ -70,29 +68,60 @@ public final class Weekdays {
     /** All valid bits set. */
     private static final int ALL_DAYS = 0x7F;
 
-    /** An instance with no weekdays in the weekly repeat cycle. */
-    public static final Weekdays NONE = Weekdays.fromBits(0);
+    /** The number of distinct weekly repeat schedules. */
+    private static final int SCHEDULE_COUNT = ALL_DAYS + 1;
+
+    /**
+     * Maps calendar weekdays to the bit masks that represent them in this class; other indexes map
+     * to 0.
+     */
+    private static final int[] CALENDAR_DAY_TO_BIT = new int[SATURDAY + 1];
+    static {
+        CALENDAR_DAY_TO_BIT[MONDAY]    = 0x01;
+        CALENDAR_DAY_TO_BIT[TUESDAY]   = 0x02;
+        CALENDAR_DAY_TO_BIT[WEDNESDAY] = 0x04;
+        CALENDAR_DAY_TO_BIT[THURSDAY]  = 0x08;
+        CALENDAR_DAY_TO_BIT[FRIDAY]    = 0x10;
+        CALENDAR_DAY_TO_BIT[SATURDAY]  = 0x20;
+        CALENDAR_DAY_TO_BIT[SUNDAY]    = 0x40;
+    }
+
+    /**
+     * The answers of {@link #getDistanceToNextDay} and {@link #getDistanceToPreviousDay} for every
+     * schedule and weekday, indexed by {@link #getDistanceIndex}.
+     */
+    private static final byte[] NEXT_DAY_DISTANCES = new byte[SCHEDULE_COUNT * 7];
+    private static final byte[] PREVIOUS_DAY_DISTANCES = new byte[SCHEDULE_COUNT * 7];
+    static {
+        for (int bits = 0; bits < SCHEDULE_COUNT; bits++) {
+            for (int calendarDay = SUNDAY; calendarDay <= SATURDAY; calendarDay++) {
+                final int index = getDistanceIndex(bits, calendarDay);
+                NEXT_DAY_DISTANCES[index] = (byte) computeDistanceToNextDay(bits, calendarDay);
+                PREVIOUS_DAY_DISTANCES[index] =
+                        (byte) computeDistanceToPreviousDay(bits, calendarDay);
+            }
+        }
+    }
 
-    /** Maps calendar weekdays to the bit masks that represent them in this class. */
-    private static final Map<Integer, Integer> sCalendarDayToBit;
+    /** Every schedule; instances are immutable, so one per schedule is shared. */
+    private static final Weekdays[] sInstances = new Weekdays[SCHEDULE_COUNT];
     static {
-        final Map<Integer, Integer> map = new ArrayMap<>(7);
-        map.put(MONDAY,    0x01);
-        map.put(TUESDAY,   0x02);
-        map.put(WEDNESDAY, 0x04);
-        map.put(THURSDAY,  0x08);
-        map.put(FRIDAY,    0x10);
-        map.put(SATURDAY,  0x20);
-        map.put(SUNDAY,    0x40);
-        sCalendarDayToBit = Collections.unmodifiableMap(map);
+        for (int bits = 0; bits < SCHEDULE_COUNT; bits++) {
+            sInstances[bits] = new Weekdays(bits);
+        }
     }
 
+    /** An instance with no weekdays in the weekly repeat cycle. */
+    public static final Weekdays NONE = Weekdays.fromBits(0);
+
+    /** The display strings of the schedules for the current locale; built as they are needed. */
+    private static volatile DisplayStrings sDisplayStrings;
+
     /** An encoded form of a weekly repeat schedule. */
     private final int mBits;
 
     private Weekdays(int bits) {
-        // Mask off the unused bits.
-        mBits = ALL_DAYS & bits;
+        mBits = bits;
     }
 
     /**
@@ -100,7 +129,8 @@ public final class Weekdays {
      * @return a Weekdays instance representing the same repeat schedule as the {@code bits}
      */
     public static Weekdays fromBits(int bits) {
-        return new Weekdays(bits);
+        // Mask off the unused bits.
+        return sInstances[ALL_DAYS & bits];
     }
 
     /**
@@ -119,12 +149,9 @@ public final class Weekdays {
     public static Weekdays fromCalendarDays(int... calendarDays) {
         int bits = 0;
         for (int calendarDay : calendarDays) {
-            final Integer bit = sCalendarDayToBit.get(calendarDay);
-            if (bit != null) {
-                bits = bits | bit;
-            }
+            bits = bits | getBit(calendarDay);
         }
-        return new Weekdays(bits);
+        return fromBits(bits);
     }
 
     /**
@@ -142,11 +169,8 @@ public final class Weekdays {
      * @return a WeekDays instance with the {@code calendarDay} mutated
      */
     public Weekdays setBit(int calendarDay, boolean on) {
-        final Integer bit = sCalendarDayToBit.get(calendarDay);
-        if (bit == null) {
-            return this;
-        }
-        return new Weekdays(on ? (mBits | bit) : (mBits & ~bit));
+        final int bit = getBit(calendarDay);
+        return fromBits(on ? (mBits | bit) : (mBits & ~bit));
     }
 
     /**
@@ -163,11 +187,11 @@ public final class Weekdays {
      * @return {@code true} if the given {@code calendarDay}
      */
     public boolean isBitOn(int calendarDay) {
-        final Integer bit = sCalendarDayToBit.get(calendarDay);
-        if (bit == null) {
+        final int bit = getBit(calendarDay);
+        if (bit == 0) {
             throw new IllegalArgumentException(calendarDay + " is not a valid weekday");
         }
-        return (mBits & bit) > 0;
+        return (mBits & bit) != 0;
     }
 
     /**
@@ -189,18 +213,7 @@ public final class Weekdays {
      *      which is always between 1 and 7 inclusive; {@code -1} if no weekdays are enabled
      */
     public int getDistanceToPreviousDay(Calendar time) {
-        int calendarDay = time.get(DAY_OF_WEEK);
-        for (int count = 1; count <= 7; count++) {
-            calendarDay--;
-            if (calendarDay < Calendar.SUNDAY) {
-                calendarDay = Calendar.SATURDAY;
-            }
-            if (isBitOn(calendarDay)) {
-                return count;
-            }
-        }
-
-        return -1;
+        return PREVIOUS_DAY_DISTANCES[getDistanceIndex(mBits, time.get(DAY_OF_WEEK))];
     }
 
     /**
@@ -212,19 +225,7 @@ public final class Weekdays {
      *      is always between 0 and 6 inclusive; {@code -1} if no weekdays are enabled
      */
     public int getDistanceToNextDay(Calendar time) {
-        int calendarDay = time.get(DAY_OF_WEEK);
-        for (int count = 0; count < 7; count++) {
-            if (isBitOn(calendarDay)) {
-                return count;
-            }
-
-            calendarDay++;
-            if (calendarDay > Calendar.SATURDAY) {
-                calendarDay = Calendar.SUNDAY;
-            }
-        }
-
-        return -1;
+        return NEXT_DAY_DISTANCES[getDistanceIndex(mBits, time.get(DAY_OF_WEEK))];
     }
 
     @Override
@@ -292,13 +293,7 @@ public final class Weekdays {
 
     @VisibleForTesting
     int getCount() {
-        int count = 0;
-        for (int calendarDay = SUNDAY; calendarDay <= SATURDAY; calendarDay++) {
-            if (isBitOn(calendarDay)) {
-                count++;
-            }
-        }
-        return count;
+        return Integer.bitCount(mBits);
     }
 
     /**
@@ -312,6 +307,29 @@ public final class Weekdays {
             return "";
         }
 
+        final Locale locale = Locale.getDefault();
+        DisplayStrings displayStrings = sDisplayStrings;
+        if (displayStrings == null || !displayStrings.mLocale.equals(locale)) {
+            displayStrings = new DisplayStrings(locale);
+            sDisplayStrings = displayStrings;
+        }
+
+        final String[] strings = displayStrings.getStrings(order, forceLongNames);
+        String string = strings[mBits];
+        if (string == null) {
+            string = buildString(context, order, forceLongNames);
+            strings[mBits] = string;
+        }
+        return string;
+    }
+
+    /**
+     * @param context for accessing resources
+     * @param order the order in which to present the weekdays
+     * @param forceLongNames if {@code true} the un-abbreviated weekdays are used
+     * @return the enabled weekdays in the given {@code order}
+     */
+    private String buildString(Context context, Order order, boolean forceLongNames) {
         if (mBits == ALL_DAYS) {
             return context.getString(R.string.every_day);
         }
@@ -333,4 +351,71 @@ public final class Weekdays {
         }
         return builder.toString();
     }
+
+    /**
+     * @return the mask representing {@code calendarDay}; 0 if it is not a valid weekday
+     */
+    private static int getBit(int calendarDay) {
+        if (calendarDay < SUNDAY || calendarDay > SATURDAY) {
+            return 0;
+        }
+        return CALENDAR_DAY_TO_BIT[calendarDay];
+    }
+
+    private static int getDistanceIndex(int bits, int calendarDay) {
+        return bits * 7 + calendarDay - SUNDAY;
+    }
+
+    private static int computeDistanceToPreviousDay(int bits, int calendarDay) {
+        for (int count = 1; count <= 7; count++) {
+            calendarDay--;
+            if (calendarDay < SUNDAY) {
+                calendarDay = SATURDAY;
+            }
+            if ((bits & getBit(calendarDay)) != 0) {
+                return count;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int computeDistanceToNextDay(int bits, int calendarDay) {
+        for (int count = 0; count < 7; count++) {
+            if ((bits & getBit(calendarDay)) != 0) {
+                return count;
+            }
+
+            calendarDay++;
+            if (calendarDay > SATURDAY) {
+                calendarDay = SUNDAY;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * The display strings of every schedule in every {@link Order}, with abbreviated and with full
+     * weekday names, for one locale. Strings are immutable, so a slot filled concurrently by two
+     * threads holds an equal string either way.
+     */
+    private static final class DisplayStrings {
+
+        private final Locale mLocale;
+
+        /** Indexed by {@link #getStrings} and then by the bits of the schedule. */
+        private final String[][] mStrings = new String[Order.values().length * 2][];
+
+        private DisplayStrings(Locale locale) {
+            mLocale = locale;
+            for (int i = 0; i < mStrings.length; i++) {
+                mStrings[i] = new String[SCHEDULE_COUNT];
+            }
+        }
+
+        private String[] getStrings(Order order, boolean forceLongNames) {
+            return mStrings[order.ordinal() * 2 + (forceLongNames ? 1 : 0)];
+        }
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
+
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the UTC offset of each time zone along with the span of time over which it applies.
+ * Offsets only change at the transitions of a zone, so within that span the offset is answered
+ * without consulting the zone rules. May be used from any thread.
+ */
+public final class ZoneTransitionCache {
+
+    /** Maps each time zone id to the span of time around the last requested time. */
+    private static final Map<String, Span> sSpans = new ConcurrentHashMap<>();
+
+    private ZoneTransitionCache() {}
+
+    /**
+     * Forget all cached offsets, e.g. after the time zone rules or the device time zone change.
+     */
+    public static void clear() {
+        sSpans.clear();
+        TimeZonesCache.clear();
+    }
+
+    /**
+     * @param zone the time zone whose offset is requested
+     * @param time a point in time in ms since the epoch
+     * @return the offset from UTC in ms of the {@code zone} at the given {@code time}
+     */
+    public static int getOffset(TimeZone zone, long time) {
+        return getSpan(zone, time).mOffset;
+    }
+
+    /**
+     * @param zone the time zone whose next transition is requested
+     * @param time a point in time in ms since the epoch
+     * @return the first time after {@code time} at which the offset of the {@code zone} changes;
+     *      {@link Long#MAX_VALUE} if it never changes
+     */
+    public static long getNextTransition(TimeZone zone, long time) {
+        return getSpan(zone, time).mEnd;
+    }
+
+    /**
+     * Given a point in time, return the subsequent moment any of the time zones changes days.
+     *
+     * @param time a point in time in ms since the epoch
+     * @param zones a collection of time zones
+     * @return the nearest point in the future at which any of the time zones changes days;
+     *      {@link Long#MAX_VALUE} if {@code zones} is empty
+     */
+    public static long getNextDay(long time, Collection<TimeZone> zones) {
+        long next = Long.MAX_VALUE;
+        for (TimeZone zone : zones) {
+            next = Math.min(next, getNextDay(zone, time));
+        }
+        return next;
+    }
+
+    private static long getNextDay(TimeZone zone, long time) {
+        final Span span = getSpan(zone, time);
+        final long localTime = time + span.mOffset;
+        final long nextMidnight = (Math.floorDiv(localTime, DAY_IN_MILLIS) + 1) * DAY_IN_MILLIS
+                - span.mOffset;
+        if (nextMidnight < span.mEnd) {
+            return nextMidnight;
+        }
+
+        // The offset changes before midnight so let the calendar account for the transition.
+        final Calendar c = Calendar.getInstance(zone);
+        c.setTimeInMillis(time);
+        c.add(Calendar.DAY_OF_YEAR, 1);
+        c.set(Calendar.HOUR_OF_DAY, 0);
+        c.set(Calendar.MINUTE, 0);
+        c.set(Calendar.SECOND, 0);
+        c.set(Calendar.MILLISECOND, 0);
+        return c.getTimeInMillis();
+    }
+
+    private static Span getSpan(TimeZone zone, long time) {
+        final String id = zone.getID();
+        final Span cached = sSpans.get(id);
+        if (cached != null && cached.contains(time)) {
+            return cached;
+        }
+
+        final Span span = Span.create(zone, time);
+        sSpans.put(id, span);
+        return span;
+    }
+
+    /**
+     * A span of time between two transitions of a zone, over which its offset is constant.
+     */
+    private static final class Span {
+
+        /** The offset from UTC in ms that applies throughout this span. */
+        private final int mOffset;
+
+        /** The first time in ms since the epoch included in this span. */
+        private final long mStart;
+
+        /** The first time in ms since the epoch after this span. */
+        private final long mEnd;
+
+        private Span(int offset, long start, long end) {
+            mOffset = offset;
+            mStart = start;
+            mEnd = end;
+        }
+
+        private boolean contains(long time) {
+            return mStart <= time && time < mEnd;
+        }
+
+        private static Span create(TimeZone zone, long time) {
+            final ZoneRules rules = zone.toZoneId().getRules();
+            final Instant instant = Instant.ofEpochMilli(time);
+            // The span starts at the last transition at or before the instant.
+            final ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+            final ZoneOffsetTransition next = rules.nextTransition(instant);
+            final long start = previous == null ? Long.MIN_VALUE : toMillis(previous);
+            final long end = next == null ? Long.MAX_VALUE : toMillis(next);
+
+            // Should the java.time and java.util rules ever disagree, cache nothing beyond now.
+            final int offset = zone.getOffset(time);
+            if (offset != rules.getOffset(instant).getTotalSeconds() * 1000) {
+                return new Span(offset, time, time + 1);
+            }
+            return new Span(offset, start, end);
+        }
+
+        private static long toMillis(ZoneOffsetTransition transition) {
+            return transition.getInstant().toEpochMilli();
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package com.lineageos.deskclock.provider;
 
-import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
@@ -35,7 +34,6 @@ import com.lineageos.deskclock.data.DataModel;
 import com.lineageos.deskclock.data.Weekdays;
 
 import java.util.Calendar;
-import java.util.LinkedList;
 import java.util.List;
 
 public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
@@ -52,7 +50,7 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
             ClockDatabaseHelper.ALARMS_TABLE_NAME + "." +  MINUTES + " ASC" + ", " +
             ClockDatabaseHelper.ALARMS_TABLE_NAME + "." + ClockContract.AlarmsColumns._ID + " DESC";
 
-    private static final String[] QUERY_COLUMNS = {
+    static final String[] QUERY_COLUMNS = {
             _ID,
             HOUR,
             MINUTES,
@@ -190,24 +188,18 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
     /**
      * Get alarm by id.
      *
-     * @param cr provides access to the content model
+     * @param context provides access to the content model
      * @param alarmId for the desired alarm.
      * @return alarm if found, null otherwise
      */
-    public static Alarm getAlarm(ContentResolver cr, long alarmId) {
-        try (Cursor cursor = cr.query(getContentUri(alarmId), QUERY_COLUMNS, null, null, null)) {
-            if (cursor.moveToFirst()) {
-                return new Alarm(cursor);
-            }
-        }
-
-        return null;
+    public static Alarm getAlarm(Context context, long alarmId) {
+        return ClockRepository.getInstance(context).getAlarm(alarmId);
     }
 
     /**
      * Get all alarms given conditions.
      *
-     * @param cr provides access to the content model
+     * @param context provides access to the content model
      * @param selection A filter declaring which rows to return, formatted as an
      *         SQL WHERE clause (excluding the WHERE itself). Passing null will
      *         return all rows for the given URI.
@@ -216,18 +208,9 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
      *         appear in the selection. The values will be bound as Strings.
      * @return list of alarms matching where clause or empty list if none found.
      */
-    public static List<Alarm> getAlarms(ContentResolver cr, String selection,
+    public static List<Alarm> getAlarms(Context context, String selection,
             String... selectionArgs) {
-        final List<Alarm> result = new LinkedList<>();
-        try (Cursor cursor = cr.query(CONTENT_URI, QUERY_COLUMNS, selection, selectionArgs, null)) {
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    result.add(new Alarm(cursor));
-                } while (cursor.moveToNext());
-            }
-        }
-
-        return result;
+        return ClockRepository.getInstance(context).getAlarms(selection, selectionArgs);
     }
 
     public static boolean isTomorrow(Alarm alarm, Calendar now) {
@@ -240,22 +223,19 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
         return totalAlarmMinutes <= totalNowMinutes;
     }
 
-    public static Alarm addAlarm(ContentResolver contentResolver, Alarm alarm) {
-        ContentValues values = createContentValues(alarm);
-        Uri uri = contentResolver.insert(CONTENT_URI, values);
-        alarm.id = getId(uri);
+    public static Alarm addAlarm(Context context, Alarm alarm) {
+        alarm.id = ClockRepository.getInstance(context).insertAlarm(alarm);
         return alarm;
     }
 
-    public static void updateAlarm(ContentResolver contentResolver, Alarm alarm) {
+    public static void updateAlarm(Context context, Alarm alarm) {
         if (alarm.id == Alarm.INVALID_ID) return;
-        ContentValues values = createContentValues(alarm);
-        contentResolver.update(getContentUri(alarm.id), values, null, null);
+        ClockRepository.getInstance(context).updateAlarm(alarm);
     }
 
-    public static boolean deleteAlarm(ContentResolver contentResolver, long alarmId) {
+    public static boolean deleteAlarm(Context context, long alarmId) {
         if (alarmId == INVALID_ID) return false;
-        int deletedRows = contentResolver.delete(getContentUri(alarmId), "", null);
+        int deletedRows = ClockRepository.getInstance(context).deleteAlarm(alarmId);
         return deletedRows == 1;
     }
 
@@ -16,7 +16,6 @@
 
 package com.lineageos.deskclock.provider;
 
-import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
@@ -33,7 +32,6 @@ import com.lineageos.deskclock.alarms.AlarmStateManager;
 import com.lineageos.deskclock.data.DataModel;
 
 import java.util.Calendar;
-import java.util.LinkedList;
 import java.util.List;
 
 public final class AlarmInstance implements ClockContract.InstancesColumns {
@@ -57,7 +55,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      */
     public static final long INVALID_ID = -1;
 
-    private static final String[] QUERY_COLUMNS = {
+    static final String[] QUERY_COLUMNS = {
             _ID,
             YEAR,
             MONTH,
@@ -69,7 +67,8 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
             RINGTONE,
             ALARM_ID,
             ALARM_STATE,
-            INCREASING_VOLUME
+            INCREASING_VOLUME,
+            ALARM_TIME
     };
 
     /**
@@ -88,8 +87,9 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     private static final int ALARM_ID_INDEX = 9;
     private static final int ALARM_STATE_INDEX = 10;
     private static final int INCREASING_VOLUME_INDEX = 11;
+    private static final int ALARM_TIME_INDEX = 12;
 
-    private static final int COLUMN_COUNT = INCREASING_VOLUME_INDEX + 1;
+    private static final int COLUMN_COUNT = ALARM_TIME_INDEX + 1;
 
     public static ContentValues createContentValues(AlarmInstance instance) {
         ContentValues values = new ContentValues(COLUMN_COUNT);
@@ -114,6 +114,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
         values.put(ALARM_ID, instance.mAlarmId);
         values.put(ALARM_STATE, instance.mAlarmState);
         values.put(INCREASING_VOLUME, instance.mIncreasingVolume ? 1 : 0);
+        values.put(ALARM_TIME, instance.getAlarmTime().getTimeInMillis());
 
         return values;
     }
@@ -136,14 +137,38 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     /**
      * Get alarm instance from instanceId.
      *
-     * @param cr provides access to the content model
+     * @param context provides access to the content model
      * @param instanceId for the desired instance.
      * @return instance if found, null otherwise
      */
-    public static AlarmInstance getInstance(ContentResolver cr, long instanceId) {
-        try (Cursor cursor = cr.query(getContentUri(instanceId), QUERY_COLUMNS, null, null, null)) {
-            if (cursor != null && cursor.moveToFirst()) {
-                return new AlarmInstance(cursor, false /* joinedTable */);
+    public static AlarmInstance getInstance(Context context, long instanceId) {
+        return ClockRepository.getInstance(context).getInstance(instanceId);
+    }
+
+    /**
+     * Get alarm instance by the time at which it fires. Uses the index on the stored alarm time
+     * rather than loading every instance, unless the stored time of the desired instance is stale,
+     * e.g. after a time or time zone change that has not yet been handled.
+     *
+     * @param context provides access to the content model
+     * @param alarmTime the firing time of the desired instance in ms since the epoch
+     * @return instance if found, null otherwise
+     */
+    public static AlarmInstance getInstanceByAlarmTime(Context context, long alarmTime) {
+        final String selection = ALARM_TIME + "=?";
+        final String[] selectionArgs = {String.valueOf(alarmTime)};
+        for (AlarmInstance instance : getInstances(context, selection, selectionArgs)) {
+            // Guard against a stored time that predates a time zone change.
+            if (instance.getAlarmTime().getTimeInMillis() == alarmTime) {
+                return instance;
+            }
+        }
+
+        // The stored time of the desired instance may be stale; compare every instance instead.
+        for (AlarmInstance instance : getInstances(context, null)) {
+            if (instance.getAlarmTime().getTimeInMillis() == alarmTime) {
+                updateStoredAlarmTime(context, instance);
+                return instance;
             }
         }
 
@@ -153,24 +178,22 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     /**
      * Get an alarm instances by alarmId.
      *
-     * @param contentResolver provides access to the content model
+     * @param context provides access to the content model
      * @param alarmId of instances desired.
      * @return list of alarms instances that are owned by alarmId.
      */
-    public static List<AlarmInstance> getInstancesByAlarmId(ContentResolver contentResolver,
-            long alarmId) {
-        return getInstances(contentResolver, ALARM_ID + "=" + alarmId);
+    public static List<AlarmInstance> getInstancesByAlarmId(Context context, long alarmId) {
+        return getInstances(context, ALARM_ID + " = ?", String.valueOf(alarmId));
     }
 
     /**
      * Get the next instance of an alarm given its alarmId
-     * @param contentResolver provides access to the content model
+     * @param context provides access to the content model
      * @param alarmId of instance desired
      * @return the next instance of an alarm by alarmId.
      */
-    public static AlarmInstance getNextUpcomingInstanceByAlarmId(ContentResolver contentResolver,
-                                                                 long alarmId) {
-        final List<AlarmInstance> alarmInstances = getInstancesByAlarmId(contentResolver, alarmId);
+    public static AlarmInstance getNextUpcomingInstanceByAlarmId(Context context, long alarmId) {
+        final List<AlarmInstance> alarmInstances = getInstancesByAlarmId(context, alarmId);
         if (alarmInstances.isEmpty()) {
             return null;
         }
@@ -186,15 +209,14 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     /**
      * Get alarm instances in the specified state.
      */
-    public static List<AlarmInstance> getInstancesByState(
-            ContentResolver contentResolver, int state) {
-        return getInstances(contentResolver, ALARM_STATE + "=" + state);
+    public static List<AlarmInstance> getInstancesByState(Context context, int state) {
+        return getInstances(context, ALARM_STATE + " = ?", String.valueOf(state));
     }
 
     /**
      * Get a list of instances given selection.
      *
-     * @param cr provides access to the content model
+     * @param context provides access to the content model
      * @param selection A filter declaring which rows to return, formatted as an
      *         SQL WHERE clause (excluding the WHERE itself). Passing null will
      *         return all rows for the given URI.
@@ -203,61 +225,60 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      *         appear in the selection. The values will be bound as Strings.
      * @return list of alarms matching where clause or empty list if none found.
      */
-    public static List<AlarmInstance> getInstances(ContentResolver cr, String selection,
+    public static List<AlarmInstance> getInstances(Context context, String selection,
                                                    String... selectionArgs) {
-        final List<AlarmInstance> result = new LinkedList<>();
-        try (Cursor cursor = cr.query(CONTENT_URI, QUERY_COLUMNS, selection, selectionArgs, null)) {
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    result.add(new AlarmInstance(cursor, false /* joinedTable */));
-                } while (cursor.moveToNext());
-            }
-        }
-
-        return result;
+        return ClockRepository.getInstance(context).getInstances(selection, selectionArgs);
     }
 
-    public static AlarmInstance addInstance(ContentResolver contentResolver,
-            AlarmInstance instance) {
+    public static AlarmInstance addInstance(Context context, AlarmInstance instance) {
         // Make sure we are not adding a duplicate instances. This is not a
         // fix and should never happen. This is only a safe guard against bad code, and you
         // should fix the root issue if you see the error message.
-        String dupSelector = AlarmInstance.ALARM_ID + " = " + instance.mAlarmId;
-        for (AlarmInstance otherInstances : getInstances(contentResolver, dupSelector)) {
+        final String dupSelector = AlarmInstance.ALARM_ID + " = ?";
+        for (AlarmInstance otherInstances : getInstances(context, dupSelector,
+                String.valueOf(instance.mAlarmId))) {
             if (otherInstances.getAlarmTime().equals(instance.getAlarmTime())) {
                 LogUtils.i("Detected duplicate instance in DB. Updating " + otherInstances + " to "
                         + instance);
                 // Copy over the new instance values and update the db
                 instance.mId = otherInstances.mId;
-                updateInstance(contentResolver, instance);
+                updateInstance(context, instance);
                 return instance;
             }
         }
 
-        ContentValues values = createContentValues(instance);
-        Uri uri = contentResolver.insert(CONTENT_URI, values);
-        instance.mId = getId(uri);
+        instance.mId = ClockRepository.getInstance(context).insertInstance(instance);
         return instance;
     }
 
-    public static void updateInstance(ContentResolver contentResolver, AlarmInstance instance) {
+    public static void updateInstance(Context context, AlarmInstance instance) {
         if (instance.mId == INVALID_ID) return;
-        ContentValues values = createContentValues(instance);
-        contentResolver.update(getContentUri(instance.mId), values, null, null);
+        ClockRepository.getInstance(context).updateInstance(instance);
     }
 
-    public static void deleteInstance(ContentResolver contentResolver, long instanceId) {
+    /**
+     * Rewrites the stored alarm time of the instance if it no longer matches its local date and
+     * time, e.g. after a time zone change.
+     */
+    public static void updateStoredAlarmTime(Context context, AlarmInstance instance) {
+        final long alarmTime = instance.getAlarmTime().getTimeInMillis();
+        if (instance.mId == INVALID_ID || instance.mStoredAlarmTime == alarmTime) return;
+        ClockRepository.getInstance(context).updateAlarmTime(instance.mId, alarmTime);
+        instance.mStoredAlarmTime = alarmTime;
+    }
+
+    public static void deleteInstance(Context context, long instanceId) {
         if (instanceId == INVALID_ID) return;
-        contentResolver.delete(getContentUri(instanceId), "", null);
+        ClockRepository.getInstance(context).deleteInstance(instanceId);
     }
 
-    public static void deleteOtherInstances(Context context, ContentResolver contentResolver,
-            long alarmId, long instanceId) {
-        final List<AlarmInstance> instances = getInstancesByAlarmId(contentResolver, alarmId);
+    public static void deleteOtherInstances(Context context, long alarmId,
+            long instanceId) {
+        final List<AlarmInstance> instances = getInstancesByAlarmId(context, alarmId);
         for (AlarmInstance instance : instances) {
             if (instance.mId != instanceId) {
                 AlarmStateManager.unregisterInstance(context, instance);
-                deleteInstance(contentResolver, instance.mId);
+                deleteInstance(context, instance.mId);
             }
         }
     }
@@ -276,6 +297,9 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     public int mAlarmState;
     public boolean mIncreasingVolume;
 
+    /** The alarm time last written to the database; 0 if unknown. */
+    long mStoredAlarmTime;
+
     public AlarmInstance(Calendar calendar, Long alarmId) {
         this(calendar);
         mAlarmId = alarmId;
@@ -304,6 +328,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
          this.mAlarmId = instance.mAlarmId;
          this.mAlarmState = instance.mAlarmState;
          this.mIncreasingVolume = instance.mIncreasingVolume;
+         this.mStoredAlarmTime = instance.mStoredAlarmTime;
     }
 
     public AlarmInstance(Cursor c, boolean joinedTable) {
@@ -325,6 +350,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
             mMinute = c.getInt(MINUTES_INDEX);
             mLabel = c.getString(LABEL_INDEX);
             mVibrate = c.getInt(VIBRATE_INDEX) == 1;
+            mStoredAlarmTime = c.getLong(ALARM_TIME_INDEX);
         }
         if (c.isNull(RINGTONE_INDEX)) {
             // Should we be saving this with the current ringtone or leave it null
@@ -261,5 +261,12 @@ public final class ClockContract {
          * <p>Type: INTEGER</p>
          */
         String ALARM_STATE = "alarm_state";
+
+        /**
+         * Alarm time in milliseconds since the epoch, derived from the local date and time
+         * columns when the instance is written. Indexed to look up instances by firing time.
+         * <p>Type: INTEGER (long)</p>
+         */
+        String ALARM_TIME = "alarm_time";
     }
 }
@@ -72,6 +72,16 @@ class ClockDatabaseHelper extends SQLiteOpenHelper {
      */
     private static final int VERSION_11 = 12;
 
+    /**
+     * Added indexed alarm time to instance table
+     */
+    private static final int VERSION_12 = 13;
+
+    /**
+     * Added index on the alarm id and state of the instance table
+     */
+    private static final int VERSION_13 = 14;
+
     // This creates a default alarm at 8:30 for every Mon,Tue,Wed,Thu,Fri
     private static final String DEFAULT_ALARM_1 = "(8, 30, 31, 0, 1, '', NULL, 0, 0);";
 
@@ -84,6 +94,8 @@ class ClockDatabaseHelper extends SQLiteOpenHelper {
     static final String ALARMS_TABLE_NAME = "alarm_templates";
     static final String INSTANCES_TABLE_NAME = "alarm_instances";
     private static final String SELECTED_CITIES_TABLE_NAME = "selected_cities";
+    private static final String INSTANCES_ALARM_TIME_INDEX_NAME = "alarm_instances_alarm_time";
+    static final String INSTANCES_ALARM_ID_INDEX_NAME = "alarm_instances_alarm_id";
 
     private static void createAlarmsTable(SQLiteDatabase db, String alarmsTableName) {
         db.execSQL("CREATE TABLE " + alarmsTableName + " (" +
@@ -115,18 +127,67 @@ class ClockDatabaseHelper extends SQLiteOpenHelper {
                 ClockContract.InstancesColumns.ALARM_ID + " INTEGER REFERENCES " +
                     ALARMS_TABLE_NAME + "(" + ClockContract.AlarmsColumns._ID + ") " +
                     "ON UPDATE CASCADE ON DELETE CASCADE, " +
-                ClockContract.InstancesColumns.INCREASING_VOLUME + " INTEGER NOT NULL DEFAULT 0);");
+                ClockContract.InstancesColumns.INCREASING_VOLUME + " INTEGER NOT NULL DEFAULT 0, " +
+                ClockContract.InstancesColumns.ALARM_TIME + " INTEGER NOT NULL DEFAULT 0);");
         LogUtils.i("Instance table created");
     }
 
+    private static void createInstanceAlarmTimeIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INSTANCES_ALARM_TIME_INDEX_NAME + " ON " +
+                INSTANCES_TABLE_NAME + " (" + ClockContract.InstancesColumns.ALARM_TIME + ");");
+    }
+
+    /**
+     * Serves the lookups of instances by alarm, including the one per alarm in the join of alarms
+     * with instances, which orders them by state.
+     */
+    private static void createInstanceAlarmIdIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INSTANCES_ALARM_ID_INDEX_NAME + " ON " +
+                INSTANCES_TABLE_NAME + " (" + ClockContract.InstancesColumns.ALARM_ID + ", " +
+                ClockContract.InstancesColumns.ALARM_STATE + ");");
+    }
+
+    /**
+     * Fills in the alarm time of instances written before the column existed.
+     */
+    private static void backfillInstanceAlarmTimes(SQLiteDatabase db) {
+        final String[] columns = {
+                ClockContract.InstancesColumns._ID,
+                ClockContract.InstancesColumns.YEAR,
+                ClockContract.InstancesColumns.MONTH,
+                ClockContract.InstancesColumns.DAY,
+                ClockContract.InstancesColumns.HOUR,
+                ClockContract.InstancesColumns.MINUTES
+        };
+        try (Cursor cursor = db.query(INSTANCES_TABLE_NAME, columns,
+                null, null, null, null, null)) {
+            final Calendar calendar = Calendar.getInstance();
+            final ContentValues values = new ContentValues(1);
+            final String selection = ClockContract.InstancesColumns._ID + " = ?";
+            while (cursor != null && cursor.moveToNext()) {
+                calendar.clear();
+                calendar.set(cursor.getInt(1), cursor.getInt(2), cursor.getInt(3),
+                        cursor.getInt(4), cursor.getInt(5), 0);
+                values.put(ClockContract.InstancesColumns.ALARM_TIME, calendar.getTimeInMillis());
+                db.update(INSTANCES_TABLE_NAME, values, selection,
+                        new String[] {String.valueOf(cursor.getLong(0))});
+            }
+        }
+    }
+
     public ClockDatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, VERSION_11);
+        super(context, DATABASE_NAME, null, VERSION_13);
+
+        // Readers such as the alarm list no longer block the writes made as alarms fire.
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
         createAlarmsTable(db, ALARMS_TABLE_NAME);
         createInstanceTable(db, INSTANCES_TABLE_NAME);
+        createInstanceAlarmTimeIndex(db);
+        createInstanceAlarmIdIndex(db);
 
         // insert default alarms
         LogUtils.i("Inserting default alarms");
@@ -208,6 +269,8 @@ class ClockDatabaseHelper extends SQLiteOpenHelper {
 
             LogUtils.i("Dropping old alarm table");
             db.execSQL("DROP TABLE IF EXISTS " + OLD_ALARMS_TABLE_NAME + ";");
+            createInstanceAlarmTimeIndex(db);
+            createInstanceAlarmIdIndex(db);
             return;
         }
 
@@ -269,6 +332,20 @@ class ClockDatabaseHelper extends SQLiteOpenHelper {
                     + " RENAME TO " + ALARMS_TABLE_NAME + ";");
             db.execSQL("ALTER TABLE " + TEMP_INSTANCES_TABLE_NAME
                     + " RENAME TO " + INSTANCES_TABLE_NAME + ";");
+        } else if (oldVersion < VERSION_12) {
+            // The instance table was not recreated above so it lacks the alarm time column.
+            db.execSQL("ALTER TABLE " + INSTANCES_TABLE_NAME
+                    + " ADD COLUMN " + ClockContract.InstancesColumns.ALARM_TIME
+                    + " INTEGER NOT NULL DEFAULT 0;");
+            backfillInstanceAlarmTimes(db);
+        }
+
+        if (oldVersion < VERSION_12) {
+            createInstanceAlarmTimeIndex(db);
+        }
+
+        if (oldVersion < VERSION_13) {
+            createInstanceAlarmIdIndex(db);
         }
     }
 
@@ -16,33 +16,27 @@
 
 package com.lineageos.deskclock.provider;
 
-import static com.lineageos.deskclock.provider.ClockContract.AlarmsColumns;
-import static com.lineageos.deskclock.provider.ClockContract.InstancesColumns;
 import static com.lineageos.deskclock.provider.ClockDatabaseHelper.ALARMS_TABLE_NAME;
 import static com.lineageos.deskclock.provider.ClockDatabaseHelper.INSTANCES_TABLE_NAME;
 
 import android.content.ContentProvider;
-import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
-import android.content.Context;
 import android.content.UriMatcher;
 import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
-import android.database.sqlite.SQLiteQueryBuilder;
 import android.net.Uri;
-import android.text.TextUtils;
-import android.util.ArrayMap;
 
 import androidx.annotation.NonNull;
 
 import com.lineageos.deskclock.LogUtils;
 
-import java.util.Map;
-
+/**
+ * Exposes the alarms and their instances to other processes. The app itself reads and writes
+ * them through the {@link ClockRepository}, which also serves each uri of this provider.
+ */
 public class ClockProvider extends ContentProvider {
 
-    private ClockDatabaseHelper mOpenHelper;
+    private ClockRepository mRepository;
 
     private static final int ALARMS = 1;
     private static final int ALARMS_ID = 2;
@@ -50,67 +44,6 @@ public class ClockProvider extends ContentProvider {
     private static final int INSTANCES_ID = 4;
     private static final int ALARMS_WITH_INSTANCES = 5;
 
-    /**
-     * Projection map used by query for snoozed alarms.
-     */
-    private static final Map<String, String> sAlarmsWithInstancesProjection = new ArrayMap<>();
-    static {
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns._ID,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns._ID);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.HOUR,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.HOUR);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.MINUTES,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.MINUTES);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.DAYS_OF_WEEK,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.DAYS_OF_WEEK);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.ENABLED,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.ENABLED);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.VIBRATE,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.VIBRATE);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.LABEL,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.LABEL);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.RINGTONE,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.RINGTONE);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.DELETE_AFTER_USE,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.DELETE_AFTER_USE);
-        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.INCREASING_VOLUME,
-                ALARMS_TABLE_NAME + "." + AlarmsColumns.INCREASING_VOLUME);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "."
-                + InstancesColumns.ALARM_STATE,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.ALARM_STATE);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns._ID,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns._ID);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.YEAR,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.YEAR);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.MONTH,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.MONTH);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.DAY,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.DAY);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.HOUR,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.HOUR);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.MINUTES,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.MINUTES);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.LABEL,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.LABEL);
-        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.VIBRATE,
-                INSTANCES_TABLE_NAME + "." + InstancesColumns.VIBRATE);
-    }
-
-    private static final String ALARM_JOIN_INSTANCE_TABLE_STATEMENT =
-            ALARMS_TABLE_NAME + " LEFT JOIN " + INSTANCES_TABLE_NAME + " ON (" +
-            ALARMS_TABLE_NAME + "." + AlarmsColumns._ID + " = " + InstancesColumns.ALARM_ID + ")";
-
-    private static final String ALARM_JOIN_INSTANCE_WHERE_STATEMENT =
-            INSTANCES_TABLE_NAME + "." + InstancesColumns._ID + " IS NULL OR " +
-            INSTANCES_TABLE_NAME + "." + InstancesColumns._ID + " = (" +
-                    "SELECT " + InstancesColumns._ID +
-                    " FROM " + INSTANCES_TABLE_NAME +
-                    " WHERE " + InstancesColumns.ALARM_ID +
-                    " = " + ALARMS_TABLE_NAME + "." + AlarmsColumns._ID +
-                    " ORDER BY " + InstancesColumns.ALARM_STATE + ", " +
-                    InstancesColumns.YEAR + ", " + InstancesColumns.MONTH + ", " +
-                    InstancesColumns.DAY + " LIMIT 1)";
-
     private static final UriMatcher sURIMatcher = new UriMatcher(UriMatcher.NO_MATCH);
     static {
         sURIMatcher.addURI(ClockContract.AUTHORITY, "alarms", ALARMS);
@@ -125,56 +58,40 @@ public class ClockProvider extends ContentProvider {
 
     @Override
     public boolean onCreate() {
-        final Context context = getContext();
-        final Context storageContext;
-        // All N devices have split storage areas, but we may need to
-        // migrate existing database into the new device encrypted
-        // storage area, which is where our data lives from now on.
-        storageContext = context.createDeviceProtectedStorageContext();
-        if (!storageContext.moveDatabaseFrom(context, ClockDatabaseHelper.DATABASE_NAME)) {
-            LogUtils.wtf("Failed to migrate database: %s", ClockDatabaseHelper.DATABASE_NAME);
-        }
-
-        mOpenHelper = new ClockDatabaseHelper(storageContext);
+        mRepository = ClockRepository.getInstance(getContext());
         return true;
     }
 
     @Override
     public Cursor query(@NonNull Uri uri, String[] projectionIn, String selection,
             String[] selectionArgs, String sort) {
-        SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
-        SQLiteDatabase db = mOpenHelper.getReadableDatabase();
-
-        // Generate the body of the query
+        final Cursor ret;
         int match = sURIMatcher.match(uri);
         switch (match) {
             case ALARMS:
-                qb.setTables(ALARMS_TABLE_NAME);
+                ret = mRepository.query(ALARMS_TABLE_NAME, projectionIn, selection,
+                        selectionArgs, sort);
                 break;
             case ALARMS_ID:
-                qb.setTables(ALARMS_TABLE_NAME);
-                qb.appendWhere(AlarmsColumns._ID + "=");
-                qb.appendWhere(uri.getLastPathSegment());
+                ret = mRepository.queryById(ALARMS_TABLE_NAME, uri.getLastPathSegment(),
+                        projectionIn, selection, selectionArgs, sort);
                 break;
             case INSTANCES:
-                qb.setTables(INSTANCES_TABLE_NAME);
+                ret = mRepository.query(INSTANCES_TABLE_NAME, projectionIn, selection,
+                        selectionArgs, sort);
                 break;
             case INSTANCES_ID:
-                qb.setTables(INSTANCES_TABLE_NAME);
-                qb.appendWhere(InstancesColumns._ID + "=");
-                qb.appendWhere(uri.getLastPathSegment());
+                ret = mRepository.queryById(INSTANCES_TABLE_NAME, uri.getLastPathSegment(),
+                        projectionIn, selection, selectionArgs, sort);
                 break;
             case ALARMS_WITH_INSTANCES:
-                qb.setTables(ALARM_JOIN_INSTANCE_TABLE_STATEMENT);
-                qb.appendWhere(ALARM_JOIN_INSTANCE_WHERE_STATEMENT);
-                qb.setProjectionMap(sAlarmsWithInstancesProjection);
+                ret = mRepository.queryAlarmsWithInstances(projectionIn, selection,
+                        selectionArgs, sort);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown URI " + uri);
         }
 
-        Cursor ret = qb.query(db, projectionIn, selection, selectionArgs, null, null, sort);
-
         if (ret == null) {
             LogUtils.e("Alarms.query: failed");
         } else {
@@ -205,97 +122,66 @@ public class ClockProvider extends ContentProvider {
     public int update(@NonNull Uri uri, ContentValues values, String where, String[] whereArgs) {
         int count;
         String alarmId;
-        SQLiteDatabase db = mOpenHelper.getWritableDatabase();
         switch (sURIMatcher.match(uri)) {
             case ALARMS_ID:
                 alarmId = uri.getLastPathSegment();
-                count = db.update(ALARMS_TABLE_NAME, values,
-                        AlarmsColumns._ID + "=" + alarmId,
-                        null);
+                count = mRepository.updateById(ALARMS_TABLE_NAME, alarmId, values);
                 break;
             case INSTANCES_ID:
                 alarmId = uri.getLastPathSegment();
-                count = db.update(INSTANCES_TABLE_NAME, values,
-                        InstancesColumns._ID + "=" + alarmId,
-                        null);
+                count = mRepository.updateById(INSTANCES_TABLE_NAME, alarmId, values);
                 break;
             default: {
                 throw new UnsupportedOperationException("Cannot update URI: " + uri);
             }
         }
         LogUtils.v("*** notifyChange() id: " + alarmId + " url " + uri);
-        notifyChange(getContext().getContentResolver(), uri);
+        mRepository.notifyChange(uri);
         return count;
     }
 
     @Override
     public Uri insert(@NonNull Uri uri, ContentValues initialValues) {
         long rowId;
-        SQLiteDatabase db = mOpenHelper.getWritableDatabase();
         switch (sURIMatcher.match(uri)) {
             case ALARMS:
-                rowId = mOpenHelper.fixAlarmInsert(initialValues);
+                rowId = mRepository.insert(ALARMS_TABLE_NAME, initialValues);
                 break;
             case INSTANCES:
-                rowId = db.insert(INSTANCES_TABLE_NAME, null, initialValues);
+                rowId = mRepository.insert(INSTANCES_TABLE_NAME, initialValues);
                 break;
             default:
                 throw new IllegalArgumentException("Cannot insert from URI: " + uri);
         }
 
         Uri uriResult = ContentUris.withAppendedId(uri, rowId);
-        notifyChange(getContext().getContentResolver(), uriResult);
+        mRepository.notifyChange(uriResult);
         return uriResult;
     }
 
     @Override
     public int delete(@NonNull Uri uri, String where, String[] whereArgs) {
         int count;
-        String primaryKey;
-        SQLiteDatabase db = mOpenHelper.getWritableDatabase();
         switch (sURIMatcher.match(uri)) {
             case ALARMS:
-                count = db.delete(ALARMS_TABLE_NAME, where, whereArgs);
+                count = mRepository.delete(ALARMS_TABLE_NAME, where, whereArgs);
                 break;
             case ALARMS_ID:
-                primaryKey = uri.getLastPathSegment();
-                if (TextUtils.isEmpty(where)) {
-                    where = AlarmsColumns._ID + "=" + primaryKey;
-                } else {
-                    where = AlarmsColumns._ID + "=" + primaryKey + " AND (" + where + ")";
-                }
-                count = db.delete(ALARMS_TABLE_NAME, where, whereArgs);
+                count = mRepository.deleteById(ALARMS_TABLE_NAME, uri.getLastPathSegment(),
+                        where, whereArgs);
                 break;
             case INSTANCES:
-                count = db.delete(INSTANCES_TABLE_NAME, where, whereArgs);
+                count = mRepository.delete(INSTANCES_TABLE_NAME, where, whereArgs);
                 break;
             case INSTANCES_ID:
-                primaryKey = uri.getLastPathSegment();
-                if (TextUtils.isEmpty(where)) {
-                    where = InstancesColumns._ID + "=" + primaryKey;
-                } else {
-                    where = InstancesColumns._ID + "=" + primaryKey + " AND (" + where + ")";
-                }
-                count = db.delete(INSTANCES_TABLE_NAME, where, whereArgs);
+                count = mRepository.deleteById(INSTANCES_TABLE_NAME, uri.getLastPathSegment(),
+                        where, whereArgs);
                 break;
             default:
                 throw new IllegalArgumentException("Cannot delete from URI: " + uri);
         }
 
-        notifyChange(getContext().getContentResolver(), uri);
+        mRepository.notifyChange(uri);
         return count;
     }
-
-    /**
-     * Notify affected URIs of changes.
-     */
-    private void notifyChange(ContentResolver resolver, Uri uri) {
-        resolver.notifyChange(uri, null);
-
-        final int match = sURIMatcher.match(uri);
-        // Also notify the joined table of changes to instances or alarms.
-        if (match == ALARMS || match == INSTANCES || match == ALARMS_ID || match == INSTANCES_ID) {
-            resolver.notifyChange(AlarmsColumns.ALARMS_WITH_INSTANCES_URI, null);
-        }
-    }
 }
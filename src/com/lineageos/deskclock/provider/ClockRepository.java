@@ -0,0 +1,463 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.provider;
+
+import static com.lineageos.deskclock.provider.ClockContract.AlarmsColumns;
+import static com.lineageos.deskclock.provider.ClockContract.InstancesColumns;
+import static com.lineageos.deskclock.provider.ClockDatabaseHelper.ALARMS_TABLE_NAME;
+import static com.lineageos.deskclock.provider.ClockDatabaseHelper.INSTANCES_TABLE_NAME;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.database.sqlite.SQLiteStatement;
+import android.net.Uri;
+import android.util.ArrayMap;
+
+import com.lineageos.deskclock.LogUtils;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes alarms and alarm instances directly in the database of the
+ * {@link ClockProvider}. The app lives in the same process as the provider, so {@link Alarm} and
+ * {@link AlarmInstance} use this class rather than a {@link ContentResolver}; that skips the uri
+ * matching and the registration of a content observer for each query. The provider itself only
+ * translates its uris into calls of this class. May be used from any thread.
+ */
+final class ClockRepository {
+
+    /**
+     * Projection map used by query for snoozed alarms.
+     */
+    private static final Map<String, String> sAlarmsWithInstancesProjection = new ArrayMap<>();
+    static {
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns._ID,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns._ID);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.HOUR,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.HOUR);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.MINUTES,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.MINUTES);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.DAYS_OF_WEEK,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.DAYS_OF_WEEK);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.ENABLED,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.ENABLED);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.VIBRATE,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.VIBRATE);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.LABEL,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.LABEL);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.RINGTONE,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.RINGTONE);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.DELETE_AFTER_USE,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.DELETE_AFTER_USE);
+        sAlarmsWithInstancesProjection.put(ALARMS_TABLE_NAME + "." + AlarmsColumns.INCREASING_VOLUME,
+                ALARMS_TABLE_NAME + "." + AlarmsColumns.INCREASING_VOLUME);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "."
+                + InstancesColumns.ALARM_STATE,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.ALARM_STATE);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns._ID,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns._ID);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.YEAR,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.YEAR);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.MONTH,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.MONTH);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.DAY,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.DAY);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.HOUR,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.HOUR);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.MINUTES,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.MINUTES);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.LABEL,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.LABEL);
+        sAlarmsWithInstancesProjection.put(INSTANCES_TABLE_NAME + "." + InstancesColumns.VIBRATE,
+                INSTANCES_TABLE_NAME + "." + InstancesColumns.VIBRATE);
+    }
+
+    private static final String ALARM_JOIN_INSTANCE_TABLE_STATEMENT =
+            ALARMS_TABLE_NAME + " LEFT JOIN " + INSTANCES_TABLE_NAME + " ON (" +
+            ALARMS_TABLE_NAME + "." + AlarmsColumns._ID + " = " + InstancesColumns.ALARM_ID + ")";
+
+    private static final String ALARM_JOIN_INSTANCE_WHERE_STATEMENT =
+            INSTANCES_TABLE_NAME + "." + InstancesColumns._ID + " IS NULL OR " +
+            INSTANCES_TABLE_NAME + "." + InstancesColumns._ID + " = (" +
+                    "SELECT " + InstancesColumns._ID +
+                    " FROM " + INSTANCES_TABLE_NAME +
+                    " WHERE " + InstancesColumns.ALARM_ID +
+                    " = " + ALARMS_TABLE_NAME + "." + AlarmsColumns._ID +
+                    " ORDER BY " + InstancesColumns.ALARM_STATE + ", " +
+                    InstancesColumns.YEAR + ", " + InstancesColumns.MONTH + ", " +
+                    InstancesColumns.DAY + " LIMIT 1)";
+
+    /**
+     * Builds queries of the alarms joined with their next instance. It is configured once and only
+     * read afterwards, so it may be shared by concurrent queries.
+     */
+    private static final SQLiteQueryBuilder sAlarmsWithInstancesQuery = new SQLiteQueryBuilder();
+    static {
+        sAlarmsWithInstancesQuery.setTables(ALARM_JOIN_INSTANCE_TABLE_STATEMENT);
+        sAlarmsWithInstancesQuery.appendWhere(ALARM_JOIN_INSTANCE_WHERE_STATEMENT);
+        sAlarmsWithInstancesQuery.setProjectionMap(sAlarmsWithInstancesProjection);
+    }
+
+    /** Selects a row by id. The id is always bound so the statement is compiled only once. */
+    private static final String ID_SELECTION = "_id = ?";
+
+    /** Rewrites every column of an alarm but its id, which is bound last. */
+    private static final String UPDATE_ALARM_STATEMENT = "UPDATE " + ALARMS_TABLE_NAME + " SET "
+            + AlarmsColumns.ENABLED + " = ?, "
+            + AlarmsColumns.HOUR + " = ?, "
+            + AlarmsColumns.MINUTES + " = ?, "
+            + AlarmsColumns.DAYS_OF_WEEK + " = ?, "
+            + AlarmsColumns.VIBRATE + " = ?, "
+            + AlarmsColumns.LABEL + " = ?, "
+            + AlarmsColumns.DELETE_AFTER_USE + " = ?, "
+            + AlarmsColumns.INCREASING_VOLUME + " = ?, "
+            + AlarmsColumns.RINGTONE + " = ? "
+            + "WHERE " + ID_SELECTION;
+
+    /** Rewrites every column of an instance but its id, which is bound last. */
+    private static final String UPDATE_INSTANCE_STATEMENT = "UPDATE " + INSTANCES_TABLE_NAME
+            + " SET "
+            + InstancesColumns.YEAR + " = ?, "
+            + InstancesColumns.MONTH + " = ?, "
+            + InstancesColumns.DAY + " = ?, "
+            + InstancesColumns.HOUR + " = ?, "
+            + InstancesColumns.MINUTES + " = ?, "
+            + InstancesColumns.LABEL + " = ?, "
+            + InstancesColumns.VIBRATE + " = ?, "
+            + InstancesColumns.RINGTONE + " = ?, "
+            + InstancesColumns.ALARM_ID + " = ?, "
+            + InstancesColumns.ALARM_STATE + " = ?, "
+            + InstancesColumns.INCREASING_VOLUME + " = ?, "
+            + InstancesColumns.ALARM_TIME + " = ? "
+            + "WHERE " + ID_SELECTION;
+
+    private static final String UPDATE_ALARM_TIME_STATEMENT = "UPDATE " + INSTANCES_TABLE_NAME
+            + " SET " + InstancesColumns.ALARM_TIME + " = ? WHERE " + ID_SELECTION;
+
+    private static volatile ClockRepository sInstance;
+
+    private final ClockDatabaseHelper mOpenHelper;
+
+    /** Delivers change notifications to the observers of the provider's uris. */
+    private final ContentResolver mContentResolver;
+
+    /**
+     * Compiled once and reused for every write of their kind. A statement holds its bound
+     * arguments, so each is bound and executed while holding its lock.
+     */
+    private SQLiteStatement mUpdateAlarmStatement;
+    private SQLiteStatement mUpdateInstanceStatement;
+    private SQLiteStatement mUpdateAlarmTimeStatement;
+
+    private ClockRepository(Context context) {
+        final Context storageContext;
+        // All N devices have split storage areas, but we may need to
+        // migrate existing database into the new device encrypted
+        // storage area, which is where our data lives from now on.
+        storageContext = context.createDeviceProtectedStorageContext();
+        if (!storageContext.moveDatabaseFrom(context, ClockDatabaseHelper.DATABASE_NAME)) {
+            LogUtils.wtf("Failed to migrate database: %s", ClockDatabaseHelper.DATABASE_NAME);
+        }
+
+        mOpenHelper = new ClockDatabaseHelper(storageContext);
+        mContentResolver = context.getContentResolver();
+    }
+
+    /**
+     * @return the repository, which is created on first use
+     */
+    static ClockRepository getInstance(Context context) {
+        ClockRepository repository = sInstance;
+        if (repository == null) {
+            synchronized (ClockRepository.class) {
+                repository = sInstance;
+                if (repository == null) {
+                    repository = new ClockRepository(context.getApplicationContext());
+                    sInstance = repository;
+                }
+            }
+        }
+        return repository;
+    }
+
+    //
+    // Raw access on behalf of the ClockProvider.
+    //
+
+    Cursor query(String table, String[] projection, String selection, String[] selectionArgs,
+            String sort) {
+        return mOpenHelper.getReadableDatabase().query(table, projection, selection,
+                selectionArgs, null, null, sort);
+    }
+
+    /**
+     * @param id the id of the row, which is bound as the first argument
+     */
+    Cursor queryById(String table, String id, String[] projection, String selection,
+            String[] selectionArgs, String sort) {
+        return query(table, projection, withId(selection), withId(id, selectionArgs), sort);
+    }
+
+    Cursor queryAlarmsWithInstances(String[] projection, String selection,
+            String[] selectionArgs, String sort) {
+        return sAlarmsWithInstancesQuery.query(mOpenHelper.getReadableDatabase(), projection,
+                selection, selectionArgs, null, null, sort);
+    }
+
+    /**
+     * @return the id of the inserted row
+     */
+    long insert(String table, ContentValues values) {
+        if (ALARMS_TABLE_NAME.equals(table)) {
+            return mOpenHelper.fixAlarmInsert(values);
+        }
+        return mOpenHelper.getWritableDatabase().insert(table, null, values);
+    }
+
+    int updateById(String table, String id, ContentValues values) {
+        return mOpenHelper.getWritableDatabase().update(table, values, ID_SELECTION,
+                new String[] { id });
+    }
+
+    int delete(String table, String selection, String[] selectionArgs) {
+        return mOpenHelper.getWritableDatabase().delete(table, selection, selectionArgs);
+    }
+
+    int deleteById(String table, String id, String selection, String[] selectionArgs) {
+        return delete(table, withId(selection), withId(id, selectionArgs));
+    }
+
+    /**
+     * Notifies the observers of {@code uri} and of the alarms joined with their instances, which
+     * change along with any alarm or instance, in a single call.
+     */
+    void notifyChange(Uri uri) {
+        mContentResolver.notifyChange(
+                Arrays.asList(uri, AlarmsColumns.ALARMS_WITH_INSTANCES_URI), null, 0);
+    }
+
+    //
+    // Typed access for the app.
+    //
+
+    /**
+     * @return the alarm with the given id; {@code null} if none exists
+     */
+    Alarm getAlarm(long alarmId) {
+        final List<Alarm> alarms = getAlarms(ID_SELECTION, String.valueOf(alarmId));
+        return alarms.isEmpty() ? null : alarms.get(0);
+    }
+
+    /**
+     * @return the alarms matching the selection; an empty list if none match
+     */
+    List<Alarm> getAlarms(String selection, String... selectionArgs) {
+        final List<Alarm> result = new LinkedList<>();
+        try (Cursor cursor = query(ALARMS_TABLE_NAME, Alarm.QUERY_COLUMNS, selection,
+                selectionArgs, null)) {
+            while (cursor.moveToNext()) {
+                result.add(new Alarm(cursor));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the id of the inserted alarm
+     */
+    long insertAlarm(Alarm alarm) {
+        final long alarmId = insert(ALARMS_TABLE_NAME, Alarm.createContentValues(alarm));
+        notifyChange(Alarm.getContentUri(alarmId));
+        return alarmId;
+    }
+
+    /**
+     * @return the number of updated alarms
+     */
+    int updateAlarm(Alarm alarm) {
+        final int count;
+        synchronized (this) {
+            if (mUpdateAlarmStatement == null) {
+                mUpdateAlarmStatement =
+                        mOpenHelper.getWritableDatabase().compileStatement(UPDATE_ALARM_STATEMENT);
+            }
+        }
+        final SQLiteStatement statement = mUpdateAlarmStatement;
+        synchronized (statement) {
+            statement.bindLong(1, alarm.enabled ? 1 : 0);
+            statement.bindLong(2, alarm.hour);
+            statement.bindLong(3, alarm.minutes);
+            statement.bindLong(4, alarm.daysOfWeek.getBits());
+            statement.bindLong(5, alarm.vibrate ? 1 : 0);
+            bindStringOrNull(statement, 6, alarm.label);
+            statement.bindLong(7, alarm.deleteAfterUse ? 1 : 0);
+            statement.bindLong(8, alarm.increasingVolume ? 1 : 0);
+            // Null picks up changes to the default alarm ringtone.
+            bindStringOrNull(statement, 9, alarm.alert == null ? null : alarm.alert.toString());
+            statement.bindLong(10, alarm.id);
+            count = statement.executeUpdateDelete();
+        }
+        notifyChange(Alarm.getContentUri(alarm.id));
+        return count;
+    }
+
+    /**
+     * @return the number of deleted alarms
+     */
+    int deleteAlarm(long alarmId) {
+        final int count = delete(ALARMS_TABLE_NAME, ID_SELECTION,
+                new String[] { String.valueOf(alarmId) });
+        notifyChange(Alarm.getContentUri(alarmId));
+        return count;
+    }
+
+    /**
+     * @return the instance with the given id; {@code null} if none exists
+     */
+    AlarmInstance getInstance(long instanceId) {
+        final List<AlarmInstance> instances =
+                getInstances(ID_SELECTION, String.valueOf(instanceId));
+        return instances.isEmpty() ? null : instances.get(0);
+    }
+
+    /**
+     * @return the instances matching the selection; an empty list if none match
+     */
+    List<AlarmInstance> getInstances(String selection, String... selectionArgs) {
+        final List<AlarmInstance> result = new LinkedList<>();
+        try (Cursor cursor = query(INSTANCES_TABLE_NAME, AlarmInstance.QUERY_COLUMNS, selection,
+                selectionArgs, null)) {
+            while (cursor.moveToNext()) {
+                result.add(new AlarmInstance(cursor, false /* joinedTable */));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the id of the inserted instance
+     */
+    long insertInstance(AlarmInstance instance) {
+        final long instanceId = insert(INSTANCES_TABLE_NAME,
+                AlarmInstance.createContentValues(instance));
+        instance.mStoredAlarmTime = instance.getAlarmTime().getTimeInMillis();
+        notifyChange(AlarmInstance.getContentUri(instanceId));
+        return instanceId;
+    }
+
+    /**
+     * @return the number of updated instances
+     */
+    int updateInstance(AlarmInstance instance) {
+        final long alarmTime = instance.getAlarmTime().getTimeInMillis();
+        final int count;
+        synchronized (this) {
+            if (mUpdateInstanceStatement == null) {
+                mUpdateInstanceStatement = mOpenHelper.getWritableDatabase()
+                        .compileStatement(UPDATE_INSTANCE_STATEMENT);
+            }
+        }
+        final SQLiteStatement statement = mUpdateInstanceStatement;
+        synchronized (statement) {
+            statement.bindLong(1, instance.mYear);
+            statement.bindLong(2, instance.mMonth);
+            statement.bindLong(3, instance.mDay);
+            statement.bindLong(4, instance.mHour);
+            statement.bindLong(5, instance.mMinute);
+            bindStringOrNull(statement, 6, instance.mLabel);
+            statement.bindLong(7, instance.mVibrate ? 1 : 0);
+            // Null picks up changes to the default alarm ringtone.
+            bindStringOrNull(statement, 8,
+                    instance.mRingtone == null ? null : instance.mRingtone.toString());
+            if (instance.mAlarmId == null) {
+                statement.bindNull(9);
+            } else {
+                statement.bindLong(9, instance.mAlarmId);
+            }
+            statement.bindLong(10, instance.mAlarmState);
+            statement.bindLong(11, instance.mIncreasingVolume ? 1 : 0);
+            statement.bindLong(12, alarmTime);
+            statement.bindLong(13, instance.mId);
+            count = statement.executeUpdateDelete();
+        }
+        instance.mStoredAlarmTime = alarmTime;
+        notifyChange(AlarmInstance.getContentUri(instance.mId));
+        return count;
+    }
+
+    /**
+     * @return the number of updated instances
+     */
+    int updateAlarmTime(long instanceId, long alarmTime) {
+        final int count;
+        synchronized (this) {
+            if (mUpdateAlarmTimeStatement == null) {
+                mUpdateAlarmTimeStatement = mOpenHelper.getWritableDatabase()
+                        .compileStatement(UPDATE_ALARM_TIME_STATEMENT);
+            }
+        }
+        final SQLiteStatement statement = mUpdateAlarmTimeStatement;
+        synchronized (statement) {
+            statement.bindLong(1, alarmTime);
+            statement.bindLong(2, instanceId);
+            count = statement.executeUpdateDelete();
+        }
+        notifyChange(AlarmInstance.getContentUri(instanceId));
+        return count;
+    }
+
+    /**
+     * @return the number of deleted instances
+     */
+    int deleteInstance(long instanceId) {
+        final int count = delete(INSTANCES_TABLE_NAME, ID_SELECTION,
+                new String[] { String.valueOf(instanceId) });
+        notifyChange(AlarmInstance.getContentUri(instanceId));
+        return count;
+    }
+
+    /**
+     * @param selection an additional selection supplied by the caller; may be empty
+     * @return the selection of the row whose id is bound first that also satisfies the caller's
+     *      selection
+     */
+    private static String withId(String selection) {
+        return DatabaseUtils.concatenateWhere(ID_SELECTION, selection);
+    }
+
+    /**
+     * @return the {@code id} followed by the {@code selectionArgs}
+     */
+    private static String[] withId(String id, String[] selectionArgs) {
+        return DatabaseUtils.appendSelectionArgs(new String[] { id }, selectionArgs);
+    }
+
+    private static void bindStringOrNull(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+}
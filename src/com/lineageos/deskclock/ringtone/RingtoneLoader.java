@@ -17,13 +17,15 @@
 package com.lineageos.deskclock.ringtone;
 
 import static android.media.AudioManager.STREAM_ALARM;
+import static android.media.RingtoneManager.TITLE_COLUMN_INDEX;
 import static com.lineageos.deskclock.Utils.RINGTONE_SILENT;
 
 import android.content.Context;
 import android.database.Cursor;
-import android.database.MatrixCursor;
 import android.media.RingtoneManager;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.loader.content.AsyncTaskLoader;
 
@@ -38,19 +40,45 @@ import java.util.List;
 
 /**
  * Assembles the list of ItemHolders that back the RecyclerView used to choose a ringtone.
+ *
+ * <p>Scanning the system ringtones can be slow on devices with large media libraries, so the
+ * list is delivered in pages: the first page is delivered as soon as it is read and each later
+ * page is delivered with all of the pages before it. Each delivery is a prefix of the final
+ * result; {@link #isDeliveringPage()} distinguishes the pages from the complete list. The system
+ * ringtones found by a complete scan are remembered in {@link SystemRingtoneCatalog} so later
+ * loads need not scan again.</p>
  */
 class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>> {
 
+    /** The number of system ringtones in the first page; enough to fill the screen. */
+    private static final int FIRST_PAGE_SIZE = 16;
+
+    /** The number of system ringtones in each later page. */
+    private static final int PAGE_SIZE = 128;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
     private final Uri mDefaultRingtoneUri;
     private final String mDefaultRingtoneTitle;
     private List<CustomRingtone> mCustomRingtones;
 
+    /** {@code true} while a partial result is being delivered on the main thread. */
+    private boolean mDeliveringPage;
+
     RingtoneLoader(Context context, Uri defaultRingtoneUri, String defaultRingtoneTitle) {
         super(context);
         mDefaultRingtoneUri = defaultRingtoneUri;
         mDefaultRingtoneTitle = defaultRingtoneTitle;
     }
 
+    /**
+     * @return {@code true} if the result being delivered is a page of a load still in progress;
+     *      {@code false} if it is the complete list
+     */
+    boolean isDeliveringPage() {
+        return mDeliveringPage;
+    }
+
     @Override
     protected void onStartLoading() {
         super.onStartLoading();
@@ -61,32 +89,17 @@ class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>>
 
     @Override
     public List<ItemAdapter.ItemHolder<Uri>> loadInBackground() {
-        // Prime the ringtone title cache for later access.
-        DataModel.getDataModel().loadRingtoneTitles();
         DataModel.getDataModel().loadRingtonePermissions();
 
-        // Fetch the standard system ringtones.
-        final RingtoneManager ringtoneManager = new RingtoneManager(getContext());
-        ringtoneManager.setType(STREAM_ALARM);
-
-        Cursor systemRingtoneCursor;
-        try {
-            systemRingtoneCursor = ringtoneManager.getCursor();
-        } catch (Exception e) {
-            LogUtils.e("Could not get system ringtone cursor");
-            systemRingtoneCursor = new MatrixCursor(new String[] {});
-        }
-        final int systemRingtoneCount = systemRingtoneCursor.getCount();
-        // item count = # system ringtones + # custom ringtones + 2 headers + Add new music item
-        final int itemCount = systemRingtoneCount + mCustomRingtones.size() + 3;
-
-        final List<ItemAdapter.ItemHolder<Uri>> itemHolders = new ArrayList<>(itemCount);
+        final List<CustomRingtone> customRingtones = mCustomRingtones;
+        final List<ItemAdapter.ItemHolder<Uri>> itemHolders =
+                new ArrayList<>(customRingtones.size() + FIRST_PAGE_SIZE + 5);
 
         // Add the item holder for the Music heading.
         itemHolders.add(new HeaderHolder(R.string.your_sounds));
 
-        // Add an item holder for each custom ringtone and also cache a pretty name.
-        for (CustomRingtone ringtone : mCustomRingtones) {
+        // Add an item holder for each custom ringtone.
+        for (CustomRingtone ringtone : customRingtones) {
             itemHolders.add(new CustomRingtoneHolder(ringtone));
         }
 
@@ -102,12 +115,47 @@ class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>>
         // Add an item holder for the system default alarm sound.
         itemHolders.add(new SystemRingtoneHolder(mDefaultRingtoneUri, mDefaultRingtoneTitle));
 
-        // Add an item holder for each system ringtone.
-        for (int i = 0; i < systemRingtoneCount; i++) {
-            final Uri ringtoneUri = ringtoneManager.getRingtoneUri(i);
-            itemHolders.add(new SystemRingtoneHolder(ringtoneUri, null));
+        // Reuse the system ringtones found by an earlier scan if they remain valid.
+        final int generation = SystemRingtoneCatalog.startScan(getContext());
+        final SystemRingtoneCatalog.Entries entries = SystemRingtoneCatalog.getEntries();
+        if (entries != null) {
+            for (int i = 0; i < entries.size(); i++) {
+                itemHolders.add(new SystemRingtoneHolder(entries.getUri(i), entries.getTitle(i)));
+            }
+            return itemHolders;
         }
 
+        // Fetch the standard system ringtones.
+        final RingtoneManager ringtoneManager = new RingtoneManager(getContext());
+        ringtoneManager.setType(STREAM_ALARM);
+
+        final List<Uri> uris = new ArrayList<>();
+        final List<String> titles = new ArrayList<>();
+        try (Cursor cursor = ringtoneManager.getCursor()) {
+            int pageEnd = itemHolders.size() + FIRST_PAGE_SIZE;
+            while (cursor.moveToNext()) {
+                if (isLoadInBackgroundCanceled()) {
+                    return itemHolders;
+                }
+
+                // The title comes from the same row, avoiding a second scan to look it up.
+                final Uri ringtoneUri = ringtoneManager.getRingtoneUri(cursor.getPosition());
+                final String ringtoneTitle = cursor.getString(TITLE_COLUMN_INDEX);
+                itemHolders.add(new SystemRingtoneHolder(ringtoneUri, ringtoneTitle));
+                uris.add(ringtoneUri);
+                titles.add(ringtoneTitle);
+
+                if (itemHolders.size() == pageEnd && !cursor.isLast()) {
+                    deliverPage(new ArrayList<>(itemHolders));
+                    pageEnd += PAGE_SIZE;
+                }
+            }
+        } catch (Exception e) {
+            LogUtils.e("Could not get system ringtone cursor", e);
+            return itemHolders;
+        }
+
+        SystemRingtoneCatalog.store(generation, uris, titles);
         return itemHolders;
     }
 
@@ -116,4 +164,18 @@ class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>>
         super.onReset();
         mCustomRingtones = null;
     }
+
+    /**
+     * Delivers a page of a load still in progress on the main thread. Pages are posted before
+     * the complete result so they always arrive before it.
+     */
+    private void deliverPage(List<ItemAdapter.ItemHolder<Uri>> itemHolders) {
+        mMainHandler.post(() -> {
+            if (isStarted() && !isAbandoned() && !isReset()) {
+                mDeliveringPage = true;
+                deliverResult(itemHolders);
+                mDeliveringPage = false;
+            }
+        });
+    }
 }
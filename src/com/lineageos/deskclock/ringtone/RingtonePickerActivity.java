@@ -60,6 +60,7 @@ import com.lineageos.deskclock.data.DataModel;
 import com.lineageos.deskclock.provider.Alarm;
 import com.lineageos.deskclock.widget.CollapsingToolbarBaseActivity;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -112,6 +113,9 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     /** Identifies the alarm to receive the selected ringtone; -1 indicates there is no alarm. */
     private long mAlarmId;
 
+    /** The number of item holders delivered so far by the current load. */
+    private int mLoadedItemCount;
+
     /**
      * @return an intent that launches the ringtone picker to edit the ringtone of the given
      *      {@code alarm}
@@ -189,13 +193,11 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
         if (mSelectedRingtoneUri != null) {
             if (mAlarmId != -1) {
                 final Context context = getApplicationContext();
-                final ContentResolver cr = getContentResolver();
-
                 // Start a background task to fetch the alarm whose ringtone must be updated.
                 ExecutorService executor = Executors.newSingleThreadExecutor();
                 Handler handler = new Handler(Looper.getMainLooper());
                 executor.execute(() -> {
-                    final Alarm alarm = Alarm.getAlarm(cr, mAlarmId);
+                    final Alarm alarm = Alarm.getAlarm(context, mAlarmId);
                     if (alarm != null) {
                         alarm.alert = mSelectedRingtoneUri;
 
@@ -220,6 +222,7 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     protected void onStop() {
         if (!isChangingConfigurations()) {
             stopPlayingRingtone(getSelectedRingtoneHolder(), false);
+            RingtonePreviewKlaxon.release(this);
         }
         super.onStop();
     }
@@ -242,21 +245,34 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     @Override
     public void onLoadFinished(@NonNull Loader<List<ItemAdapter.ItemHolder<Uri>>> loader,
                                List<ItemAdapter.ItemHolder<Uri>> itemHolders) {
-        // Update the adapter with fresh data.
-        mRingtoneAdapter.setItems(itemHolders);
+        final List<ItemAdapter.ItemHolder<Uri>> current = mRingtoneAdapter.getItems();
+        if (current != null && !current.isEmpty() && !itemHolders.isEmpty()
+                && current.get(0) == itemHolders.get(0)) {
+            // A later delivery of the same load only extends the data; append the new rows.
+            if (itemHolders.size() > mLoadedItemCount) {
+                mRingtoneAdapter.addItems(
+                        itemHolders.subList(mLoadedItemCount, itemHolders.size()));
+            }
+        } else {
+            // Update the adapter with fresh data.
+            mRingtoneAdapter.setItems(new ArrayList<>(itemHolders));
+        }
+        mLoadedItemCount = itemHolders.size();
 
         // Attempt to select the requested ringtone.
         final RingtoneHolder toSelect = getRingtoneHolder(mSelectedRingtoneUri);
         if (toSelect != null) {
-            toSelect.setSelected(true);
-            mSelectedRingtoneUri = toSelect.getUri();
-            toSelect.notifyItemChanged();
-
-            // Start playing the ringtone if indicated.
-            if (mIsPlaying) {
-                startPlayingRingtone(toSelect);
+            if (!toSelect.isSelected()) {
+                toSelect.setSelected(true);
+                mSelectedRingtoneUri = toSelect.getUri();
+                toSelect.notifyItemChanged();
+
+                // Start playing the ringtone if indicated.
+                if (mIsPlaying) {
+                    startPlayingRingtone(toSelect);
+                }
             }
-        } else {
+        } else if (!((RingtoneLoader) loader).isDeliveringPage()) {
             // Clear the selection since it does not exist in the data.
             RingtonePreviewKlaxon.stop(this);
             mSelectedRingtoneUri = null;
@@ -529,7 +545,7 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
                     RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
             // Update all alarms that use the custom ringtone to use the system default.
             final ContentResolver cr = getContentResolver();
-            final List<Alarm> alarms = Alarm.getAlarms(cr, null);
+            final List<Alarm> alarms = Alarm.getAlarms(RingtonePickerActivity.this, null);
             for (Alarm alarm : alarms) {
                 if (removeUri.equals(alarm.alert)) {
                     alarm.alert = systemDefaultRingtoneUri;
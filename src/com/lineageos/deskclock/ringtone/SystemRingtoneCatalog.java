@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.ringtone;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+
+import java.util.List;
+
+/**
+ * Remembers the system alarm ringtones found by the last complete scan of the
+ * {@link android.media.RingtoneManager} cursor so the picker can be reopened without rescanning.
+ * The catalog is discarded whenever the audio media tables change. May be used from any thread.
+ */
+final class SystemRingtoneCatalog {
+
+    /** The system ringtones found by the last complete scan; {@code null} if none is valid. */
+    private static volatile Entries sEntries;
+
+    /** Incremented each time the catalog is invalidated so that scans in flight are discarded. */
+    private static volatile int sGeneration;
+
+    /** {@code true} once the observer of the media tables has been registered. */
+    private static boolean sObserving;
+
+    private SystemRingtoneCatalog() {}
+
+    /**
+     * Begins observing the audio media tables, if not already doing so.
+     *
+     * @return the generation to pass to {@link #store} once a scan completes
+     */
+    static synchronized int startScan(Context context) {
+        if (!sObserving) {
+            final ContentResolver cr = context.getApplicationContext().getContentResolver();
+            final ContentObserver observer = new MediaChangeObserver();
+            cr.registerContentObserver(MediaStore.Audio.Media.INTERNAL_CONTENT_URI, true,
+                    observer);
+            cr.registerContentObserver(MediaStore.Audio.Media.EXTERNAL_CONTENT_URI, true,
+                    observer);
+            sObserving = true;
+        }
+        return sGeneration;
+    }
+
+    /**
+     * @return the cached system ringtones; {@code null} if a scan is required
+     */
+    static Entries getEntries() {
+        return sEntries;
+    }
+
+    /**
+     * Caches the result of a complete scan unless the media changed since it began.
+     */
+    static synchronized void store(int generation, List<Uri> uris, List<String> titles) {
+        if (generation != sGeneration) {
+            return;
+        }
+        sEntries = new Entries(uris.toArray(new Uri[0]), titles.toArray(new String[0]));
+    }
+
+    private static synchronized void invalidate() {
+        sGeneration++;
+        sEntries = null;
+    }
+
+    /**
+     * An immutable list of system ringtones in cursor order.
+     */
+    static final class Entries {
+
+        private final Uri[] mUris;
+        private final String[] mTitles;
+
+        private Entries(Uri[] uris, String[] titles) {
+            mUris = uris;
+            mTitles = titles;
+        }
+
+        int size() { return mUris.length; }
+        Uri getUri(int index) { return mUris[index]; }
+        String getTitle(int index) { return mTitles[index]; }
+    }
+
+    /**
+     * Ringtones are added, removed and renamed through the media tables; any change to them
+     * renders the catalog stale.
+     */
+    private static final class MediaChangeObserver extends ContentObserver {
+
+        private MediaChangeObserver() {
+            super(new Handler(Looper.getMainLooper()));
+        }
+
+        @Override
+        public void onChange(boolean selfChange) {
+            super.onChange(selfChange);
+            invalidate();
+        }
+    }
+}
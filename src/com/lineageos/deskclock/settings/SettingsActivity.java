@@ -34,6 +34,7 @@ import androidx.preference.PreferenceDialogFragmentCompat;
 import androidx.preference.PreferenceFragmentCompat;
 import androidx.preference.TwoStatePreference;
 
+import com.lineageos.deskclock.LogUtils;
 import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.Utils;
 import com.lineageos.deskclock.data.DataModel;
@@ -42,6 +43,8 @@ import com.lineageos.deskclock.data.Weekdays;
 import com.lineageos.deskclock.ringtone.RingtonePickerActivity;
 import com.lineageos.deskclock.widget.CollapsingToolbarBaseActivity;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Settings for the Alarm Clock.
  */
@@ -72,6 +75,9 @@ public final class SettingsActivity extends CollapsingToolbarBaseActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // Begin building the home time zone list while the preferences are inflated.
+        DataModel.getDataModel().loadTimeZones();
+
         super.onCreate(savedInstanceState);
 
         // Create the prefs fragment in code to ensure it's created before PreferenceDialogFragment
@@ -215,10 +221,34 @@ public final class SettingsActivity extends CollapsingToolbarBaseActivity {
         }
 
         /**
-         * Reconstruct the timezone list.
+         * Reconstruct the timezone list. It is usually cached; otherwise it is built in the
+         * background and the preference cannot be opened until it arrives.
          */
         private void loadTimeZoneList() {
-            final TimeZones timezones = DataModel.getDataModel().getTimeZones();
+            final CompletableFuture<TimeZones> future = DataModel.getDataModel().loadTimeZones();
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                setTimeZoneList(future.join());
+                return;
+            }
+
+            final ListPreference homeTimezonePref = findPreference(KEY_HOME_TZ);
+            homeTimezonePref.setSelectable(false);
+            future.whenCompleteAsync((loaded, e) -> {
+                if (!isAdded()) {
+                    return;
+                }
+
+                homeTimezonePref.setSelectable(true);
+                if (e == null) {
+                    setTimeZoneList(loaded);
+                } else {
+                    LogUtils.e("Unable to load time zones in the background", e);
+                    setTimeZoneList(DataModel.getDataModel().getTimeZones());
+                }
+            }, requireContext().getMainExecutor());
+        }
+
+        private void setTimeZoneList(TimeZones timezones) {
             final ListPreference homeTimezonePref = findPreference(KEY_HOME_TZ);
             homeTimezonePref.setEntryValues(timezones.getTimeZoneIds());
             homeTimezonePref.setEntries(timezones.getTimeZoneNames());
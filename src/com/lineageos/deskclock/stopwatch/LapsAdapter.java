@@ -35,6 +35,7 @@ import com.lineageos.deskclock.uidata.UiDataModel;
 
 import java.text.DecimalFormatSymbols;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Displays a list of lap times in reverse order. That is, the newest lap is at the top, the oldest
@@ -93,8 +94,10 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
         final int lapNumber;
         final long totalTime;
 
-        // Lap will be null for the current lap.
-        final Lap lap = position == 0 ? null : getLaps().get(position - 1);
+        // Only the lap being bound is read from the lap store. Lap will be null for the current lap.
+        final List<Lap> laps = getLaps();
+        final int lapCount = laps.size();
+        final Lap lap = position == 0 ? null : laps.get(position - 1);
         if (lap != null) {
             // For a recorded lap, merely extract the values to format.
             lapTime = lap.getLapTime();
@@ -104,23 +107,19 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
             // For the current lap, compute times relative to the stopwatch.
             totalTime = getStopwatch().getTotalTime();
             lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
-            lapNumber = getLaps().size() + 1;
+            lapNumber = lapCount + 1;
         }
 
         // Bind data into the child views.
         viewHolder.lapTime.setText(formatLapTime(lapTime, true));
         viewHolder.accumulatedTime.setText(formatAccumulatedTime(totalTime, true));
-        viewHolder.lapNumber.setText(formatLapNumber(getLaps().size() + 1, lapNumber));
+        viewHolder.lapNumber.setText(formatLapNumber(lapCount + 1, lapNumber));
     }
 
     @Override
     public long getItemId(int position) {
-        final List<Lap> laps = getLaps();
-        if (position == 0) {
-            return laps.size() + 1;
-        }
-
-        return laps.get(position - 1).getLapNumber();
+        // Laps are displayed newest first, so the lap number follows from the position alone.
+        return getLaps().size() + 1 - position;
     }
 
     /**
@@ -223,15 +222,20 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
     /**
      * @param lapCount the total number of recorded laps
      * @param lapNumber the number of the lap being formatted
-     * @return e.g. "# 7" if {@code lapCount} less than 10; "# 07" if {@code lapCount} is 10 or more
+     * @return e.g. "# 7" if {@code lapCount} less than 10; "# 07" if {@code lapCount} is 10 or
+     *      more; "# 007" if {@code lapCount} is 100 or more, and so on
      */
     @VisibleForTesting
     String formatLapNumber(int lapCount, int lapNumber) {
         if (lapCount < 10) {
             return mContext.getString(R.string.lap_number_single_digit, lapNumber);
-        } else {
-            return mContext.getString(R.string.lap_number_double_digit, lapNumber);
         }
+
+        // Widen the zero padding of the localized format to the number of digits in lapCount.
+        final int width = Integer.toString(lapCount).length();
+        final String format = mContext.getString(R.string.lap_number_double_digit)
+                .replace("%02d", "%0" + width + "d");
+        return String.format(Locale.getDefault(), format, lapNumber);
     }
 
     /**
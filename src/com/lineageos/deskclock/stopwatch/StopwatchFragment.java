@@ -573,6 +573,10 @@ public final class StopwatchFragment extends DeskClockFragment {
     private class StopwatchWatcher implements StopwatchListener {
         @Override
         public void stopwatchUpdated(Stopwatch before, Stopwatch after) {
+            // This tab only displays the primary stopwatch.
+            if (after == null || !after.isPrimary()) {
+                return;
+            }
             if (after.isReset()) {
                 // Ensure the drop shadow is hidden when the stopwatch is reset.
                 setTabScrolledToTop(true);
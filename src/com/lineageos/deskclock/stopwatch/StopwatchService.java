@@ -22,6 +22,7 @@ import android.os.IBinder;
 
 import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.Stopwatch;
 import com.lineageos.deskclock.events.Events;
 
 /**
@@ -46,6 +47,9 @@ public final class StopwatchService extends Service {
     // resets the stopwatch if it's stopped
     public static final String ACTION_RESET_STOPWATCH = ACTION_PREFIX + "RESET_STOPWATCH";
 
+    // identifies the stopwatch to which an action applies; the primary stopwatch if absent
+    public static final String EXTRA_STOPWATCH_ID = "com.lineageos.deskclock.extra.STOPWATCH_ID";
+
     @Override
     public IBinder onBind(Intent intent) {
         return null;
@@ -55,23 +59,25 @@ public final class StopwatchService extends Service {
     public int onStartCommand(Intent intent, int flags, int startId) {
         final String action = intent.getAction();
         final int label = intent.getIntExtra(Events.EXTRA_EVENT_LABEL, R.string.label_intent);
+        final int id = intent.getIntExtra(EXTRA_STOPWATCH_ID, Stopwatch.PRIMARY_ID);
         switch (action) {
             case ACTION_START_STOPWATCH: {
                 Events.sendStopwatchEvent(R.string.action_start, label);
-                DataModel.getDataModel().startStopwatch();
+                DataModel.getDataModel().startStopwatch(id);
                 break;
             }
             case ACTION_PAUSE_STOPWATCH: {
                 Events.sendStopwatchEvent(R.string.action_pause, label);
-                DataModel.getDataModel().pauseStopwatch();
+                DataModel.getDataModel().pauseStopwatch(id);
                 break;
             }
             case ACTION_RESET_STOPWATCH: {
                 Events.sendStopwatchEvent(R.string.action_reset, label);
-                DataModel.getDataModel().resetStopwatch();
+                DataModel.getDataModel().resetStopwatch(id);
                 break;
             }
             case ACTION_LAP_STOPWATCH: {
+                // Laps are only recorded for the primary stopwatch.
                 Events.sendStopwatchEvent(R.string.action_lap, label);
                 DataModel.getDataModel().addLap();
                 break;
@@ -18,18 +18,15 @@ import android.app.KeyguardManager;
 import android.content.pm.ActivityInfo;
 import android.os.Bundle;
 import android.os.SystemClock;
-import android.text.TextUtils;
-import android.transition.AutoTransition;
-import android.transition.TransitionManager;
 import android.view.Gravity;
 import android.view.KeyEvent;
 import android.view.View;
-import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.widget.FrameLayout;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.lineageos.deskclock.BaseActivity;
 import com.lineageos.deskclock.LogUtils;
@@ -37,6 +34,7 @@ import com.lineageos.deskclock.R;
 import com.lineageos.deskclock.data.DataModel;
 import com.lineageos.deskclock.data.Timer;
 import com.lineageos.deskclock.data.TimerListener;
+import com.lineageos.deskclock.timer.ExpiredTimersAdapter.ExpiredTimerHolder;
 
 import java.util.List;
 
@@ -53,11 +51,11 @@ public class ExpiredTimersActivity extends BaseActivity {
     /** Updates the timers displayed in this activity as the backing data changes. */
     private final TimerListener mTimerChangeWatcher = new TimerChangeWatcher();
 
-    /** The scene root for transitions when expired timers are added/removed from this container. */
-    private ViewGroup mExpiredTimersScrollView;
+    /** Supplies a row for each of the expired timers. */
+    private final ExpiredTimersAdapter mAdapter = new ExpiredTimersAdapter();
 
-    /** Displays the expired timers. */
-    private ViewGroup mExpiredTimersView;
+    /** Displays the expired timers; only the rows on screen are inflated. */
+    private RecyclerView mExpiredTimersView;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -75,7 +73,8 @@ public class ExpiredTimersActivity extends BaseActivity {
         setContentView(R.layout.expired_timers_activity);
 
         mExpiredTimersView = findViewById(R.id.expired_timers_list);
-        mExpiredTimersScrollView = findViewById(R.id.expired_timers_scroll);
+        mExpiredTimersView.setLayoutManager(new LinearLayoutManager(this));
+        mExpiredTimersView.setAdapter(mAdapter);
 
         final View view = findViewById(R.id.expired_timers_activity);
         view.setSystemUiVisibility(View.SYSTEM_UI_FLAG_LOW_PROFILE);
@@ -93,7 +92,7 @@ public class ExpiredTimersActivity extends BaseActivity {
             setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_NOSENSOR);
         }
 
-        // Create views for each of the expired timers.
+        // Create rows for each of the expired timers.
         for (Timer timer : expiredTimers) {
             addTimer(timer);
         }
@@ -154,74 +153,31 @@ public class ExpiredTimersActivity extends BaseActivity {
     }
 
     /**
-     * Create and add a new view that corresponds with the given {@code timer}.
+     * Add a row that corresponds with the given {@code timer}.
      */
     private void addTimer(Timer timer) {
-        TransitionManager.beginDelayedTransition(mExpiredTimersScrollView, new AutoTransition());
-
-        final int timerId = timer.getId();
-        final TimerItem timerItem = (TimerItem)
-                getLayoutInflater().inflate(R.layout.timer_item, mExpiredTimersView, false);
-        // Store the timer id as a tag on the view so it can be located on delete.
-        timerItem.setId(timerId);
-        mExpiredTimersView.addView(timerItem);
-
-        // Hide the label hint for expired timers.
-        final TextView labelView = timerItem.findViewById(R.id.timer_label);
-        labelView.setHint(null);
-        labelView.setVisibility(TextUtils.isEmpty(timer.getLabel()) ? View.GONE : View.VISIBLE);
-
-        // Add logic to the "Add 1 Minute" button.
-        final View addMinuteButton = timerItem.findViewById(R.id.add_one_min);
-        addMinuteButton.setOnClickListener(v -> {
-            final Timer timer1 = DataModel.getDataModel().getTimer(timerId);
-            DataModel.getDataModel().addTimerMinute(timer1);
-        });
-
-        // Add logic to hide the 'X' and reset button
-        final View closeButton = timerItem.findViewById(R.id.close);
-        closeButton.setVisibility(View.GONE);
-        final View resetButton = timerItem.findViewById(R.id.reset);
-        resetButton.setVisibility(View.GONE);
-
-        // Add logic to the "Stop" button
-        final View stopButton = timerItem.findViewById(R.id.play_pause);
-        stopButton.setOnClickListener(v -> {
-            final Timer timer1 = DataModel.getDataModel().getTimer(timerId);
-            DataModel.getDataModel().resetOrDeleteTimer(timer1, R.string.label_deskclock);
-            removeTimer(timer1);
-        });
+        mAdapter.addTimer(timer);
 
         // If the first timer was just added, center it.
-        final List<Timer> expiredTimers = getExpiredTimers();
-        if (expiredTimers.size() == 1) {
+        final int count = mAdapter.getItemCount();
+        if (count == 1) {
             centerFirstTimer();
-        } else if (expiredTimers.size() == 2) {
+        } else if (count == 2) {
             uncenterFirstTimer();
         }
     }
 
     /**
-     * Remove an existing view that corresponds with the given {@code timer}.
+     * Remove the row that corresponds with the given {@code timer}.
      */
     private void removeTimer(Timer timer) {
-        TransitionManager.beginDelayedTransition(mExpiredTimersScrollView, new AutoTransition());
-
-        final int timerId = timer.getId();
-        final int count = mExpiredTimersView.getChildCount();
-        for (int i = 0; i < count; ++i) {
-            final View timerView = mExpiredTimersView.getChildAt(i);
-            if (timerView.getId() == timerId) {
-                mExpiredTimersView.removeView(timerView);
-                break;
-            }
-        }
+        mAdapter.removeTimer(timer);
 
         // If the second last timer was just removed, center the last timer.
-        final List<Timer> expiredTimers = getExpiredTimers();
-        if (expiredTimers.isEmpty()) {
+        final int count = mAdapter.getItemCount();
+        if (count == 0) {
             finish();
-        } else if (expiredTimers.size() == 1) {
+        } else if (count == 1) {
             centerFirstTimer();
         }
     }
@@ -251,20 +207,20 @@ public class ExpiredTimersActivity extends BaseActivity {
     }
 
     /**
-     * Periodically refreshes the state of each timer.
+     * Periodically refreshes the state of each visible timer.
      */
     private class TimeUpdateRunnable implements Runnable {
         @Override
         public void run() {
             final long startTime = SystemClock.elapsedRealtime();
 
+            // Only the rows on screen are refreshed; others are bound when scrolled into view.
             final int count = mExpiredTimersView.getChildCount();
             for (int i = 0; i < count; ++i) {
-                final TimerItem timerItem = (TimerItem) mExpiredTimersView.getChildAt(i);
-                final Timer timer = DataModel.getDataModel().getTimer(timerItem.getId());
-                if (timer != null) {
-                    timerItem.update(timer);
-                }
+                final View child = mExpiredTimersView.getChildAt(i);
+                final ExpiredTimerHolder holder =
+                        (ExpiredTimerHolder) mExpiredTimersView.getChildViewHolder(child);
+                holder.updateTime();
             }
 
             final long endTime = SystemClock.elapsedRealtime();
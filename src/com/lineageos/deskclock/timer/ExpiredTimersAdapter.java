@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.timer;
+
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.lineageos.deskclock.R;
+import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Displays the expired timers in the order they expired. Only the rows on screen are inflated, so
+ * the cost of showing the timers does not grow with their number.
+ */
+class ExpiredTimersAdapter extends RecyclerView.Adapter<ExpiredTimersAdapter.ExpiredTimerHolder> {
+
+    /** The ids of the displayed timers in display order. */
+    private final List<Integer> mTimerIds = new ArrayList<>();
+
+    ExpiredTimersAdapter() {
+        setHasStableIds(true);
+    }
+
+    @Override
+    public int getItemCount() {
+        return mTimerIds.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mTimerIds.get(position);
+    }
+
+    @NonNull
+    @Override
+    public ExpiredTimerHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        final LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        final View view = inflater.inflate(R.layout.timer_item, parent, false);
+        return new ExpiredTimerHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ExpiredTimerHolder holder, int position) {
+        holder.bind(mTimerIds.get(position));
+    }
+
+    /**
+     * Appends the {@code timer} unless it is already displayed.
+     */
+    void addTimer(Timer timer) {
+        final Integer timerId = timer.getId();
+        if (!mTimerIds.contains(timerId)) {
+            mTimerIds.add(timerId);
+            notifyItemInserted(mTimerIds.size() - 1);
+        }
+    }
+
+    /**
+     * Removes the {@code timer} if it is displayed.
+     */
+    void removeTimer(Timer timer) {
+        final int position = mTimerIds.indexOf(timer.getId());
+        if (position != -1) {
+            mTimerIds.remove(position);
+            notifyItemRemoved(position);
+        }
+    }
+
+    /**
+     * Displays one expired timer. Only resetting the timer and adding a minute are possible.
+     */
+    static final class ExpiredTimerHolder extends RecyclerView.ViewHolder {
+
+        private final TimerItem mTimerItem;
+        private final TextView mLabelView;
+
+        private int mTimerId;
+
+        private ExpiredTimerHolder(View view) {
+            super(view);
+            mTimerItem = (TimerItem) view;
+
+            // Hide the label hint for expired timers.
+            mLabelView = view.findViewById(R.id.timer_label);
+            mLabelView.setHint(null);
+
+            // Hide the 'X' and reset button.
+            view.findViewById(R.id.close).setVisibility(View.GONE);
+            view.findViewById(R.id.reset).setVisibility(View.GONE);
+
+            view.findViewById(R.id.add_one_min).setOnClickListener(v -> {
+                final Timer timer = getTimer();
+                if (timer != null) {
+                    DataModel.getDataModel().addTimerMinute(timer);
+                }
+            });
+
+            // The activity removes the row once the timer is no longer expired.
+            view.findViewById(R.id.play_pause).setOnClickListener(v -> {
+                final Timer timer = getTimer();
+                if (timer != null) {
+                    DataModel.getDataModel().resetOrDeleteTimer(timer, R.string.label_deskclock);
+                }
+            });
+        }
+
+        private void bind(int timerId) {
+            mTimerId = timerId;
+            final Timer timer = getTimer();
+            if (timer != null) {
+                final boolean hasLabel = !TextUtils.isEmpty(timer.getLabel());
+                mLabelView.setVisibility(hasLabel ? View.VISIBLE : View.GONE);
+                mTimerItem.update(timer);
+            }
+        }
+
+        /**
+         * Refreshes the remaining time of the displayed timer.
+         */
+        void updateTime() {
+            final Timer timer = getTimer();
+            if (timer != null) {
+                mTimerItem.update(timer);
+            }
+        }
+
+        private Timer getTimer() {
+            return DataModel.getDataModel().getTimer(mTimerId);
+        }
+    }
+}
@@ -17,7 +17,7 @@
 package com.lineageos.deskclock.timer;
 
 import android.content.Context;
-import android.util.ArrayMap;
+import android.util.ArraySet;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -31,19 +31,26 @@ import com.lineageos.deskclock.data.TimerListener;
 import com.lineageos.deskclock.R;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * This adapter produces a {@link TimerViewHolder} for each timer.
  */
 class TimerAdapter extends RecyclerView.Adapter implements TimerListener {
 
-    /** Maps each timer id to the corresponding {@link TimerViewHolder} that draws it. */
-    private final Map<Integer, TimerViewHolder> mHolders = new ArrayMap<>();
+    /** The holders currently attached to the window; only these are ever on screen. */
+    private final ArraySet<TimerViewHolder> mAttachedHolders = new ArraySet<>();
     private final TimerClickHandler mTimerClickHandler;
 
-    public TimerAdapter(TimerClickHandler timerClickHandler) {
+    /** Informed when a holder that must be updated over time becomes visible. */
+    private final Runnable mUpdateScheduler;
+
+    /**
+     * @param updateScheduler run when a holder is attached whose timer changes over time, so
+     *      that {@link #updateTime} is scheduled
+     */
+    public TimerAdapter(TimerClickHandler timerClickHandler, Runnable updateScheduler) {
         mTimerClickHandler = timerClickHandler;
+        mUpdateScheduler = updateScheduler;
     }
 
     @Override
@@ -63,10 +70,23 @@ class TimerAdapter extends RecyclerView.Adapter implements TimerListener {
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder itemViewHolder, int position) {
         TimerViewHolder holder = (TimerViewHolder) itemViewHolder;
-        mHolders.put(getTimer(position).getId(), holder);
         holder.onBind(getTimer(position).getId());
     }
 
+    @Override
+    public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder itemViewHolder) {
+        final TimerViewHolder holder = (TimerViewHolder) itemViewHolder;
+        mAttachedHolders.add(holder);
+        if (holder.getNextUpdateTime() != Long.MAX_VALUE) {
+            mUpdateScheduler.run();
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(@NonNull RecyclerView.ViewHolder itemViewHolder) {
+        mAttachedHolders.remove((TimerViewHolder) itemViewHolder);
+    }
+
     @Override
     public void timerAdded(Timer timer) {
         notifyDataSetChanged();
@@ -74,7 +94,6 @@ class TimerAdapter extends RecyclerView.Adapter implements TimerListener {
 
     @Override
     public void timerRemoved(Timer timer) {
-        mHolders.remove(timer.getId());
         notifyDataSetChanged();
     }
 
@@ -84,14 +103,21 @@ class TimerAdapter extends RecyclerView.Adapter implements TimerListener {
     }
 
     /**
-     * @return {@code true} if at least one timer is in a state requiring continuous updates
+     * Refreshes the attached holders whose display is due to change; all others are skipped.
+     *
+     * @param now the current {@link android.os.SystemClock#elapsedRealtime()}
+     * @return the time at which an attached holder next changes; {@link Long#MAX_VALUE} if none
+     *      changes until its timer does
      */
-    boolean updateTime() {
-        boolean continuousUpdates = false;
-        for (TimerViewHolder holder : mHolders.values()) {
-            continuousUpdates |= holder.updateTime();
+    long updateTime(long now) {
+        long nextUpdateTime = Long.MAX_VALUE;
+        for (int i = mAttachedHolders.size() - 1; i >= 0; i--) {
+            final TimerViewHolder holder = mAttachedHolders.valueAt(i);
+            final long holderUpdateTime = holder.getNextUpdateTime() <= now
+                    ? holder.updateTime() : holder.getNextUpdateTime();
+            nextUpdateTime = Math.min(nextUpdateTime, holderUpdateTime);
         }
-        return continuousUpdates;
+        return nextUpdateTime;
     }
 
     Timer getTimer(int index) {
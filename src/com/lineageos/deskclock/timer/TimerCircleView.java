@@ -45,6 +45,9 @@ public final class TimerCircleView extends View {
     /** The size of the stroke that paints the timer circle. */
     private final float mStrokeSize;
 
+    /** Redraws the circle once the progress has moved far enough to be visible. */
+    private final Runnable mInvalidateRunnable = this::invalidate;
+
     private final Paint mPaint = new Paint();
     private final Paint mFill = new Paint();
     private final RectF mArcRect = new RectF();
@@ -137,7 +140,17 @@ public final class TimerCircleView extends View {
         canvas.drawCircle(dotX, dotY, mDotRadius, mFill);
 
         if (mTimer.isRunning()) {
-            postInvalidateOnAnimation();
+            // The progress moves one pixel along the circle each time this much time elapses.
+            final double circumference = 2 * Math.PI * radius;
+            final long pixelTime = (long) (mTimer.getTotalLength() / circumference);
+            removeCallbacks(mInvalidateRunnable);
+            postOnAnimationDelayed(mInvalidateRunnable, pixelTime);
         }
     }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(mInvalidateRunnable);
+    }
 }
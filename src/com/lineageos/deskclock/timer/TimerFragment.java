@@ -42,6 +42,7 @@ import android.view.ViewTreeObserver;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -104,7 +105,7 @@ public final class TimerFragment extends DeskClockFragment {
         final View view = inflater.inflate(R.layout.timer_fragment, container, false);
 
         mTimerClickHandler = new TimerClickHandler(this);
-        mAdapter = new TimerAdapter(mTimerClickHandler);
+        mAdapter = new TimerAdapter(mTimerClickHandler, this::resumeUpdatingTime);
         mRecyclerView = view.findViewById(R.id.recycler_view);
         mRecyclerView.setAdapter(mAdapter);
         mRecyclerView.setLayoutManager(getLayoutManager(view.getContext()));
@@ -489,6 +490,17 @@ public final class TimerFragment extends DeskClockFragment {
         mRecyclerView.removeCallbacks(mTimeUpdateRunnable);
     }
 
+    /**
+     * Restart updates that stopped because no visible timer changed over time, provided the
+     * timers are currently shown.
+     */
+    private void resumeUpdatingTime() {
+        if (mCurrentView == mTimersView
+                && getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            startUpdatingTime();
+        }
+    }
+
     private RecyclerView.LayoutManager getLayoutManager(Context context) {
         Resources res = context.getResources();
         boolean isTablet = res.getBoolean(R.bool.rotateAlarmAlert);
@@ -504,20 +516,19 @@ public final class TimerFragment extends DeskClockFragment {
     }
 
     /**
-     * Periodically refreshes the state of each timer.
+     * Refreshes the visible timers whose display is due to change and sleeps until the next one
+     * is due.
      */
     private class TimeUpdateRunnable implements Runnable {
         @Override
         public void run() {
-            final long startTime = SystemClock.elapsedRealtime();
-            // If no timers require continuous updates, avoid scheduling the next update.
-            if (!mAdapter.updateTime()) {
+            final long nextUpdateTime = mAdapter.updateTime(SystemClock.elapsedRealtime());
+            // If no visible timers change over time, avoid scheduling the next update.
+            if (nextUpdateTime == Long.MAX_VALUE) {
                 return;
             }
-            final long endTime = SystemClock.elapsedRealtime();
 
-            // Try to maintain a consistent period of time between redraws.
-            final long delay = Math.max(0, startTime + 20 - endTime);
+            final long delay = Math.max(0, nextUpdateTime - SystemClock.elapsedRealtime());
             mTimersView.postDelayed(this, delay);
         }
     }
@@ -538,9 +549,9 @@ public final class TimerFragment extends DeskClockFragment {
 
         @Override
         public void timerUpdated(Timer before, Timer after) {
-            // If the timer started, animate the timers.
-            if (before.isReset() && !after.isReset()) {
-                startUpdatingTime();
+            // If the timer started or resumed, animate the timers.
+            if ((before.isReset() || before.isPaused()) && !after.isReset() && !after.isPaused()) {
+                resumeUpdatingTime();
             }
         }
 
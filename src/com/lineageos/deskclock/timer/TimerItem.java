@@ -18,6 +18,7 @@ package com.lineageos.deskclock.timer;
 
 import static android.R.attr.state_activated;
 import static android.R.attr.state_pressed;
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
@@ -41,6 +42,9 @@ import com.lineageos.deskclock.data.Timer;
  */
 public class TimerItem extends ConstraintLayout {
 
+    /** The period in ms with which the circle of an expired or missed timer blinks. */
+    private static final long BLINK_PERIOD = 1000;
+
     /** Displays the remaining time or time since expiration. */
     private TextView mTimerText;
 
@@ -94,8 +98,11 @@ public class TimerItem extends ConstraintLayout {
 
     /**
      * Updates this view to display the latest state of the {@code timer}.
+     *
+     * @return the {@link SystemClock#elapsedRealtime()} at which the display next changes; see
+     *      {@link #getNextUpdateTime}
      */
-    void update(Timer timer) {
+    long update(Timer timer) {
         // Update the time.
         mTimerTextController.setTimeString(timer.getRemainingTime());
 
@@ -106,7 +113,8 @@ public class TimerItem extends ConstraintLayout {
         }
 
         // Update visibility of things that may blink.
-        final boolean blinkOff = SystemClock.elapsedRealtime() % 1000 < 500;
+        final long now = SystemClock.elapsedRealtime();
+        final boolean blinkOff = now % BLINK_PERIOD < BLINK_PERIOD / 2;
         if (mCircleView != null) {
             final boolean hideCircle = (timer.isExpired() || timer.isMissed()) && blinkOff;
             mCircleView.setVisibility(hideCircle ? INVISIBLE : VISIBLE);
@@ -148,5 +156,45 @@ public class TimerItem extends ConstraintLayout {
                 }
             }
         }
+
+        return getNextUpdateTime(timer, now);
+    }
+
+    /**
+     * The remaining time is displayed in whole seconds and the circle of an expired or missed
+     * timer blinks; nothing else changes until the timer itself does. The circle of a running
+     * timer paces its own redraws.
+     *
+     * @param now the current {@link SystemClock#elapsedRealtime()}
+     * @return the {@link SystemClock#elapsedRealtime()} at which the display of the {@code timer}
+     *      next changes; {@link Long#MAX_VALUE} if it does not change until the timer does
+     */
+    static long getNextUpdateTime(Timer timer, long now) {
+        if (timer.isReset() || timer.isPaused()) {
+            return Long.MAX_VALUE;
+        }
+        return getNextUpdateTime(timer.getRemainingTime(), timer.isExpired() || timer.isMissed(),
+                now);
+    }
+
+    /**
+     * @param remainingTime the remaining time of a running, expired or missed timer
+     * @param blinking whether the circle of the timer blinks
+     * @param now the current {@link SystemClock#elapsedRealtime()}
+     * @return the {@link SystemClock#elapsedRealtime()} at which the display of the timer next
+     *      changes
+     */
+    static long getNextUpdateTime(long remainingTime, boolean blinking, long now) {
+        // Positive times are rounded up to the second and negative times are rounded towards 0,
+        // so the displayed second changes whenever the remaining time crosses a whole second.
+        final long nextSecond = now + remainingTime
+                - Math.floorDiv(remainingTime - 1, SECOND_IN_MILLIS) * SECOND_IN_MILLIS;
+        if (!blinking) {
+            return nextSecond;
+        }
+
+        final long halfPeriod = BLINK_PERIOD / 2;
+        final long nextBlink = now + halfPeriod - now % halfPeriod;
+        return Math.min(nextSecond, nextBlink);
     }
 }
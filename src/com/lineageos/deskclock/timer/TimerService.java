@@ -92,6 +92,8 @@ public final class TimerService extends Service {
     public static Intent createAddMinuteTimerIntent(Context context, int timerId) {
         return new Intent(context, TimerService.class)
                 .setAction(ACTION_ADD_MINUTE_TIMER)
+                // Keeps the pending intents of different timers distinct.
+                .setIdentifier(String.valueOf(timerId))
                 .putExtra(EXTRA_TIMER_ID, timerId);
     }
 
@@ -33,6 +33,9 @@ import com.lineageos.deskclock.events.Events;
 public class TimerViewHolder extends RecyclerView.ViewHolder {
 
     private int mTimerId;
+
+    /** The time at which the displayed timer next changes; see {@link TimerItem#update}. */
+    private long mNextUpdateTime = Long.MAX_VALUE;
     private final TimerItem mTimerItem;
     private final TimerClickHandler mTimerClickHandler;
 
@@ -72,17 +75,28 @@ public class TimerViewHolder extends RecyclerView.ViewHolder {
     }
 
     /**
-     * @return {@code true} if the timer is in a state that requires continuous updates
+     * Refreshes the displayed timer.
+     *
+     * @return the {@link android.os.SystemClock#elapsedRealtime()} at which the displayed timer
+     *      next changes; {@link Long#MAX_VALUE} if it does not change until the timer does
      */
-    boolean updateTime() {
+    long updateTime() {
         final TimerItem view = mTimerItem;
-        if (view != null) {
-            final Timer timer = getTimer();
-            view.update(timer);
-            return !timer.isReset();
+        final Timer timer = getTimer();
+        if (view != null && timer != null) {
+            mNextUpdateTime = view.update(timer);
+        } else {
+            mNextUpdateTime = Long.MAX_VALUE;
         }
+        return mNextUpdateTime;
+    }
 
-        return false;
+    /**
+     * @return the {@link android.os.SystemClock#elapsedRealtime()} at which the displayed timer
+     *      next changes as of its last update
+     */
+    long getNextUpdateTime() {
+        return mNextUpdateTime;
     }
 
     int getTimerId() {
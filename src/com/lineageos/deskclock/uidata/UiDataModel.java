@@ -70,6 +70,8 @@ public final class UiDataModel {
 
     private Context mContext;
 
+    private SharedPreferences mPrefs;
+
     /** The model from which tab data are fetched. */
     private TabModel mTabModel;
 
@@ -82,16 +84,39 @@ public final class UiDataModel {
     private UiDataModel() {}
 
     /**
-     * The context may be set precisely once during the application life.
+     * The context may be set precisely once during the application life. The models themselves
+     * are created on first use, which in processes started only to handle a broadcast is never.
      */
     public void init(Context context, SharedPreferences prefs) {
         if (mContext != context) {
             mContext = context.getApplicationContext();
+            mPrefs = prefs;
 
+            mPeriodicCallbackModel = null;
+            mFormattedStringModel = null;
+            mTabModel = null;
+        }
+    }
+
+    private PeriodicCallbackModel getPeriodicCallbackModel() {
+        if (mPeriodicCallbackModel == null) {
             mPeriodicCallbackModel = new PeriodicCallbackModel(mContext);
+        }
+        return mPeriodicCallbackModel;
+    }
+
+    private FormattedStringModel getFormattedStringModel() {
+        if (mFormattedStringModel == null) {
             mFormattedStringModel = new FormattedStringModel(mContext);
-            mTabModel = new TabModel(prefs);
         }
+        return mFormattedStringModel;
+    }
+
+    private TabModel getTabModel() {
+        if (mTabModel == null) {
+            mTabModel = new TabModel(mPrefs);
+        }
+        return mTabModel;
     }
 
     /**
@@ -118,7 +143,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value);
+        return getFormattedStringModel().getFormattedNumber(value);
     }
 
     /**
@@ -134,7 +159,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value, int length) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value, length);
+        return getFormattedStringModel().getFormattedNumber(value, length);
     }
 
     /**
@@ -152,7 +177,7 @@ public final class UiDataModel {
      */
     public String getShortWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getShortWeekday(calendarDay);
+        return getFormattedStringModel().getShortWeekday(calendarDay);
     }
 
     /**
@@ -170,7 +195,7 @@ public final class UiDataModel {
      */
     public String getLongWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getLongWeekday(calendarDay);
+        return getFormattedStringModel().getLongWeekday(calendarDay);
     }
 
     //
@@ -210,7 +235,7 @@ public final class UiDataModel {
      */
     public void addTabListener(TabListener tabListener) {
         enforceMainLooper();
-        mTabModel.addTabListener(tabListener);
+        getTabModel().addTabListener(tabListener);
     }
 
     /**
@@ -218,7 +243,7 @@ public final class UiDataModel {
      */
     public void removeTabListener(TabListener tabListener) {
         enforceMainLooper();
-        mTabModel.removeTabListener(tabListener);
+        getTabModel().removeTabListener(tabListener);
     }
 
     /**
@@ -226,7 +251,7 @@ public final class UiDataModel {
      */
     public int getTabCount() {
         enforceMainLooper();
-        return mTabModel.getTabCount();
+        return getTabModel().getTabCount();
     }
 
     /**
@@ -234,7 +259,7 @@ public final class UiDataModel {
      */
     public Tab getSelectedTab() {
         enforceMainLooper();
-        return mTabModel.getSelectedTab();
+        return getTabModel().getSelectedTab();
     }
 
     /**
@@ -242,7 +267,7 @@ public final class UiDataModel {
      */
     public void setSelectedTab(Tab tab) {
         enforceMainLooper();
-        mTabModel.setSelectedTab(tab);
+        getTabModel().setSelectedTab(tab);
     }
 
     /**
@@ -250,7 +275,7 @@ public final class UiDataModel {
      */
     public void addTabScrollListener(TabScrollListener tabScrollListener) {
         enforceMainLooper();
-        mTabModel.addTabScrollListener(tabScrollListener);
+        getTabModel().addTabScrollListener(tabScrollListener);
     }
 
     /**
@@ -258,7 +283,7 @@ public final class UiDataModel {
      */
     public void removeTabScrollListener(TabScrollListener tabScrollListener) {
         enforceMainLooper();
-        mTabModel.removeTabScrollListener(tabScrollListener);
+        getTabModel().removeTabScrollListener(tabScrollListener);
     }
 
     /**
@@ -269,7 +294,7 @@ public final class UiDataModel {
      */
     public void setTabScrolledToTop(Tab tab, boolean scrolledToTop) {
         enforceMainLooper();
-        mTabModel.setTabScrolledToTop(tab, scrolledToTop);
+        getTabModel().setTabScrolledToTop(tab, scrolledToTop);
     }
 
     /**
@@ -277,7 +302,7 @@ public final class UiDataModel {
      */
     public boolean isSelectedTabScrolledToTop() {
         enforceMainLooper();
-        return mTabModel.isTabScrolledToTop(getSelectedTab());
+        return getTabModel().isTabScrolledToTop(getSelectedTab());
     }
 
     //
@@ -306,7 +331,7 @@ public final class UiDataModel {
      */
     public void addMinuteCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMinuteCallback(runnable, offset);
+        getPeriodicCallbackModel().addMinuteCallback(runnable, offset);
     }
 
     /**
@@ -314,7 +339,7 @@ public final class UiDataModel {
      */
     public void addQuarterHourCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addQuarterHourCallback(runnable);
+        getPeriodicCallbackModel().addQuarterHourCallback(runnable);
     }
 
     /**
@@ -322,7 +347,7 @@ public final class UiDataModel {
      */
     public void addMidnightCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMidnightCallback(runnable);
+        getPeriodicCallbackModel().addMidnightCallback(runnable);
     }
 
     /**
@@ -330,6 +355,6 @@ public final class UiDataModel {
      */
     public void removePeriodicCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.removePeriodicCallback(runnable);
+        getPeriodicCallbackModel().removePeriodicCallback(runnable);
     }
 }
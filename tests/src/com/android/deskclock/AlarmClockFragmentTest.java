@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.rule.ActivityTestRule;
+
+import com.lineageos.deskclock.alarms.dataadapter.AlarmItemViewHolder;
+import com.lineageos.deskclock.alarms.dataadapter.ExpandedAlarmViewHolder;
+import com.lineageos.deskclock.provider.Alarm;
+import com.lineageos.deskclock.uidata.UiDataModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AlarmClockFragmentTest {
+
+    /** The longest time to wait for the alarm to be displayed. */
+    private static final long TIMEOUT = 5000;
+
+    @Rule
+    public ActivityTestRule<DeskClock> rule = new ActivityTestRule<>(DeskClock.class, true);
+
+    private Context mContext;
+    private Alarm mAlarm;
+    private RecyclerView mRecyclerView;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mAlarm = Alarm.addAlarm(mContext, new Alarm(8, 30));
+
+        runOnMainSync(() -> {
+            UiDataModel.getUiDataModel().setSelectedTab(UiDataModel.Tab.ALARMS);
+            mRecyclerView = rule.getActivity().findViewById(R.id.alarms_recycler_view);
+        });
+        assertNotNull(mRecyclerView);
+    }
+
+    @After
+    public void tearDown() {
+        Alarm.deleteAlarm(mContext, mAlarm.id);
+    }
+
+    /**
+     * The first expand of an alarm binds the expanded holder prepared while the main thread was
+     * idle rather than inflating the expanded layout within the frame.
+     */
+    @Test
+    public void firstExpand_takesPreinflatedHolder() {
+        final AlarmItemViewHolder collapsed = awaitViewHolder();
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        runOnMainSync(() -> {
+            // The pool hands out the holder most recently put into it first.
+            final RecyclerView.ViewHolder pooled =
+                    pool.getRecycledView(ExpandedAlarmViewHolder.VIEW_TYPE);
+            assertNotNull(pooled);
+            pool.putRecycledView(pooled);
+
+            collapsed.getItemHolder().expand();
+            layout();
+            assertSame(pooled, mRecyclerView.findViewHolderForItemId(mAlarm.id));
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        collapse();
+    }
+
+    /**
+     * Displaying the alarm tab refills the pool with an expanded holder once the main thread is
+     * idle.
+     */
+    @Test
+    public void showingAlarmsTab_preinflatesExpandedHolder() {
+        awaitViewHolder();
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        runOnMainSync(() -> {
+            pool.clear();
+            UiDataModel.getUiDataModel().setSelectedTab(UiDataModel.Tab.CLOCKS);
+            UiDataModel.getUiDataModel().setSelectedTab(UiDataModel.Tab.ALARMS);
+        });
+
+        final long deadline = SystemClock.elapsedRealtime() + TIMEOUT;
+        final int[] count = new int[1];
+        while (SystemClock.elapsedRealtime() < deadline) {
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            runOnMainSync(() ->
+                    count[0] = pool.getRecycledViewCount(ExpandedAlarmViewHolder.VIEW_TYPE));
+            if (count[0] > 0) {
+                return;
+            }
+            SystemClock.sleep(50);
+        }
+        throw new AssertionError("No expanded holder was prepared");
+    }
+
+    private void collapse() {
+        runOnMainSync(() -> {
+            final RecyclerView.ViewHolder viewHolder =
+                    mRecyclerView.findViewHolderForItemId(mAlarm.id);
+            ((AlarmItemViewHolder) viewHolder).getItemHolder().collapse();
+            layout();
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+
+    /** Lays out the list immediately rather than on the next frame. */
+    private void layout() {
+        mRecyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(mRecyclerView.getWidth(),
+                        View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(mRecyclerView.getHeight(),
+                        View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(mRecyclerView.getLeft(), mRecyclerView.getTop(),
+                mRecyclerView.getRight(), mRecyclerView.getBottom());
+    }
+
+    /**
+     * @return the collapsed holder displaying the alarm once the list has loaded it
+     */
+    private AlarmItemViewHolder awaitViewHolder() {
+        final long deadline = SystemClock.elapsedRealtime() + TIMEOUT;
+        final RecyclerView.ViewHolder[] viewHolder = new RecyclerView.ViewHolder[1];
+        while (SystemClock.elapsedRealtime() < deadline) {
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            runOnMainSync(() -> viewHolder[0] = mRecyclerView.findViewHolderForItemId(mAlarm.id));
+            if (viewHolder[0] != null && !(viewHolder[0] instanceof ExpandedAlarmViewHolder)) {
+                return (AlarmItemViewHolder) viewHolder[0];
+            }
+            SystemClock.sleep(50);
+        }
+        throw new AssertionError("Alarm " + mAlarm.id + " was not displayed");
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import com.lineageos.deskclock.AsyncHandler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class LapStoreTest {
+
+    private static final int LAP_COUNT = 5000;
+
+    private File mFile;
+
+    @Before
+    public void setUp() {
+        mFile = new File(InstrumentationRegistry.getInstrumentation().getTargetContext()
+                .getCacheDir(), "laps_test");
+        mFile.delete();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        awaitWrites();
+        mFile.delete();
+    }
+
+    @Test
+    public void addLaps() {
+        final LapStore store = LapStore.load(mFile, LAP_COUNT);
+        long accumulatedTime = 0;
+        for (int i = 1; i <= LAP_COUNT; i++) {
+            // Lap i lasts i % 100 seconds, so the longest lap is 99 seconds.
+            accumulatedTime += (i % 100) * 1000L;
+            final Lap lap = store.add(accumulatedTime);
+            assertEquals(i, lap.getLapNumber());
+            assertEquals((i % 100) * 1000L, lap.getLapTime());
+        }
+
+        assertEquals(LAP_COUNT, store.size());
+        assertEquals(accumulatedTime, store.getLastAccumulatedTime());
+        assertEquals(99000L, store.getLongestLapTime());
+
+        // Laps are listed newest first.
+        final List<Lap> laps = store.getLaps();
+        assertEquals(LAP_COUNT, laps.get(0).getLapNumber());
+        assertEquals(accumulatedTime, laps.get(0).getAccumulatedTime());
+        assertEquals(1, laps.get(LAP_COUNT - 1).getLapNumber());
+        assertEquals(1000L, laps.get(LAP_COUNT - 1).getLapTime());
+    }
+
+    @Test
+    public void viewsAreImmutable() {
+        final LapStore store = LapStore.load(mFile, LAP_COUNT);
+        store.add(1000);
+        final List<Lap> before = store.getLaps();
+
+        for (int i = 2; i <= 100; i++) {
+            store.add(i * 1000L);
+        }
+        assertEquals(1, before.size());
+        assertEquals(1000L, before.get(0).getAccumulatedTime());
+
+        final List<Lap> beforeClear = store.getLaps();
+        store.clear();
+        store.add(7);
+        assertEquals(100, beforeClear.size());
+        assertEquals(100000L, beforeClear.get(0).getAccumulatedTime());
+        assertEquals(1, store.getLaps().size());
+    }
+
+    @Test
+    public void lapsArePersisted() throws InterruptedException, IOException {
+        final LapStore store = LapStore.load(mFile, LAP_COUNT);
+        store.addAll(new long[] { 1000, 3000 });
+        store.add(3500);
+        awaitWrites();
+
+        // Simulate a write interrupted partway through a record.
+        try (FileOutputStream out = new FileOutputStream(mFile, true)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        final LapStore reloaded = LapStore.load(mFile, LAP_COUNT);
+        assertEquals(3, reloaded.size());
+        assertEquals(3500L, reloaded.getLastAccumulatedTime());
+        assertEquals(2000L, reloaded.getLongestLapTime());
+
+        reloaded.clear();
+        awaitWrites();
+        assertTrue(!mFile.exists());
+    }
+
+    @Test
+    public void loadTruncatesPartialRecord() throws InterruptedException, IOException {
+        LapStore.load(mFile, LAP_COUNT).addAll(new long[] { 1000, 3000 });
+        awaitWrites();
+        try (FileOutputStream out = new FileOutputStream(mFile, true)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        // The lap recorded after reloading must not be misaligned by the partial record.
+        LapStore.load(mFile, LAP_COUNT).add(4500);
+        awaitWrites();
+        assertEquals(3 * Long.BYTES, mFile.length());
+
+        final LapStore reloaded = LapStore.load(mFile, LAP_COUNT);
+        assertEquals(3, reloaded.size());
+        assertEquals(4500L, reloaded.getLastAccumulatedTime());
+        assertEquals(2000L, reloaded.getLongestLapTime());
+    }
+
+    @Test
+    public void loadReadsAtMostMaxLaps() throws InterruptedException {
+        LapStore.load(mFile, LAP_COUNT).addAll(new long[] { 1000, 3000, 3500 });
+        awaitWrites();
+
+        final LapStore reloaded = LapStore.load(mFile, 2);
+        assertEquals(2, reloaded.size());
+        assertEquals(3000L, reloaded.getLastAccumulatedTime());
+
+        // Laps beyond the most read are dropped so that the next lap follows the ones read.
+        reloaded.add(6000);
+        awaitWrites();
+        final LapStore again = LapStore.load(mFile, LAP_COUNT);
+        assertEquals(3, again.size());
+        assertEquals(6000L, again.getLastAccumulatedTime());
+        assertEquals(3000L, again.getLongestLapTime());
+    }
+
+    /**
+     * Laps are written on the {@link AsyncHandler} thread; wait for all writes posted so far.
+     */
+    private static void awaitWrites() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        AsyncHandler.post(latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
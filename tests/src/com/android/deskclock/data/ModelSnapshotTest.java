@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.app.Instrumentation;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.lineageos.deskclock.data.Timer.State.RESET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class ModelSnapshotTest {
+
+    private static final int MUTATIONS = 2000;
+    private static final int READERS = 4;
+
+    /** The number of laps recorded through the data model; a timer is added every tenth. */
+    private static final int MODEL_MUTATIONS = 500;
+
+    @Test
+    public void initialSnapshotIsEmpty() {
+        final ModelSnapshot snapshot = new ModelSnapshot.Publisher().get();
+        assertEquals(0, snapshot.getVersion());
+        assertNull(snapshot.getTimers());
+        assertNull(snapshot.getStopwatch());
+    }
+
+    @Test
+    public void publishedListsAreCopied() {
+        final ModelSnapshot.Publisher publisher = new ModelSnapshot.Publisher();
+        final List<Timer> timers = new ArrayList<>();
+        timers.add(newTimer(1));
+        publisher.publishTimers(timers);
+
+        timers.add(newTimer(2));
+        assertEquals(1, publisher.get().getTimers().size());
+
+        try {
+            publisher.get().getTimers().clear();
+            fail("snapshot lists must be immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void readsDuringMutationsAreConsistent() throws Exception {
+        final ModelSnapshot.Publisher publisher = new ModelSnapshot.Publisher();
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch started = new CountDownLatch(READERS);
+
+        final List<Thread> readers = new ArrayList<>(READERS);
+        for (int i = 0; i < READERS; i++) {
+            final Thread reader = new Thread(() -> {
+                started.countDown();
+                long lastVersion = 0;
+                try {
+                    while (!done.get()) {
+                        final ModelSnapshot snapshot = publisher.get();
+                        assertTrue(snapshot.getVersion() >= lastVersion);
+                        lastVersion = snapshot.getVersion();
+
+                        // Only timers are published, so each version holds that many timers.
+                        final List<Timer> timers = snapshot.getTimers();
+                        final int size = timers == null ? 0 : timers.size();
+                        assertEquals(snapshot.getVersion(), size);
+                        for (int id = 0; id < size; id++) {
+                            assertEquals(id, timers.get(id).getId());
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        started.await();
+        final List<Timer> timers = new ArrayList<>();
+        for (int i = 0; i < MUTATIONS && failure.get() == null; i++) {
+            timers.add(newTimer(i));
+            publisher.publishTimers(timers);
+        }
+        done.set(true);
+
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(MUTATIONS, publisher.get().getVersion());
+    }
+
+    /**
+     * Reads {@link DataModel#getSnapshot()} from several threads while the main thread records
+     * laps and adds timers through the data model, as widgets and notifications do.
+     */
+    @Test
+    public void dataModelSnapshotReadsDuringModelChangesAreConsistent() throws Exception {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final DataModel dm = DataModel.getDataModel();
+        final List<Timer> addedTimers = new ArrayList<>();
+        instrumentation.runOnMainSync(() -> {
+            dm.resetStopwatch();
+            dm.startStopwatch();
+        });
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch started = new CountDownLatch(READERS);
+        final List<Thread> readers = new ArrayList<>(READERS);
+        for (int i = 0; i < READERS; i++) {
+            final Thread reader = new Thread(() -> {
+                started.countDown();
+                long lastVersion = 0;
+                try {
+                    while (!done.get()) {
+                        final ModelSnapshot snapshot = dm.getSnapshot();
+                        assertTrue(snapshot.isComplete());
+                        assertTrue(snapshot.getVersion() >= lastVersion);
+                        lastVersion = snapshot.getVersion();
+                        assertLapsAreConsistent(snapshot.getLaps());
+
+                        final Set<Integer> timerIds = new HashSet<>();
+                        for (Timer timer : snapshot.getTimers()) {
+                            assertTrue(timerIds.add(timer.getId()));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        try {
+            started.await();
+            for (int i = 0; i < MODEL_MUTATIONS && failure.get() == null; i++) {
+                final boolean addTimer = i % 10 == 0;
+                instrumentation.runOnMainSync(() -> {
+                    assertNotNull(dm.addLap());
+                    if (addTimer) {
+                        addedTimers.add(dm.addTimer(60000L, null, false));
+                    }
+                });
+            }
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            if (failure.get() != null) {
+                throw new AssertionError(failure.get());
+            }
+
+            // Once the main thread is done, the snapshot reflects every change.
+            instrumentation.runOnMainSync(() -> {
+                final ModelSnapshot snapshot = dm.getSnapshot();
+                assertEquals(dm.getLaps().size(), snapshot.getLaps().size());
+                assertEquals(dm.getTimers().size(), snapshot.getTimers().size());
+            });
+        } finally {
+            done.set(true);
+            instrumentation.runOnMainSync(() -> {
+                dm.resetStopwatch();
+                for (Timer timer : addedTimers) {
+                    dm.removeTimer(timer);
+                }
+            });
+        }
+    }
+
+    /**
+     * Laps are listed newest first, numbered without gaps, and each lap time is the difference
+     * between consecutive accumulated times.
+     */
+    private static void assertLapsAreConsistent(List<Lap> laps) {
+        for (int i = 0; i < laps.size(); i++) {
+            final Lap lap = laps.get(i);
+            assertEquals(laps.size() - i, lap.getLapNumber());
+            final long prevAccumulatedTime =
+                    i + 1 < laps.size() ? laps.get(i + 1).getAccumulatedTime() : 0;
+            assertEquals(lap.getAccumulatedTime() - prevAccumulatedTime, lap.getLapTime());
+        }
+    }
+
+    private static Timer newTimer(int id) {
+        return new Timer(id, RESET, 1000, 1000, Timer.UNUSED, Timer.UNUSED, 1000, null, false);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import com.lineageos.deskclock.settings.SettingsActivity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class SettingsSnapshotTest {
+
+    private SharedPreferences mPrefs;
+
+    @Before
+    public void setUp() {
+        mPrefs = InstrumentationRegistry.getInstrumentation().getTargetContext()
+                .getSharedPreferences("settings_snapshot_test", Context.MODE_PRIVATE);
+        mPrefs.edit().clear().commit();
+    }
+
+    @After
+    public void tearDown() {
+        mPrefs.edit().clear().commit();
+    }
+
+    @Test
+    public void defaults() {
+        final SettingsSnapshot snapshot = SettingsSnapshot.create(mPrefs);
+        assertEquals(10, snapshot.getAlarmTimeout());
+        assertEquals(10, snapshot.getSnoozeLength());
+        assertEquals(0, snapshot.getAlarmCrescendoDuration());
+        assertEquals(Uri.EMPTY, snapshot.getTimerRingtoneUri(Uri.EMPTY));
+    }
+
+    @Test
+    public void updateParsesOnlyTheChangedKey() {
+        final SettingsSnapshot before = SettingsSnapshot.create(mPrefs);
+        mPrefs.edit()
+                .putString(SettingsActivity.KEY_AUTO_SILENCE, "5")
+                .putString(SettingsActivity.KEY_ALARM_CRESCENDO, "30")
+                .commit();
+
+        final SettingsSnapshot after = before.update(mPrefs, SettingsActivity.KEY_AUTO_SILENCE);
+        assertEquals(5, after.getAlarmTimeout());
+        assertEquals(0, after.getAlarmCrescendoDuration());
+
+        // Earlier snapshots are never modified.
+        assertEquals(10, before.getAlarmTimeout());
+
+        // Unrelated preferences leave the snapshot untouched.
+        assertSame(after, after.update(mPrefs, "unrelated"));
+
+        // Clearing the preferences parses everything again.
+        mPrefs.edit().clear().commit();
+        final SettingsSnapshot cleared = after.update(mPrefs, null);
+        assertEquals(10, cleared.getAlarmTimeout());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class StopwatchDAOTest {
+
+    private SharedPreferences mPrefs;
+
+    @Before
+    public void setUp() {
+        mPrefs = InstrumentationRegistry.getInstrumentation().getTargetContext()
+                .getSharedPreferences("stopwatch_dao_test", Context.MODE_PRIVATE);
+        mPrefs.edit().clear().commit();
+    }
+
+    @After
+    public void tearDown() {
+        mPrefs.edit().clear().commit();
+    }
+
+    @Test
+    public void primaryStopwatchAlwaysExists() {
+        final List<Stopwatch> stopwatches = StopwatchDAO.getStopwatches(mPrefs);
+        assertEquals(1, stopwatches.size());
+        assertTrue(stopwatches.get(0).isPrimary());
+        assertTrue(stopwatches.get(0).isReset());
+    }
+
+    @Test
+    public void stopwatchesAreIndexedById() {
+        final Stopwatch first = StopwatchDAO.addStopwatch(mPrefs);
+        final Stopwatch second = StopwatchDAO.addStopwatch(mPrefs);
+        assertEquals(1, first.getId());
+        assertEquals(2, second.getId());
+
+        // Changes to several stopwatches are written together.
+        final Stopwatch primary = new Stopwatch(Stopwatch.PRIMARY_ID, Stopwatch.State.PAUSED,
+                Stopwatch.UNUSED, Stopwatch.UNUSED, 1000);
+        final Stopwatch paused = new Stopwatch(second.getId(), Stopwatch.State.PAUSED,
+                Stopwatch.UNUSED, Stopwatch.UNUSED, 2000);
+        StopwatchDAO.setStopwatches(mPrefs, Arrays.asList(primary, paused));
+
+        List<Stopwatch> stopwatches = StopwatchDAO.getStopwatches(mPrefs);
+        assertEquals(3, stopwatches.size());
+        assertEquals(1000, stopwatches.get(0).getTotalTime());
+        assertTrue(stopwatches.get(1).isReset());
+        assertEquals(2000, stopwatches.get(2).getTotalTime());
+
+        StopwatchDAO.removeStopwatch(mPrefs, first.getId());
+        stopwatches = StopwatchDAO.getStopwatches(mPrefs);
+        assertEquals(2, stopwatches.size());
+        assertEquals(second.getId(), stopwatches.get(1).getId());
+        assertEquals(2000, stopwatches.get(1).getTotalTime());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import android.content.Context;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.MONDAY;
+import static java.util.Calendar.SATURDAY;
+import static java.util.Calendar.SUNDAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class WeekdaysTest {
+
+    @Test
+    public void distances() {
+        final Calendar time = Calendar.getInstance();
+        for (int bits = 0; bits <= 0x7F; bits++) {
+            final Weekdays weekdays = Weekdays.fromBits(bits);
+            for (int calendarDay = SUNDAY; calendarDay <= SATURDAY; calendarDay++) {
+                time.set(DAY_OF_WEEK, calendarDay);
+                assertEquals(distanceToNextDay(weekdays, calendarDay),
+                        weekdays.getDistanceToNextDay(time));
+                assertEquals(distanceToPreviousDay(weekdays, calendarDay),
+                        weekdays.getDistanceToPreviousDay(time));
+            }
+        }
+    }
+
+    @Test
+    public void bits() {
+        final Weekdays monday = Weekdays.fromCalendarDays(MONDAY);
+        assertEquals(0x01, monday.getBits());
+        assertTrue(monday.isBitOn(MONDAY));
+        assertFalse(monday.isBitOn(SUNDAY));
+        assertEquals(0x41, monday.setBit(SUNDAY, true).getBits());
+        assertSame(Weekdays.NONE, monday.setBit(MONDAY, false));
+        assertSame(monday, monday.setBit(0, true));
+        assertEquals(0x7F, Weekdays.fromBits(0xFFFF).getBits());
+    }
+
+    @Test
+    public void displayStrings() {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        final Weekdays weekdays = Weekdays.fromCalendarDays(MONDAY, SATURDAY);
+        final String string = weekdays.toString(context, Weekdays.Order.MON_TO_SUN);
+        assertSame(string, weekdays.toString(context, Weekdays.Order.MON_TO_SUN));
+        assertEquals("", Weekdays.NONE.toString(context, Weekdays.Order.MON_TO_SUN));
+    }
+
+    /**
+     * Each display string is built once for the default locale and then read from the cache, until
+     * the default locale changes.
+     */
+    @Test
+    public void displayStrings_cachedPerLocale() {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        final Locale defaultLocale = Locale.getDefault();
+        final Weekdays.Order[] orders = Weekdays.Order.values();
+        final String[][] built = new String[orders.length][0x80];
+        for (Weekdays.Order order : orders) {
+            for (int bits = 1; bits <= 0x7F; bits++) {
+                built[order.ordinal()][bits] = Weekdays.fromBits(bits).toString(context, order);
+            }
+        }
+        for (Weekdays.Order order : orders) {
+            for (int bits = 1; bits <= 0x7F; bits++) {
+                assertSame(built[order.ordinal()][bits],
+                        Weekdays.fromBits(bits).toString(context, order));
+            }
+        }
+
+        final Locale otherLocale =
+                defaultLocale.equals(Locale.FRANCE) ? Locale.GERMANY : Locale.FRANCE;
+        try {
+            Locale.setDefault(otherLocale);
+            final Weekdays weekdays = Weekdays.fromBits(0x7F);
+            final Weekdays.Order order = orders[0];
+            final String string = weekdays.toString(context, order);
+            assertNotSame(built[order.ordinal()][0x7F], string);
+            assertSame(string, weekdays.toString(context, order));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    /** Walks forward from {@code calendarDay} to the first enabled weekday. */
+    private static int distanceToNextDay(Weekdays weekdays, int calendarDay) {
+        for (int count = 0; count < 7; count++) {
+            if (weekdays.isBitOn(calendarDay)) {
+                return count;
+            }
+            calendarDay = calendarDay == SATURDAY ? SUNDAY : calendarDay + 1;
+        }
+        return -1;
+    }
+
+    /** Walks backward from {@code calendarDay} to the first enabled weekday before it. */
+    private static int distanceToPreviousDay(Weekdays weekdays, int calendarDay) {
+        for (int count = 1; count <= 7; count++) {
+            calendarDay = calendarDay == SUNDAY ? SATURDAY : calendarDay - 1;
+            if (weekdays.isBitOn(calendarDay)) {
+                return count;
+            }
+        }
+        return -1;
+    }
+}
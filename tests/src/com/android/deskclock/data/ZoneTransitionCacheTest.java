@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.data;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class ZoneTransitionCacheTest {
+
+    /** 2026-03-08T12:00:00Z; the days around it include DST transitions in many zones. */
+    private static final long START = 1772971200000L;
+
+    private static final int ITERATIONS = 200;
+
+    @Before
+    public void setUp() {
+        ZoneTransitionCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        ZoneTransitionCache.clear();
+    }
+
+    @Test
+    public void offsetsMatchTimeZone() {
+        for (TimeZone zone : getAllZones()) {
+            // Step hourly through a window spanning the March transitions of most zones.
+            for (long time = START - 14 * 24 * HOUR_IN_MILLIS;
+                    time < START + 28 * 24 * HOUR_IN_MILLIS; time += HOUR_IN_MILLIS) {
+                assertEquals(zone.getID(), zone.getOffset(time),
+                        ZoneTransitionCache.getOffset(zone, time));
+            }
+        }
+    }
+
+    @Test
+    public void nextDayIsFollowingMidnight() {
+        for (TimeZone zone : getAllZones()) {
+            final List<TimeZone> zones = Collections.singletonList(zone);
+            for (long time = START - 14 * 24 * HOUR_IN_MILLIS;
+                    time < START + 28 * 24 * HOUR_IN_MILLIS; time += 7 * HOUR_IN_MILLIS) {
+                // The next day is the first instant at which the local date advances.
+                final long nextDay = ZoneTransitionCache.getNextDay(time, zones);
+                final long day = getLocalDay(zone, time);
+                assertEquals(zone.getID(), day, getLocalDay(zone, nextDay - 1));
+                assertEquals(zone.getID(), day + 1, getLocalDay(zone, nextDay));
+
+                // Where midnight repeats as DST ends, the first occurrence is the day change.
+                assertTrue(zone.getID(), nextDay <= getNextDayWithCalendar(zone, time));
+            }
+        }
+    }
+
+    @Test
+    public void getOffset_looksUpZoneOncePerSpan() {
+        final CountingTimeZone zone = new CountingTimeZone("America/New_York");
+        final long transition = ZoneTransitionCache.getNextTransition(zone, START);
+        assertTrue(transition > START);
+        assertEquals(1, zone.getLookups());
+
+        // Every time before the next transition is answered from the cached span.
+        final long step = (transition - START) / ITERATIONS;
+        for (int i = 0; i < ITERATIONS; i++) {
+            final long time = START + i * step;
+            assertEquals(zone.getDelegate().getOffset(time),
+                    ZoneTransitionCache.getOffset(zone, time));
+        }
+        assertEquals(1, zone.getLookups());
+
+        // Crossing the transition looks up the zone once more.
+        assertEquals(zone.getDelegate().getOffset(transition),
+                ZoneTransitionCache.getOffset(zone, transition));
+        assertEquals(2, zone.getLookups());
+    }
+
+    @Test
+    public void getNextDay_looksUpZoneOncePerSpan() {
+        final CountingTimeZone zone = new CountingTimeZone("America/New_York");
+        final List<TimeZone> zones = Collections.singletonList(zone);
+
+        // Hourly for ITERATIONS hours, all well before the zone's next transition.
+        for (int i = 0; i < ITERATIONS; i++) {
+            final long time = START + i * HOUR_IN_MILLIS;
+            assertEquals(getNextDayWithCalendar(zone.getDelegate(), time),
+                    ZoneTransitionCache.getNextDay(time, zones));
+        }
+        assertEquals(1, zone.getLookups());
+    }
+
+    private static List<TimeZone> getAllZones() {
+        final String[] ids = TimeZone.getAvailableIDs();
+        final List<TimeZone> zones = new ArrayList<>(ids.length);
+        for (String id : ids) {
+            zones.add(TimeZone.getTimeZone(id));
+        }
+        return zones;
+    }
+
+    private static long getLocalDay(TimeZone zone, long time) {
+        return Math.floorDiv(time + zone.getOffset(time), DAY_IN_MILLIS);
+    }
+
+    /**
+     * The computation the cache replaces: midnight of the following day in the {@code zone}.
+     */
+    private static long getNextDayWithCalendar(TimeZone zone, long time) {
+        final Calendar c = Calendar.getInstance(zone);
+        c.setTimeInMillis(time);
+        c.add(Calendar.DAY_OF_YEAR, 1);
+        c.set(Calendar.HOUR_OF_DAY, 0);
+        c.set(Calendar.MINUTE, 0);
+        c.set(Calendar.SECOND, 0);
+        c.set(Calendar.MILLISECOND, 0);
+        return c.getTimeInMillis();
+    }
+
+    /**
+     * Delegates to a real time zone while counting the lookups made of it.
+     */
+    private static final class CountingTimeZone extends TimeZone {
+
+        private final TimeZone mDelegate;
+        private int mLookups;
+
+        private CountingTimeZone(String id) {
+            mDelegate = TimeZone.getTimeZone(id);
+            setID(id);
+        }
+
+        private TimeZone getDelegate() {
+            return mDelegate;
+        }
+
+        private int getLookups() {
+            return mLookups;
+        }
+
+        @Override
+        public int getOffset(long date) {
+            mLookups++;
+            return mDelegate.getOffset(date);
+        }
+
+        @Override
+        public int getOffset(int era, int year, int month, int day, int dayOfWeek,
+                int milliseconds) {
+            mLookups++;
+            return mDelegate.getOffset(era, year, month, day, dayOfWeek, milliseconds);
+        }
+
+        @Override
+        public void setRawOffset(int offsetMillis) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getRawOffset() {
+            mLookups++;
+            return mDelegate.getRawOffset();
+        }
+
+        @Override
+        public boolean useDaylightTime() {
+            return mDelegate.useDaylightTime();
+        }
+
+        @Override
+        public boolean inDaylightTime(Date date) {
+            mLookups++;
+            return mDelegate.inDaylightTime(date);
+        }
+    }
+}
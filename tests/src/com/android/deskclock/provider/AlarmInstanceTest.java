@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.provider;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AlarmInstanceTest {
+
+    /** The number of instances of the alarm each test starts with. */
+    private static final int INSTANCE_COUNT = 10;
+
+    /** The states an instance cycles through as it fires, is snoozed and fires again. */
+    private static final int[] TRANSITION_STATES = {
+            ClockContract.InstancesColumns.LOW_NOTIFICATION_STATE,
+            ClockContract.InstancesColumns.HIGH_NOTIFICATION_STATE,
+            ClockContract.InstancesColumns.FIRED_STATE,
+            ClockContract.InstancesColumns.SNOOZE_STATE,
+    };
+
+    private Context mContext;
+    private ContentResolver mContentResolver;
+    private Alarm mAlarm;
+
+    /** The alarm time of the first instance; each later instance fires a minute after. */
+    private Calendar mFirstAlarmTime;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContentResolver = mContext.getContentResolver();
+        mAlarm = Alarm.addAlarm(mContext, new Alarm(8, 30));
+
+        // Far enough in the future not to collide with instances of real alarms.
+        mFirstAlarmTime = Calendar.getInstance();
+        mFirstAlarmTime.clear();
+        mFirstAlarmTime.set(2100, Calendar.JANUARY, 1, 8, 30, 0);
+
+        insertInstances(0, INSTANCE_COUNT);
+    }
+
+    @After
+    public void tearDown() {
+        mContentResolver.delete(AlarmInstance.CONTENT_URI,
+                ClockContract.InstancesColumns.ALARM_ID + "=?",
+                new String[] {String.valueOf(mAlarm.id)});
+        Alarm.deleteAlarm(mContext, mAlarm.id);
+    }
+
+    @Test
+    public void getInstanceByAlarmTime() {
+        for (int i : new int[] {0, INSTANCE_COUNT / 2, INSTANCE_COUNT - 1}) {
+            final Calendar alarmTime = (Calendar) mFirstAlarmTime.clone();
+            alarmTime.add(Calendar.MINUTE, i);
+
+            final AlarmInstance instance = AlarmInstance.getInstanceByAlarmTime(mContext,
+                    alarmTime.getTimeInMillis());
+            assertNotNull(instance);
+            assertEquals(mAlarm.id, (long) instance.mAlarmId);
+            assertEquals(alarmTime, instance.getAlarmTime());
+        }
+    }
+
+    @Test
+    public void getInstanceByAlarmTime_noMatch() {
+        final Calendar alarmTime = (Calendar) mFirstAlarmTime.clone();
+        alarmTime.add(Calendar.MINUTE, INSTANCE_COUNT);
+        assertNull(AlarmInstance.getInstanceByAlarmTime(mContext,
+                alarmTime.getTimeInMillis()));
+
+        // Instances fire on the minute, so a time between minutes never matches.
+        assertNull(AlarmInstance.getInstanceByAlarmTime(mContext,
+                mFirstAlarmTime.getTimeInMillis() + 1));
+    }
+
+    @Test
+    public void getInstanceByAlarmTime_staleStoredTime() {
+        final AlarmInstance instance = AlarmInstance.getInstancesByAlarmId(mContext,
+                mAlarm.id).get(0);
+        final long alarmTime = instance.getAlarmTime().getTimeInMillis();
+
+        // Simulate a time zone change that fixAlarmInstances has not yet handled.
+        ClockRepository.getInstance(mContext).updateAlarmTime(instance.mId,
+                alarmTime - 60 * 60 * 1000L);
+
+        final AlarmInstance found = AlarmInstance.getInstanceByAlarmTime(mContext, alarmTime);
+        assertNotNull(found);
+        assertEquals(instance.mId, found.mId);
+
+        // The stale stored time has been corrected.
+        assertEquals(alarmTime, AlarmInstance.getInstance(mContext, instance.mId).mStoredAlarmTime);
+    }
+
+    @Test
+    public void getInstancesByAlarmId() {
+        final List<AlarmInstance> instances =
+                AlarmInstance.getInstancesByAlarmId(mContext, mAlarm.id);
+        assertEquals(INSTANCE_COUNT, instances.size());
+
+        final AlarmInstance instance = instances.get(INSTANCE_COUNT / 2);
+        assertEquals(instance.getAlarmTime(),
+                AlarmInstance.getInstance(mContext, instance.mId).getAlarmTime());
+    }
+
+    @Test
+    public void databaseUsesWriteAheadLogging() {
+        // A read-only connection leaves the journal mode of the database file as it is.
+        try (SQLiteDatabase db = openDatabaseReadOnly();
+                Cursor cursor = db.rawQuery("PRAGMA journal_mode", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("wal", cursor.getString(0).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Test
+    public void instanceLookupsByAlarmUseIndex() {
+        final String instances = ClockDatabaseHelper.INSTANCES_TABLE_NAME;
+        final String alarmId = ClockContract.InstancesColumns.ALARM_ID;
+        try (SQLiteDatabase db = openDatabaseReadOnly()) {
+            assertTrue(getQueryPlan(db, "SELECT * FROM " + instances + " WHERE "
+                    + alarmId + " = ?", String.valueOf(mAlarm.id))
+                    .contains(ClockDatabaseHelper.INSTANCES_ALARM_ID_INDEX_NAME));
+
+            // The next instance of each alarm in the join of alarms with instances.
+            assertTrue(getQueryPlan(db, "SELECT _id FROM " + instances + " WHERE "
+                    + alarmId + " = ? ORDER BY " + ClockContract.InstancesColumns.ALARM_STATE
+                    + ", " + ClockContract.InstancesColumns.YEAR
+                    + ", " + ClockContract.InstancesColumns.MONTH
+                    + ", " + ClockContract.InstancesColumns.DAY + " LIMIT 1",
+                    String.valueOf(mAlarm.id))
+                    .contains(ClockDatabaseHelper.INSTANCES_ALARM_ID_INDEX_NAME));
+        }
+    }
+
+    @Test
+    public void updateInstance() {
+        final AlarmInstance instance = AlarmInstance.getInstancesByAlarmId(mContext,
+                mAlarm.id).get(0);
+        instance.mAlarmState = ClockContract.InstancesColumns.SNOOZE_STATE;
+        instance.mLabel = "snoozed";
+        AlarmInstance.updateInstance(mContext, instance);
+
+        // The provider sees what the app wrote directly.
+        try (Cursor cursor = mContentResolver.query(AlarmInstance.getContentUri(instance.mId),
+                null, null, null, null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(ClockContract.InstancesColumns.SNOOZE_STATE, cursor.getInt(
+                    cursor.getColumnIndexOrThrow(ClockContract.InstancesColumns.ALARM_STATE)));
+        }
+
+        final AlarmInstance updated = AlarmInstance.getInstance(mContext, instance.mId);
+        assertEquals("snoozed", updated.mLabel);
+        assertEquals(instance.getAlarmTime(), updated.getAlarmTime());
+    }
+
+    @Test
+    public void updateInstance_alarmTime() {
+        final AlarmInstance instance = AlarmInstance.getInstancesByAlarmId(mContext,
+                mAlarm.id).get(0);
+        final Calendar alarmTime = (Calendar) mFirstAlarmTime.clone();
+        alarmTime.add(Calendar.MINUTE, -1);
+        instance.setAlarmTime(alarmTime);
+        AlarmInstance.updateInstance(mContext, instance);
+
+        // The written time is remembered so updateStoredAlarmTime does not rewrite it.
+        assertEquals(alarmTime.getTimeInMillis(), instance.mStoredAlarmTime);
+        assertEquals(instance.mId, AlarmInstance.getInstanceByAlarmTime(mContext,
+                alarmTime.getTimeInMillis()).mId);
+    }
+
+    /**
+     * State transitions written directly to the database are seen through the provider, and its
+     * observers are notified just as they would be of writes made through the content resolver.
+     */
+    @Test
+    public void updateInstance_stateTransitionsNotifyObservers() throws InterruptedException {
+        final AlarmInstance instance = AlarmInstance.getInstancesByAlarmId(mContext,
+                mAlarm.id).get(0);
+        final Uri uri = AlarmInstance.getContentUri(instance.mId);
+        final BlockingQueue<Uri> changes = new LinkedBlockingQueue<>();
+        final ContentObserver observer = new ContentObserver(null) {
+            @Override
+            public void onChange(boolean selfChange, Uri changed) {
+                changes.add(changed);
+            }
+        };
+
+        mContentResolver.registerContentObserver(AlarmInstance.CONTENT_URI, true, observer);
+        try {
+            for (int state : TRANSITION_STATES) {
+                instance.mAlarmState = state;
+                AlarmInstance.updateInstance(mContext, instance);
+                assertEquals(uri, changes.poll(5, TimeUnit.SECONDS));
+
+                try (Cursor cursor = mContentResolver.query(uri, null, null, null, null)) {
+                    assertTrue(cursor.moveToFirst());
+                    assertEquals(state, cursor.getInt(cursor.getColumnIndexOrThrow(
+                            ClockContract.InstancesColumns.ALARM_STATE)));
+                }
+            }
+        } finally {
+            mContentResolver.unregisterContentObserver(observer);
+        }
+    }
+
+    private SQLiteDatabase openDatabaseReadOnly() {
+        final File path = mContext.createDeviceProtectedStorageContext()
+                .getDatabasePath(ClockDatabaseHelper.DATABASE_NAME);
+        return SQLiteDatabase.openDatabase(path.getPath(), null, SQLiteDatabase.OPEN_READONLY);
+    }
+
+    /**
+     * @return the details of each step of the plan by which SQLite executes the {@code sql}
+     */
+    private static String getQueryPlan(SQLiteDatabase db, String sql, String... selectionArgs) {
+        final StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, selectionArgs)) {
+            final int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Inserts instances of the alarm firing a minute apart.
+     *
+     * @param first the number of minutes after the first alarm time at which the first fires
+     */
+    private void insertInstances(int first, int count) {
+        final ContentValues[] values = new ContentValues[count];
+        final Calendar alarmTime = (Calendar) mFirstAlarmTime.clone();
+        alarmTime.add(Calendar.MINUTE, first);
+        for (int i = 0; i < count; i++) {
+            values[i] = AlarmInstance.createContentValues(new AlarmInstance(alarmTime, mAlarm.id));
+            alarmTime.add(Calendar.MINUTE, 1);
+        }
+        mContentResolver.bulkInsert(AlarmInstance.CONTENT_URI, values);
+    }
+}
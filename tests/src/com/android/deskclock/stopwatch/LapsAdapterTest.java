@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.stopwatch;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class LapsAdapterTest {
+
+    private LapsAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mAdapter = new LapsAdapter(
+                InstrumentationRegistry.getInstrumentation().getTargetContext());
+    }
+
+    @Test
+    public void formatLapNumber_singleDigit() {
+        assertEquals("# 7", mAdapter.formatLapNumber(9, 7));
+    }
+
+    @Test
+    public void formatLapNumber_doubleDigit() {
+        assertEquals("# 07", mAdapter.formatLapNumber(10, 7));
+        assertEquals("# 42", mAdapter.formatLapNumber(99, 42));
+    }
+
+    @Test
+    public void formatLapNumber_hundreds() {
+        assertEquals("# 007", mAdapter.formatLapNumber(100, 7));
+        assertEquals("# 042", mAdapter.formatLapNumber(999, 42));
+        assertEquals("# 999", mAdapter.formatLapNumber(999, 999));
+    }
+
+    @Test
+    public void formatLapNumber_thousands() {
+        assertEquals("# 0007", mAdapter.formatLapNumber(1000, 7));
+        assertEquals("# 0123", mAdapter.formatLapNumber(1000, 123));
+        assertEquals("# 9999", mAdapter.formatLapNumber(9999, 9999));
+        assertEquals("# 00001", mAdapter.formatLapNumber(10000, 1));
+    }
+}
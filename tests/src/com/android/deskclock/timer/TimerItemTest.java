@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lineageos.deskclock.timer;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import com.lineageos.deskclock.R;
+import com.lineageos.deskclock.data.DataModel;
+import com.lineageos.deskclock.data.Timer;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class TimerItemTest {
+
+    private static final int TIMER_COUNT = 200;
+
+    /** The number of ticks of the timer fragment's former fixed 20 ms schedule to simulate. */
+    private static final int TICKS = 50;
+    private static final long TICK_PERIOD = 20;
+
+    /** Displayed in place of each timer's label until the timer is refreshed. */
+    private static final String STALE_LABEL = "stale";
+
+    /** The size in pixels of the list displaying the timers. */
+    private static final int LIST_WIDTH = 1080;
+    private static final int LIST_HEIGHT = 1920;
+
+    private final List<Timer> mTimers = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        runOnMainSync(() -> {
+            for (Timer timer : mTimers) {
+                DataModel.getDataModel().removeTimer(DataModel.getDataModel().getTimer(
+                        timer.getId()));
+            }
+        });
+        mTimers.clear();
+    }
+
+    @Test
+    public void nextUpdateTime() {
+        runOnMainSync(() -> {
+            final DataModel dm = DataModel.getDataModel();
+            final Timer reset = dm.addTimer(90500L, "", false);
+            mTimers.add(reset);
+            final long now = SystemClock.elapsedRealtime();
+            assertEquals(Long.MAX_VALUE, TimerItem.getNextUpdateTime(reset, now));
+
+            dm.startTimer(reset);
+            final Timer running = dm.getTimer(reset.getId());
+            final long next = TimerItem.getNextUpdateTime(running, now);
+            assertTrue(next > now);
+            assertTrue(next <= now + 1000);
+
+            dm.pauseTimer(running);
+            assertEquals(Long.MAX_VALUE,
+                    TimerItem.getNextUpdateTime(dm.getTimer(reset.getId()), now));
+        });
+    }
+
+    @Test
+    public void nextUpdateTime_negativeRemainingTime() {
+        final long now = 10_000;
+        assertEquals(now + 500, TimerItem.getNextUpdateTime(1_500, false, now));
+        assertEquals(now + 1_000, TimerItem.getNextUpdateTime(1_000, false, now));
+
+        // Negative times are rounded towards 0, so 0 is displayed for a whole second.
+        assertEquals(now + 1_000, TimerItem.getNextUpdateTime(0, false, now));
+        assertEquals(now + 500, TimerItem.getNextUpdateTime(-500, false, now));
+        assertEquals(now + 1_000, TimerItem.getNextUpdateTime(-1_000, false, now));
+        assertEquals(now + 1, TimerItem.getNextUpdateTime(-1_999, false, now));
+    }
+
+    @Test
+    public void nextUpdateTime_expiredOrMissed() {
+        // The circle blinks every half second, before the displayed second changes.
+        assertEquals(10_500, TimerItem.getNextUpdateTime(-200, true, 10_250));
+        assertEquals(10_500, TimerItem.getNextUpdateTime(-200, true, 10_000));
+
+        // The displayed second changes before the circle next blinks.
+        assertEquals(10_100, TimerItem.getNextUpdateTime(-1_900, true, 10_000));
+    }
+
+    /**
+     * {@link TimerAdapter#updateTime} refreshes only the displayed timers whose display is due to
+     * change, rather than every timer on each tick of the timer fragment's former fixed 20 ms
+     * schedule.
+     */
+    @Test
+    public void updateTime_refreshesOnlyDueTimers() {
+        final int[] scheduled = new int[1];
+        final TimerAdapter adapter = new TimerAdapter(null, () -> scheduled[0]++);
+        final RecyclerView[] recyclerView = new RecyclerView[1];
+        runOnMainSync(() -> {
+            final DataModel dm = DataModel.getDataModel();
+            for (int i = 0; i < TIMER_COUNT; i++) {
+                final Timer timer = dm.addTimer((i + 1) * 7919L, "", false);
+                dm.startTimer(timer);
+                mTimers.add(dm.getTimer(timer.getId()));
+            }
+
+            final Context context = new ContextThemeWrapper(
+                    InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                    R.style.Theme_DeskClock);
+            recyclerView[0] = new RecyclerView(context);
+            recyclerView[0].setLayoutManager(new LinearLayoutManager(context));
+            recyclerView[0].setAdapter(adapter);
+            recyclerView[0].measure(
+                    View.MeasureSpec.makeMeasureSpec(LIST_WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(LIST_HEIGHT, View.MeasureSpec.EXACTLY));
+            recyclerView[0].layout(0, 0, LIST_WIDTH, LIST_HEIGHT);
+        });
+
+        // Only the holders laid out within the list are attached and refreshed.
+        final int[] childCount = new int[1];
+        runOnMainSync(() -> childCount[0] = recyclerView[0].getChildCount());
+        final int attached = childCount[0];
+        assertTrue(attached > 0);
+        assertTrue(attached < TIMER_COUNT);
+        assertTrue(scheduled[0] > 0);
+
+        final int[] dueUpdates = new int[1];
+        for (int tick = 0; tick < TICKS; tick++) {
+            runOnMainSync(() -> {
+                final long now = SystemClock.elapsedRealtime();
+
+                // A refresh restores the label of the timer over this marker.
+                final boolean[] due = new boolean[attached];
+                for (int i = 0; i < attached; i++) {
+                    final TimerViewHolder holder = getViewHolder(recyclerView[0], i);
+                    due[i] = holder.getNextUpdateTime() <= now;
+                    getLabelView(holder).setText(STALE_LABEL);
+                }
+
+                final long nextUpdateTime = adapter.updateTime(now);
+
+                // Every holder is current until the earliest time returned.
+                assertTrue(nextUpdateTime > now);
+                for (int i = 0; i < attached; i++) {
+                    final TimerViewHolder holder = getViewHolder(recyclerView[0], i);
+                    assertEquals(due[i] ? "" : STALE_LABEL,
+                            getLabelView(holder).getText().toString());
+                    assertTrue(holder.getNextUpdateTime() > now);
+                    assertTrue(holder.getNextUpdateTime() >= nextUpdateTime);
+                    if (due[i]) {
+                        dueUpdates[0]++;
+                    }
+                }
+            });
+            SystemClock.sleep(TICK_PERIOD);
+        }
+
+        // Displays change at most every half second, so most ticks refresh nothing.
+        assertTrue(dueUpdates[0] > 0);
+        assertTrue(dueUpdates[0] < attached * TICKS);
+    }
+
+    private static TextView getLabelView(TimerViewHolder holder) {
+        return holder.itemView.findViewById(R.id.timer_label);
+    }
+
+    private static TimerViewHolder getViewHolder(RecyclerView recyclerView, int index) {
+        return (TimerViewHolder) recyclerView.getChildViewHolder(recyclerView.getChildAt(index));
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}